@@ -0,0 +1,43 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial implementation
+ *
+ */
+
+plugins {
+    java
+    id("me.champeau.jmh") version "0.6.6"
+}
+
+val edcVersion: String by project
+val edcGroup: String by project
+val nimbusVersion: String by project
+
+dependencies {
+    jmhImplementation(project(":extensions:identity-hub"))
+    jmhImplementation(project(":spi:identity-hub-store-spi"))
+    jmhImplementation(project(":extensions:identity-hub-verifier"))
+    jmhImplementation(testFixtures(project(":spi:identity-hub-spi")))
+    jmhImplementation("${edcGroup}:identity-did-spi:${edcVersion}")
+    jmhImplementation("${edcGroup}:identity-did-crypto:${edcVersion}")
+    jmhImplementation("com.nimbusds:nimbus-jose-jwt:${nimbusVersion}")
+}
+
+jmh {
+    jmhVersion.set(project.property("jmhVersion") as String)
+    // Results are written as JSON, so that runs of different releases can be compared
+    resultFormat.set("JSON")
+    resultsFile.set(layout.buildDirectory.file("results/jmh/results.json"))
+    // Run a subset of the benchmarks with e.g. -PjmhIncludes=CollectionsQuery
+    if (project.hasProperty("jmhIncludes")) {
+        includes.add(project.property("jmhIncludes") as String)
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.dataspaceconnector.identityhub.credentials;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nimbusds.jwt.SignedJWT;
+import org.eclipse.dataspaceconnector.iam.did.crypto.key.EcPrivateKeyWrapper;
+import org.eclipse.dataspaceconnector.identityhub.credentials.model.VerifiableCredential;
+import org.eclipse.dataspaceconnector.spi.monitor.Monitor;
+import org.eclipse.dataspaceconnector.spi.result.Result;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.text.ParseException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.eclipse.dataspaceconnector.identityhub.junit.testfixtures.VerifiableCredentialTestUtil.generateEcKey;
+import static org.eclipse.dataspaceconnector.identityhub.junit.testfixtures.VerifiableCredentialTestUtil.generateVerifiableCredential;
+
+/**
+ * Signing of a credential with {@link VerifiableCredentialsJwtServiceImpl#buildSignedJwt}, and extraction of a
+ * credential with {@link VerifiableCredentialsJwtServiceImpl#extractCredential} from a JWT parsed from its serialized
+ * form, as done for the credentials read from an Identity Hub.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VerifiableCredentialsJwtServiceBenchmark {
+
+    private static final String ISSUER = "did:web:issuer";
+    private static final String SUBJECT = "did:web:subject";
+
+    private VerifiableCredentialsJwtService service;
+    private VerifiableCredential credential;
+    private EcPrivateKeyWrapper privateKey;
+    private String serializedJwt;
+
+    @Setup
+    public void setUp() throws Exception {
+        service = new VerifiableCredentialsJwtServiceImpl(new ObjectMapper(), new Monitor() {
+        });
+        credential = generateVerifiableCredential();
+        privateKey = new EcPrivateKeyWrapper(generateEcKey());
+        serializedJwt = service.buildSignedJwt(credential, ISSUER, SUBJECT, privateKey).serialize();
+    }
+
+    @Benchmark
+    public SignedJWT buildSignedJwt() throws Exception {
+        return service.buildSignedJwt(credential, ISSUER, SUBJECT, privateKey);
+    }
+
+    @Benchmark
+    public Result<Map.Entry<String, Object>> extractCredential() throws ParseException {
+        return service.extractCredential(SignedJWT.parse(serializedJwt));
+    }
+}
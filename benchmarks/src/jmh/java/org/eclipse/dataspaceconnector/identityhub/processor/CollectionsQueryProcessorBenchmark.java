@@ -0,0 +1,105 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.dataspaceconnector.identityhub.processor;
+
+import org.eclipse.dataspaceconnector.identityhub.model.CollectionsQueryFilter;
+import org.eclipse.dataspaceconnector.identityhub.model.Descriptor;
+import org.eclipse.dataspaceconnector.identityhub.model.MessageRequestObject;
+import org.eclipse.dataspaceconnector.identityhub.model.MessageResponseObject;
+import org.eclipse.dataspaceconnector.identityhub.store.HubObject;
+import org.eclipse.dataspaceconnector.identityhub.store.HubObjectMetadata;
+import org.eclipse.dataspaceconnector.identityhub.store.IdentityHubInMemoryStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Querying of an in-memory store of increasing size by {@link CollectionsQueryProcessor}: first page of all the hub
+ * objects, first page of the hub objects of an issuer holding 1% of them, and conditional query of an unchanged store.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CollectionsQueryProcessorBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+    private static final int ISSUERS = 100;
+
+    @Param({"1000", "10000", "100000"})
+    private int storeSize;
+
+    private CollectionsQueryProcessor processor;
+    private MessageRequestObject allQuery;
+    private MessageRequestObject issuerQuery;
+    private MessageRequestObject conditionalQuery;
+
+    @Setup
+    public void setUp() {
+        var store = new IdentityHubInMemoryStore();
+        var hubObjects = new ArrayList<HubObject>(storeSize);
+        for (var i = 0; i < storeSize; i++) {
+            var metadata = HubObjectMetadata.Builder.newInstance()
+                    .issuer("did:web:issuer" + i % ISSUERS)
+                    .subject("did:web:subject" + i)
+                    .type("VerifiableCredential")
+                    .build();
+            hubObjects.add(new HubObject(UUID.randomUUID().toString().getBytes(UTF_8), metadata));
+        }
+        store.addAll(hubObjects);
+        processor = new CollectionsQueryProcessor(store);
+
+        allQuery = query(Descriptor.Builder.newInstance());
+        issuerQuery = query(Descriptor.Builder.newInstance().filter(CollectionsQueryFilter.Builder.newInstance().issuer("did:web:issuer" + (ISSUERS - 1)).build()));
+        conditionalQuery = query(Descriptor.Builder.newInstance().ifNoneMatch(processor.process(allQuery).getEtag()));
+    }
+
+    @Benchmark
+    public MessageResponseObject queryAll() {
+        return processor.process(allQuery);
+    }
+
+    @Benchmark
+    public MessageResponseObject queryByIssuer() {
+        return processor.process(issuerQuery);
+    }
+
+    @Benchmark
+    public MessageResponseObject queryNotModified() {
+        return processor.process(conditionalQuery);
+    }
+
+    private static MessageRequestObject query(Descriptor.Builder descriptor) {
+        return MessageRequestObject.Builder.newInstance()
+                .descriptor(descriptor.method("CollectionsQuery").nonce(UUID.randomUUID().toString()).limit(PAGE_SIZE).build())
+                .build();
+    }
+}
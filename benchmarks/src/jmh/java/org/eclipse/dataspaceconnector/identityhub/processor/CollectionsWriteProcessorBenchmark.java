@@ -0,0 +1,88 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.dataspaceconnector.identityhub.processor;
+
+import org.eclipse.dataspaceconnector.identityhub.model.Descriptor;
+import org.eclipse.dataspaceconnector.identityhub.model.MessageRequestObject;
+import org.eclipse.dataspaceconnector.identityhub.model.MessageResponseObject;
+import org.eclipse.dataspaceconnector.identityhub.store.IdentityHubInMemoryStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.eclipse.dataspaceconnector.identityhub.junit.testfixtures.VerifiableCredentialTestUtil.buildSignedJwt;
+import static org.eclipse.dataspaceconnector.identityhub.junit.testfixtures.VerifiableCredentialTestUtil.generateEcKey;
+import static org.eclipse.dataspaceconnector.identityhub.junit.testfixtures.VerifiableCredentialTestUtil.generateVerifiableCredential;
+
+/**
+ * Writing of a credential by {@link CollectionsWriteProcessor}, i.e. parsing of the JWT, extraction of its metadata and
+ * addition to an in-memory store. Each iteration writes a batch of distinct credentials into an empty store, so that no
+ * write is skipped as a duplicate; the score is the time to write the whole batch.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, batchSize = CollectionsWriteProcessorBenchmark.BATCH_SIZE)
+@Measurement(iterations = 10, batchSize = CollectionsWriteProcessorBenchmark.BATCH_SIZE)
+@Fork(1)
+public class CollectionsWriteProcessorBenchmark {
+
+    static final int BATCH_SIZE = 10_000;
+
+    private final List<MessageRequestObject> messages = new ArrayList<>();
+    private CollectionsWriteProcessor processor;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        var key = generateEcKey();
+        for (var i = 0; i < BATCH_SIZE; i++) {
+            var jwt = buildSignedJwt(generateVerifiableCredential(), "did:web:issuer", "did:web:subject" + i, key);
+            var descriptor = Descriptor.Builder.newInstance()
+                    .method("CollectionsWrite")
+                    .nonce(UUID.randomUUID().toString())
+                    .build();
+            messages.add(MessageRequestObject.Builder.newInstance()
+                    .descriptor(descriptor)
+                    .data(jwt.serialize().getBytes(UTF_8))
+                    .build());
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void setUpIteration() {
+        processor = new CollectionsWriteProcessor(new IdentityHubInMemoryStore());
+        next = 0;
+    }
+
+    @Benchmark
+    public MessageResponseObject write() {
+        return processor.process(messages.get(next++));
+    }
+}
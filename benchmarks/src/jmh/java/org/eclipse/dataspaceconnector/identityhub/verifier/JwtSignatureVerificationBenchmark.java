@@ -0,0 +1,94 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.dataspaceconnector.identityhub.verifier;
+
+import com.nimbusds.jwt.SignedJWT;
+import org.eclipse.dataspaceconnector.spi.monitor.Monitor;
+import org.eclipse.dataspaceconnector.spi.result.Result;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.eclipse.dataspaceconnector.identityhub.junit.testfixtures.VerifiableCredentialTestUtil.buildSignedJwt;
+import static org.eclipse.dataspaceconnector.identityhub.junit.testfixtures.VerifiableCredentialTestUtil.generateEcKey;
+import static org.eclipse.dataspaceconnector.identityhub.junit.testfixtures.VerifiableCredentialTestUtil.generateVerifiableCredential;
+import static org.eclipse.dataspaceconnector.identityhub.junit.testfixtures.VerifiableCredentialTestUtil.toPublicKeyWrapper;
+
+/**
+ * Signature verification of a credential by {@link DidJwtCredentialsVerifier}, with a new JWS verifier created for
+ * every credential, or with the JWS verifier cached with the public key of the issuer. Also measures the lookup of an
+ * already verified signature in {@link CachingJwtCredentialsVerifier}, and the verification of the claims.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtSignatureVerificationBenchmark {
+
+    private static final String ISSUER = "did:web:issuer";
+    private static final String SUBJECT = "did:web:subject";
+
+    private SignedJWT jwt;
+    private DidJwtCredentialsVerifier newVerifierPerCredential;
+    private DidJwtCredentialsVerifier cachedVerifier;
+    private CachingJwtCredentialsVerifier cachedSignatures;
+
+    @Setup
+    public void setUp() {
+        var key = generateEcKey();
+        jwt = buildSignedJwt(generateVerifiableCredential(), ISSUER, SUBJECT, key);
+        var publicKey = toPublicKeyWrapper(key);
+        var cachedPublicKey = new VerifierCachingPublicKeyWrapper(publicKey);
+        var monitor = new Monitor() {
+        };
+        newVerifierPerCredential = new DidJwtCredentialsVerifier(did -> Result.success(publicKey), monitor);
+        cachedVerifier = new DidJwtCredentialsVerifier(did -> Result.success(cachedPublicKey), monitor);
+        cachedSignatures = new CachingJwtCredentialsVerifier(cachedVerifier, 1000, Duration.ofHours(1), Clock.systemUTC());
+        cachedSignatures.isSignedByIssuer(jwt);
+    }
+
+    @Benchmark
+    public Result<Void> newVerifierPerCredential() {
+        return newVerifierPerCredential.isSignedByIssuer(jwt);
+    }
+
+    @Benchmark
+    public Result<Void> cachedVerifier() {
+        return cachedVerifier.isSignedByIssuer(jwt);
+    }
+
+    @Benchmark
+    public Result<Void> cachedSignature() {
+        return cachedSignatures.isSignedByIssuer(jwt);
+    }
+
+    @Benchmark
+    public Result<Void> verifyClaims() {
+        return cachedVerifier.verifyClaims(jwt, SUBJECT);
+    }
+}
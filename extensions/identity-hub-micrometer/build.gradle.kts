@@ -0,0 +1,43 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial implementation
+ *
+ */
+
+plugins {
+    `java-library`
+    `maven-publish`
+}
+
+val edcVersion: String by project
+val edcGroup: String by project
+val jupiterVersion: String by project
+val assertj: String by project
+val micrometerVersion: String by project
+
+dependencies {
+    api(project(":spi:identity-hub-spi"))
+    implementation("${edcGroup}:core-spi:${edcVersion}")
+    implementation("io.micrometer:micrometer-core:${micrometerVersion}")
+
+    testImplementation("org.junit.jupiter:junit-jupiter-api:${jupiterVersion}")
+    testRuntimeOnly("org.junit.jupiter:junit-jupiter-engine:${jupiterVersion}")
+    testImplementation("org.assertj:assertj-core:${assertj}")
+}
+
+publishing {
+    publications {
+        create<MavenPublication>("identity-hub-micrometer") {
+            artifactId = "identity-hub-micrometer"
+            from(components["java"])
+        }
+    }
+}
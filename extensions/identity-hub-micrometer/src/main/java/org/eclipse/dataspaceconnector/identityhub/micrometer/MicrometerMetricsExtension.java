@@ -0,0 +1,39 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.dataspaceconnector.identityhub.micrometer;
+
+import io.micrometer.core.instrument.Metrics;
+import org.eclipse.dataspaceconnector.identityhub.metrics.MetricsRegistry;
+import org.eclipse.dataspaceconnector.spi.system.Provides;
+import org.eclipse.dataspaceconnector.spi.system.ServiceExtension;
+import org.eclipse.dataspaceconnector.spi.system.ServiceExtensionContext;
+
+/**
+ * EDC extension recording the metrics of the Identity Hub in the Micrometer global registry, which is the one the EDC
+ * Micrometer extension instruments and exposes, e.g. to Prometheus.
+ */
+@Provides(MetricsRegistry.class)
+public class MicrometerMetricsExtension implements ServiceExtension {
+
+    @Override
+    public String name() {
+        return "Identity Hub Micrometer Metrics";
+    }
+
+    @Override
+    public void initialize(ServiceExtensionContext context) {
+        context.registerService(MetricsRegistry.class, new MicrometerMetricsRegistry(Metrics.globalRegistry));
+    }
+}
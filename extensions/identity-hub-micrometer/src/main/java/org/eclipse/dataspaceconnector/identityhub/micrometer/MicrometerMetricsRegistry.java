@@ -0,0 +1,75 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.dataspaceconnector.identityhub.micrometer;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import org.eclipse.dataspaceconnector.identityhub.metrics.MetricsRegistry;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * {@link MetricsRegistry} recording the metrics in a Micrometer {@link MeterRegistry}.
+ */
+public class MicrometerMetricsRegistry implements MetricsRegistry {
+
+    private final MeterRegistry meterRegistry;
+    // Micrometer only keeps weak references to the objects of gauges and function counters
+    private final Queue<Supplier<Number>> suppliers = new ConcurrentLinkedQueue<>();
+
+    public MicrometerMetricsRegistry(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void increment(String name, Map<String, String> tags, long amount) {
+        meterRegistry.counter(name, tags(tags)).increment(amount);
+    }
+
+    @Override
+    public void record(String name, Map<String, String> tags, Duration duration) {
+        meterRegistry.timer(name, tags(tags)).record(duration);
+    }
+
+    @Override
+    public void registerGauge(String name, Map<String, String> tags, Supplier<Number> value) {
+        suppliers.add(value);
+        Gauge.builder(name, value, supplier -> supplier.get().doubleValue())
+                .tags(tags(tags))
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void registerCounter(String name, Map<String, String> tags, Supplier<Number> count) {
+        suppliers.add(count);
+        FunctionCounter.builder(name, count, supplier -> supplier.get().doubleValue())
+                .tags(tags(tags))
+                .register(meterRegistry);
+    }
+
+    private static List<Tag> tags(Map<String, String> tags) {
+        return tags.entrySet().stream()
+                .map(tag -> Tag.of(tag.getKey(), tag.getValue()))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.dataspaceconnector.identityhub.micrometer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MicrometerMetricsRegistryTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MicrometerMetricsRegistry metricsRegistry = new MicrometerMetricsRegistry(meterRegistry);
+
+    @Test
+    void incrementCountersByTags() {
+        // Act
+        metricsRegistry.increment("messages", Map.of("status", "200"), 2);
+        metricsRegistry.increment("messages", Map.of("status", "200"), 1);
+        metricsRegistry.increment("messages", Map.of("status", "400"), 1);
+
+        // Assert
+        assertThat(meterRegistry.get("messages").tag("status", "200").counter().count()).isEqualTo(3);
+        assertThat(meterRegistry.get("messages").tag("status", "400").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void recordTimer() {
+        // Act
+        metricsRegistry.record("processing", Map.of("method", "CollectionsQuery"), Duration.ofMillis(10));
+        metricsRegistry.record("processing", Map.of("method", "CollectionsQuery"), Duration.ofMillis(30));
+
+        // Assert
+        var timer = meterRegistry.get("processing").tag("method", "CollectionsQuery").timer();
+        assertThat(timer.count()).isEqualTo(2);
+        assertThat(timer.totalTime(TimeUnit.MILLISECONDS)).isEqualTo(40);
+    }
+
+    @Test
+    void registerGaugeAndCounterReadingSuppliers() {
+        // Arrange
+        var value = new AtomicLong(5);
+        metricsRegistry.registerGauge("size", Map.of(), value::get);
+        metricsRegistry.registerCounter("hits", Map.of("cache", "key"), value::get);
+
+        // Act
+        value.set(7);
+        System.gc();
+
+        // Assert
+        assertThat(meterRegistry.get("size").gauge().value()).isEqualTo(7);
+        assertThat(meterRegistry.get("hits").tag("cache", "key").functionCounter().count()).isEqualTo(7);
+    }
+}
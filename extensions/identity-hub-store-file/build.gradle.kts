@@ -0,0 +1,47 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial implementation
+ *
+ */
+
+plugins {
+    `java-library`
+    `maven-publish`
+}
+
+val edcVersion: String by project
+val edcGroup: String by project
+val jupiterVersion: String by project
+val assertj: String by project
+val faker: String by project
+val mockitoVersion: String by project
+
+dependencies {
+    api(project(":spi:identity-hub-store-spi"))
+    implementation(project(":identity-hub-core:identity-hub-store-index"))
+    implementation(project(":identity-hub-core:identity-hub-model"))
+    implementation("${edcGroup}:core-spi:${edcVersion}")
+
+    testImplementation("org.junit.jupiter:junit-jupiter-api:${jupiterVersion}")
+    testRuntimeOnly("org.junit.jupiter:junit-jupiter-engine:${jupiterVersion}")
+    testImplementation("org.assertj:assertj-core:${assertj}")
+    testImplementation("com.github.javafaker:javafaker:${faker}")
+    testImplementation("org.mockito:mockito-core:${mockitoVersion}")
+}
+
+publishing {
+    publications {
+        create<MavenPublication>("identity-hub-store-file") {
+            artifactId = "identity-hub-store-file"
+            from(components["java"])
+        }
+    }
+}
@@ -0,0 +1,295 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.dataspaceconnector.identityhub.store.file;
+
+import org.eclipse.dataspaceconnector.identityhub.model.DataCid;
+import org.eclipse.dataspaceconnector.identityhub.store.HubObject;
+import org.eclipse.dataspaceconnector.identityhub.store.HubObjectMetadata;
+import org.eclipse.dataspaceconnector.identityhub.store.HubObjectPage;
+import org.eclipse.dataspaceconnector.identityhub.store.HubObjectQuery;
+import org.eclipse.dataspaceconnector.identityhub.store.IdentityHubStore;
+import org.eclipse.dataspaceconnector.identityhub.store.index.AppendOnlyList;
+import org.eclipse.dataspaceconnector.identityhub.store.index.HubObjectIndex;
+import org.eclipse.dataspaceconnector.spi.EdcException;
+import org.eclipse.dataspaceconnector.spi.monitor.Monitor;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import static java.lang.String.format;
+
+/**
+ * Persistent {@link IdentityHubStore} keeping hub objects in an append-only log of memory-mapped segment files.
+ * <p>
+ * Hub objects are appended to the last segment, a new segment being created when it is full. At startup, the segments
+ * are scanned to rebuild the in-memory offset and metadata indexes. A truncated or corrupted record at the end of the
+ * last segment, e.g. after a crash, is discarded.
+ * <p>
+ * Writes are serialized and made durable with batched fsync: a write returns once its record has been flushed to the
+ * storage device, and a single flush covers all the records appended by concurrent writers in the meantime. Reads do not
+ * lock and work on a snapshot of the offset index.
+ * <p>
+ * Hub objects added together with {@link #addAll(List)} are written to the same segment and made visible to readers at
+ * once. On recovery, a batch is only restored if all its records are valid.
+ */
+public class FileIdentityHubStore implements IdentityHubStore, AutoCloseable {
+
+    private static final String SEGMENT_FILE_FORMAT = "%020d.log";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final AppendOnlyList<Segment> segments = new AppendOnlyList<>();
+    // Location of the hub objects, i.e. segment number in the upper 32 bits and record offset in the lower 32 bits
+    private final AppendOnlyList<Long> locations = new AppendOnlyList<>();
+    private final Map<String, Integer> positionsByCid = new ConcurrentHashMap<>();
+    private final HubObjectIndex index = new HubObjectIndex();
+
+    private final Object syncLock = new Object();
+    private volatile long appendedRecords;
+    private long durableRecords;
+
+    /**
+     * Open the store, creating the directory if needed, and rebuild its indexes from the existing segments.
+     *
+     * @param directory   directory of the segment files.
+     * @param segmentSize size of the segment files in bytes, which is also the maximum size of a batch of records.
+     * @param monitor     monitor used to report discarded records.
+     * @throws EdcException if the segments cannot be read.
+     */
+    public FileIdentityHubStore(Path directory, int segmentSize, Monitor monitor) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        try {
+            Files.createDirectories(directory);
+            recover(monitor);
+        } catch (IOException e) {
+            close();
+            throw new EdcException(format("Failed to open Identity Hub store in %s", directory), e);
+        }
+    }
+
+    @Override
+    public Collection<byte[]> getAll() {
+        return new HubObjectList(locations.snapshot());
+    }
+
+    @Override
+    public void add(byte[] hubObject, HubObjectMetadata metadata) {
+        addAll(List.of(new HubObject(hubObject, metadata)));
+    }
+
+    @Override
+    public void addAll(List<HubObject> hubObjects) {
+        long sequence;
+        synchronized (this) {
+            var cids = new LinkedHashSet<String>();
+            var metadata = new ArrayList<HubObjectMetadata>();
+            var data = new ArrayList<byte[]>();
+            for (var hubObject : hubObjects) {
+                var hubObjectMetadata = hubObject.getMetadata();
+                var cid = hubObjectMetadata.getCid() != null ? hubObjectMetadata.getCid() : DataCid.of(hubObject.getData());
+                if (positionsByCid.containsKey(cid) || !cids.add(cid)) {
+                    continue;
+                }
+                metadata.add(withCid(hubObjectMetadata, cid));
+                data.add(hubObject.getData());
+            }
+            if (data.isEmpty()) {
+                return;
+            }
+
+            // Records of a batch are written to the same segment, so that an incomplete batch is discarded on recovery
+            var records = new ArrayList<byte[]>(data.size());
+            var batchSize = 0L;
+            for (var i = 0; i < data.size(); i++) {
+                var record = new HubObjectRecord(data.get(i), metadata.get(i), data.size() - 1 - i).encode();
+                records.add(record);
+                batchSize += record.length;
+            }
+            var segmentNumber = segments.size() - 1;
+            var segment = segments.snapshot().get(segmentNumber);
+            if (batchSize > segment.remaining()) {
+                if (batchSize > segmentSize) {
+                    throw new EdcException(format("%d hub objects of %d bytes exceed the segment size of %d bytes", records.size(), batchSize, segmentSize));
+                }
+                // Records of previous segments must be durable, as only the last segment is flushed on sync
+                segment.force();
+                segment = newSegment(++segmentNumber);
+            }
+            var batchLocations = new ArrayList<Long>(records.size());
+            for (var record : records) {
+                batchLocations.add(location(segmentNumber, segment.append(record)));
+            }
+
+            // Index first, so that the metadata of every hub object of a snapshot is visible to the readers
+            metadata.forEach(index::add);
+            // Publish the locations of the batch in a single snapshot, so that readers never see a part of the batch only
+            var position = locations.addAll(batchLocations);
+            for (var cid : cids) {
+                positionsByCid.put(cid, position++);
+            }
+            sequence = ++appendedRecords;
+        }
+        sync(sequence);
+    }
+
+    @Override
+    public byte[] findByCid(String cid) {
+        var position = positionsByCid.get(cid);
+        return position != null ? read(locations.snapshot().get(position)) : null;
+    }
+
+    @Override
+    public HubObjectPage query(HubObjectQuery query) {
+        return index.query(query, new HubObjectList(locations.snapshot()));
+    }
+
+    @Override
+    public long version() {
+        return locations.size();
+    }
+
+    @Override
+    public long count() {
+        return locations.size();
+    }
+
+    @Override
+    public synchronized void close() {
+        for (var segment : segments.snapshot()) {
+            try {
+                segment.force();
+                segment.close();
+            } catch (IOException e) {
+                throw new EdcException(format("Failed to close segment %s", segment.getPath()), e);
+            }
+        }
+    }
+
+    /**
+     * Wait until the record with the given sequence number is durable. The first waiting writer flushes the last segment
+     * on behalf of all the writers having appended records so far, the other ones return without flushing again.
+     */
+    private void sync(long sequence) {
+        synchronized (syncLock) {
+            if (durableRecords >= sequence) {
+                return;
+            }
+            // Read the number of appended records before the segment: records of a previous segment were flushed on rollover
+            var appended = appendedRecords;
+            var current = segments.snapshot();
+            current.get(current.size() - 1).force();
+            durableRecords = appended;
+        }
+    }
+
+    private void recover(Monitor monitor) throws IOException {
+        List<Path> files;
+        try (var paths = Files.list(directory)) {
+            files = paths.filter(path -> path.getFileName().toString().endsWith(".log"))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+
+        for (var segmentNumber = 0; segmentNumber < files.size(); segmentNumber++) {
+            var path = files.get(segmentNumber);
+            if (!path.getFileName().toString().equals(format(SEGMENT_FILE_FORMAT, segmentNumber))) {
+                throw new EdcException(format("Unexpected segment file %s", path));
+            }
+            var segment = Segment.open(path, segmentSize);
+            segments.add(segment);
+            var number = segmentNumber;
+            var valid = segment.recover((offset, record) -> {
+                var metadata = record.getMetadata();
+                index.add(metadata);
+                var position = locations.add(location(number, offset));
+                positionsByCid.put(metadata.getCid(), position);
+            });
+            if (!valid) {
+                if (segmentNumber < files.size() - 1) {
+                    throw new EdcException(format("Corrupted segment file %s", path));
+                }
+                monitor.warning(format("Discarding truncated or corrupted record at the end of segment file %s", path));
+                segment.discardTail();
+            }
+        }
+
+        if (segments.size() == 0) {
+            newSegment(0);
+        }
+    }
+
+    private Segment newSegment(int segmentNumber) {
+        var path = directory.resolve(format(SEGMENT_FILE_FORMAT, segmentNumber));
+        try {
+            var segment = Segment.open(path, segmentSize);
+            segments.add(segment);
+            return segment;
+        } catch (IOException e) {
+            throw new EdcException(format("Failed to create segment file %s", path), e);
+        }
+    }
+
+    private byte[] read(long location) {
+        var segment = segments.snapshot().get((int) (location >>> 32));
+        return segment.readData((int) location);
+    }
+
+    private static long location(int segmentNumber, int offset) {
+        return ((long) segmentNumber << 32) | offset;
+    }
+
+    private static HubObjectMetadata withCid(HubObjectMetadata metadata, String cid) {
+        return HubObjectMetadata.Builder.newInstance()
+                .cid(cid)
+                .issuer(metadata.getIssuer())
+                .subject(metadata.getSubject())
+                .types(metadata.getTypes())
+                .schemas(metadata.getSchemas())
+                .expiration(metadata.getExpiration())
+                .build();
+    }
+
+    /**
+     * Read-only view of the hub objects at the given locations, reading them from the segments on access.
+     */
+    private class HubObjectList extends AbstractList<byte[]> implements RandomAccess {
+        private final List<Long> snapshot;
+
+        HubObjectList(List<Long> snapshot) {
+            this.snapshot = snapshot;
+        }
+
+        @Override
+        public byte[] get(int index) {
+            return read(snapshot.get(index));
+        }
+
+        @Override
+        public int size() {
+            return snapshot.size();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.dataspaceconnector.identityhub.store.file;
+
+import org.eclipse.dataspaceconnector.identityhub.store.IdentityHubStore;
+import org.eclipse.dataspaceconnector.spi.EdcSetting;
+import org.eclipse.dataspaceconnector.spi.system.Provides;
+import org.eclipse.dataspaceconnector.spi.system.ServiceExtension;
+import org.eclipse.dataspaceconnector.spi.system.ServiceExtensionContext;
+
+import java.nio.file.Path;
+
+/**
+ * EDC extension providing a persistent {@link IdentityHubStore}, replacing the default in-memory store.
+ */
+@Provides(IdentityHubStore.class)
+public class FileIdentityHubStoreExtension implements ServiceExtension {
+
+    @EdcSetting
+    private static final String DIRECTORY_SETTING = "edc.identity.hub.store.file.directory";
+    private static final String DEFAULT_DIRECTORY = "identity-hub-store";
+
+    @EdcSetting
+    private static final String SEGMENT_SIZE_SETTING = "edc.identity.hub.store.file.segment.size";
+    private static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    private FileIdentityHubStore store;
+
+    @Override
+    public String name() {
+        return "Identity Hub File Store";
+    }
+
+    @Override
+    public void initialize(ServiceExtensionContext context) {
+        var directory = Path.of(context.getSetting(DIRECTORY_SETTING, DEFAULT_DIRECTORY));
+        var segmentSize = context.getSetting(SEGMENT_SIZE_SETTING, DEFAULT_SEGMENT_SIZE);
+        store = new FileIdentityHubStore(directory, segmentSize, context.getMonitor());
+        context.registerService(IdentityHubStore.class, store);
+    }
+
+    @Override
+    public void shutdown() {
+        if (store != null) {
+            store.close();
+        }
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.dataspaceconnector.identityhub.store.file;
+
+import org.eclipse.dataspaceconnector.identityhub.store.HubObjectMetadata;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Binary format of a hub object in a {@link Segment}. A record consists of a header and a payload:
+ * <pre>
+ * header:  int payloadLength | int crc32c(payload)
+ * payload: int dataLength | data | cid | issuer | subject | int typeCount | types | int schemaCount | schemas | int following | long expiration
+ * </pre>
+ * Strings are encoded as an int length followed by their UTF-8 bytes, null strings having a length of -1. The expiration
+ * is encoded in epoch milliseconds, {@link Long#MIN_VALUE} if the hub object does not expire.
+ * Hub objects added together are written as consecutive records, each one holding the number of records following it in
+ * the same batch, so that a batch can be recognized as complete when it is read back.
+ * A payload length of 0 marks the end of the records of a segment, as segment files are zero-filled.
+ */
+final class HubObjectRecord {
+
+    static final int HEADER_SIZE = 2 * Integer.BYTES;
+    private static final long NO_EXPIRATION = Long.MIN_VALUE;
+
+    private final byte[] data;
+    private final HubObjectMetadata metadata;
+    private final int following;
+
+    HubObjectRecord(byte[] data, HubObjectMetadata metadata, int following) {
+        this.data = data;
+        this.metadata = metadata;
+        this.following = following;
+    }
+
+    byte[] getData() {
+        return data;
+    }
+
+    HubObjectMetadata getMetadata() {
+        return metadata;
+    }
+
+    /**
+     * Number of records following this one in the same batch, 0 for the last record of a batch.
+     */
+    int getFollowing() {
+        return following;
+    }
+
+    /**
+     * Encode the record, including its header.
+     */
+    byte[] encode() {
+        var cid = bytes(metadata.getCid());
+        var issuer = bytes(metadata.getIssuer());
+        var subject = bytes(metadata.getSubject());
+        var types = bytes(metadata.getTypes());
+        var schemas = bytes(metadata.getSchemas());
+
+        var payloadLength = Integer.BYTES + data.length + size(cid) + size(issuer) + size(subject) + size(types) + size(schemas) + Integer.BYTES + Long.BYTES;
+        var buffer = ByteBuffer.allocate(HEADER_SIZE + payloadLength);
+        buffer.putInt(payloadLength);
+        buffer.putInt(0);
+        buffer.putInt(data.length);
+        buffer.put(data);
+        putString(buffer, cid);
+        putString(buffer, issuer);
+        putString(buffer, subject);
+        putStrings(buffer, types);
+        putStrings(buffer, schemas);
+        buffer.putInt(following);
+        buffer.putLong(metadata.getExpiration() != null ? metadata.getExpiration().toEpochMilli() : NO_EXPIRATION);
+
+        buffer.putInt(Integer.BYTES, crc(buffer.array(), HEADER_SIZE, payloadLength));
+        return buffer.array();
+    }
+
+    /**
+     * Decode the payload of a record.
+     *
+     * @param payload buffer positioned at the start of the payload.
+     * @throws java.nio.BufferUnderflowException if the payload is truncated.
+     */
+    static HubObjectRecord decode(ByteBuffer payload) {
+        var data = new byte[payload.getInt()];
+        payload.get(data);
+        var builder = HubObjectMetadata.Builder.newInstance()
+                .cid(getString(payload))
+                .issuer(getString(payload))
+                .subject(getString(payload))
+                .types(getStrings(payload))
+                .schemas(getStrings(payload));
+        var following = payload.getInt();
+        var expiration = payload.getLong();
+        builder.expiration(expiration != NO_EXPIRATION ? Instant.ofEpochMilli(expiration) : null);
+        return new HubObjectRecord(data, builder.build(), following);
+    }
+
+    /**
+     * Checksum of a payload, as stored in the record header.
+     */
+    static int crc(byte[] bytes, int offset, int length) {
+        var crc = new CRC32C();
+        crc.update(bytes, offset, length);
+        return (int) crc.getValue();
+    }
+
+    private static byte[] bytes(String value) {
+        return value != null ? value.getBytes(UTF_8) : null;
+    }
+
+    private static List<byte[]> bytes(Collection<String> values) {
+        var result = new ArrayList<byte[]>(values.size());
+        values.forEach(value -> result.add(bytes(value)));
+        return result;
+    }
+
+    private static int size(byte[] value) {
+        return Integer.BYTES + (value != null ? value.length : 0);
+    }
+
+    private static int size(List<byte[]> values) {
+        return Integer.BYTES + values.stream().mapToInt(HubObjectRecord::size).sum();
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] value) {
+        if (value == null) {
+            buffer.putInt(-1);
+        } else {
+            buffer.putInt(value.length);
+            buffer.put(value);
+        }
+    }
+
+    private static void putStrings(ByteBuffer buffer, List<byte[]> values) {
+        buffer.putInt(values.size());
+        values.forEach(value -> putString(buffer, value));
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        var length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        var value = new byte[length];
+        buffer.get(value);
+        return new String(value, UTF_8);
+    }
+
+    private static List<String> getStrings(ByteBuffer buffer) {
+        var count = buffer.getInt();
+        var values = new ArrayList<String>(count);
+        for (var i = 0; i < count; i++) {
+            values.add(getString(buffer));
+        }
+        return values;
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.dataspaceconnector.identityhub.store.file;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.function.BiConsumer;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Append-only segment file of {@link HubObjectRecord}s, memory-mapped in its entirety.
+ * <p>
+ * The file is created with its full capacity and zero-filled, records being written one after the other from the start
+ * of the file. Reads and writes use absolute positions on the mapped buffer, so that records can be read concurrently
+ * with an append. Appends must be serialized by the caller.
+ */
+final class Segment implements AutoCloseable {
+
+    private final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private int writePosition;
+
+    private Segment(Path path, FileChannel channel, MappedByteBuffer buffer) {
+        this.path = path;
+        this.channel = channel;
+        this.buffer = buffer;
+    }
+
+    /**
+     * Open a segment file, creating it if it does not exist. The file is extended to the given capacity if it is smaller.
+     */
+    static Segment open(Path path, int capacity) throws IOException {
+        var channel = FileChannel.open(path, CREATE, READ, WRITE);
+        try {
+            var size = (int) Math.max(channel.size(), capacity);
+            return new Segment(path, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Read the valid records of the segment, and position the segment after the last complete batch of valid records.
+     *
+     * @param consumer receives the offset and the content of each record of the complete batches.
+     * @return true if all the records were valid, false if the segment ends with a truncated or corrupted record, or with
+     *         an incomplete batch.
+     */
+    boolean recover(BiConsumer<Integer, HubObjectRecord> consumer) {
+        var offset = 0;
+        var batchOffset = 0;
+        var batchOffsets = new ArrayList<Integer>();
+        var batchRecords = new ArrayList<HubObjectRecord>();
+        while (offset + HubObjectRecord.HEADER_SIZE <= buffer.capacity()) {
+            var length = buffer.getInt(offset);
+            if (length == 0) {
+                break;
+            }
+            var payloadOffset = offset + HubObjectRecord.HEADER_SIZE;
+            if (length < 0 || length > buffer.capacity() - payloadOffset) {
+                writePosition = batchOffset;
+                return false;
+            }
+            var payload = new byte[length];
+            buffer.get(payloadOffset, payload);
+            if (buffer.getInt(offset + Integer.BYTES) != HubObjectRecord.crc(payload, 0, length)) {
+                writePosition = batchOffset;
+                return false;
+            }
+            var record = HubObjectRecord.decode(ByteBuffer.wrap(payload));
+            batchOffsets.add(offset);
+            batchRecords.add(record);
+            offset = payloadOffset + length;
+            if (record.getFollowing() == 0) {
+                for (var i = 0; i < batchRecords.size(); i++) {
+                    consumer.accept(batchOffsets.get(i), batchRecords.get(i));
+                }
+                batchOffsets.clear();
+                batchRecords.clear();
+                batchOffset = offset;
+            }
+        }
+        writePosition = batchOffset;
+        return batchRecords.isEmpty();
+    }
+
+    /**
+     * Zero-fill the segment after the write position, to discard a truncated or corrupted record, or an incomplete batch.
+     */
+    void discardTail() {
+        var zeros = new byte[8192];
+        for (var offset = writePosition; offset < buffer.capacity(); offset += zeros.length) {
+            buffer.put(offset, zeros, 0, Math.min(zeros.length, buffer.capacity() - offset));
+        }
+        buffer.force();
+    }
+
+    /**
+     * Remaining space of the segment, in bytes.
+     */
+    int remaining() {
+        return buffer.capacity() - writePosition;
+    }
+
+    /**
+     * Append an encoded record.
+     *
+     * @return offset of the record in the segment.
+     */
+    int append(byte[] record) {
+        var offset = writePosition;
+        buffer.put(offset, record);
+        writePosition += record.length;
+        return offset;
+    }
+
+    /**
+     * Read the data of the record at the given offset.
+     */
+    byte[] readData(int offset) {
+        var dataOffset = offset + HubObjectRecord.HEADER_SIZE;
+        var data = new byte[buffer.getInt(dataOffset)];
+        buffer.get(dataOffset + Integer.BYTES, data);
+        return data;
+    }
+
+    /**
+     * Flush the written records to the storage device.
+     */
+    void force() {
+        buffer.force();
+    }
+
+    Path getPath() {
+        return path;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
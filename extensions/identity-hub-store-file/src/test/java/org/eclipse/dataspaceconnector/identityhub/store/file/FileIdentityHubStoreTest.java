@@ -0,0 +1,319 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.dataspaceconnector.identityhub.store.file;
+
+import com.github.javafaker.Faker;
+import org.eclipse.dataspaceconnector.identityhub.model.DataCid;
+import org.eclipse.dataspaceconnector.identityhub.store.HubObject;
+import org.eclipse.dataspaceconnector.identityhub.store.HubObjectMetadata;
+import org.eclipse.dataspaceconnector.identityhub.store.HubObjectQuery;
+import org.eclipse.dataspaceconnector.spi.EdcException;
+import org.eclipse.dataspaceconnector.spi.monitor.Monitor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.Mockito.mock;
+
+class FileIdentityHubStoreTest {
+
+    private static final Faker FAKER = new Faker();
+    private static final int SEGMENT_SIZE = 1024;
+
+    @TempDir
+    Path directory;
+
+    private final List<FileIdentityHubStore> stores = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        stores.forEach(FileIdentityHubStore::close);
+    }
+
+    @Test
+    void addAndRead() {
+        // Arrange
+        var store = openStore();
+        var hubObjects = hubObjects(5);
+
+        // Act
+        hubObjects.forEach(store::add);
+
+        // Assert
+        assertThat(store.getAll()).containsExactlyElementsOf(hubObjects);
+        assertThat(store.findByCid(DataCid.of(hubObjects.get(2)))).isEqualTo(hubObjects.get(2));
+    }
+
+    @Test
+    void addDuplicateHubObject() {
+        // Arrange
+        var store = openStore();
+        var hubObject = hubObject();
+
+        // Act
+        store.add(hubObject);
+        store.add(hubObject.clone());
+
+        // Assert
+        assertThat(store.getAll()).hasSize(1);
+    }
+
+    @Test
+    void reopenRestoresHubObjectsAndIndexes() {
+        // Arrange
+        var issuer = FAKER.internet().url();
+        var store = openStore();
+        var hubObjects = hubObjects(30);
+        for (var i = 0; i < hubObjects.size(); i++) {
+            store.add(hubObjects.get(i), HubObjectMetadata.Builder.newInstance().issuer(i % 3 == 0 ? issuer : FAKER.internet().url()).build());
+        }
+        store.close();
+
+        // Act
+        var reopened = openStore();
+        reopened.add(hubObjects.get(0));
+
+        // Assert
+        assertThat(reopened.getAll()).containsExactlyElementsOf(hubObjects);
+        assertThat(reopened.findByCid(DataCid.of(hubObjects.get(7)))).isEqualTo(hubObjects.get(7));
+        var page = reopened.query(HubObjectQuery.Builder.newInstance().issuer(issuer).limit(100).build());
+        assertThat(page.getItems()).containsExactly(hubObjects.get(0), hubObjects.get(3), hubObjects.get(6), hubObjects.get(9), hubObjects.get(12),
+                hubObjects.get(15), hubObjects.get(18), hubObjects.get(21), hubObjects.get(24), hubObjects.get(27));
+    }
+
+    @Test
+    void queryServesPagesFromSegments() {
+        // Arrange
+        var issuer = FAKER.internet().url();
+        var store = openStore();
+        var hubObjects = hubObjects(30);
+        var expected = new ArrayList<byte[]>();
+        for (var i = 0; i < hubObjects.size(); i++) {
+            var matches = i % 3 == 0;
+            store.add(hubObjects.get(i), HubObjectMetadata.Builder.newInstance().issuer(matches ? issuer : FAKER.internet().url()).build());
+            if (matches) {
+                expected.add(hubObjects.get(i));
+            }
+        }
+        var query = HubObjectQuery.Builder.newInstance().issuer(issuer).limit(4);
+
+        // Act
+        var firstPage = store.query(query.build());
+        store.addAll(List.of(new HubObject(hubObject(), HubObjectMetadata.Builder.newInstance().issuer(issuer).build())));
+        var items = new ArrayList<>(firstPage.getItems());
+        var cursor = firstPage.getCursor();
+        while (cursor != null) {
+            var page = store.query(query.cursor(cursor).build());
+            items.addAll(page.getItems());
+            cursor = page.getCursor();
+        }
+
+        // Assert
+        assertThat(firstPage.getItems()).containsExactlyElementsOf(expected.subList(0, 4));
+        assertThat(items).hasSize(expected.size() + 1).startsWith(expected.toArray(new byte[0][]));
+    }
+
+    @Test
+    void versionIsRestoredOnReopen() {
+        // Arrange
+        var store = openStore();
+        store.addAll(hubObjects(3).stream().map(FileIdentityHubStoreTest::withoutMetadata).collect(Collectors.toList()));
+        var version = store.version();
+        store.close();
+
+        // Act
+        var reopened = openStore();
+        reopened.add(hubObject());
+
+        // Assert
+        assertThat(version).isEqualTo(3);
+        assertThat(reopened.version()).isEqualTo(4);
+    }
+
+    @Test
+    void reopenRestoresExpiration() throws IOException {
+        // Arrange
+        var expiration = Instant.now().plus(1, ChronoUnit.DAYS).truncatedTo(ChronoUnit.MILLIS);
+        var store = openStore();
+        store.add(hubObject(), HubObjectMetadata.Builder.newInstance().expiration(expiration).build());
+        store.close();
+
+        // Act
+        var reopened = openStore();
+        reopened.add(hubObject());
+        reopened.close();
+
+        // Assert
+        var expirations = new ArrayList<Instant>();
+        try (var segment = Segment.open(directory.resolve(String.format("%020d.log", 0)), SEGMENT_SIZE)) {
+            segment.recover((offset, record) -> expirations.add(record.getMetadata().getExpiration()));
+        }
+        assertThat(expirations).containsExactly(expiration, null);
+    }
+
+    @Test
+    void addRollsOverToNewSegment() throws IOException {
+        // Arrange
+        var store = openStore();
+        var hubObjects = hubObjects(50);
+
+        // Act
+        hubObjects.forEach(store::add);
+
+        // Assert
+        try (var files = Files.list(directory)) {
+            assertThat(files.count()).isGreaterThan(1);
+        }
+        assertThat(store.getAll()).containsExactlyElementsOf(hubObjects);
+    }
+
+    @Test
+    void reopenDiscardsCorruptedTail() throws IOException {
+        // Arrange
+        var store = openStore();
+        var hubObjects = hubObjects(3);
+        hubObjects.forEach(store::add);
+        store.close();
+        corruptAfterLastRecord(directory.resolve(String.format("%020d.log", 0)));
+
+        // Act
+        var reopened = openStore();
+        var hubObject = hubObject();
+        reopened.add(hubObject);
+        reopened.close();
+
+        // Assert
+        var expected = new ArrayList<>(hubObjects);
+        expected.add(hubObject);
+        assertThat(openStore().getAll()).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void addAllWritesBatchToSameSegment() throws IOException {
+        // Arrange
+        var store = openStore();
+        var hubObjects = hubObjects(10);
+        hubObjects.subList(0, 5).forEach(store::add);
+
+        // Act
+        store.addAll(hubObjects.subList(5, 10).stream().map(FileIdentityHubStoreTest::withoutMetadata).collect(Collectors.toList()));
+        store.close();
+
+        // Assert
+        try (var files = Files.list(directory)) {
+            assertThat(files.count()).isEqualTo(2);
+        }
+        assertThat(openStore().getAll()).containsExactlyElementsOf(hubObjects);
+    }
+
+    @Test
+    void reopenDiscardsIncompleteBatch() throws IOException {
+        // Arrange
+        var store = openStore();
+        var hubObjects = hubObjects(2);
+        hubObjects.forEach(store::add);
+        store.addAll(hubObjects(3).stream().map(FileIdentityHubStoreTest::withoutMetadata).collect(Collectors.toList()));
+        store.close();
+        truncateLastRecord(directory.resolve(String.format("%020d.log", 0)));
+
+        // Act
+        var reopened = openStore();
+
+        // Assert
+        assertThat(reopened.getAll()).containsExactlyElementsOf(hubObjects);
+    }
+
+    @Test
+    void addAllLargerThanSegment() {
+        var store = openStore();
+
+        assertThatExceptionOfType(EdcException.class).isThrownBy(() -> store.addAll(hubObjects(30).stream().map(FileIdentityHubStoreTest::withoutMetadata).collect(Collectors.toList())));
+        assertThat(store.getAll()).isEmpty();
+    }
+
+    @Test
+    void addHubObjectLargerThanSegment() {
+        var store = openStore();
+
+        assertThatExceptionOfType(EdcException.class).isThrownBy(() -> store.add(new byte[SEGMENT_SIZE]));
+    }
+
+    private FileIdentityHubStore openStore() {
+        var store = new FileIdentityHubStore(directory, SEGMENT_SIZE, mock(Monitor.class));
+        stores.add(store);
+        return store;
+    }
+
+    /**
+     * Write the header of a record whose payload does not match its checksum, as left by a write interrupted by a crash.
+     */
+    private static void corruptAfterLastRecord(Path segment) throws IOException {
+        try (var channel = FileChannel.open(segment, READ, WRITE)) {
+            var buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            var offset = 0;
+            while (buffer.getInt(offset) != 0) {
+                offset += HubObjectRecord.HEADER_SIZE + buffer.getInt(offset);
+            }
+            buffer.putInt(offset, 16);
+            buffer.putInt(offset + Integer.BYTES, FAKER.number().randomDigitNotZero());
+            buffer.force();
+        }
+    }
+
+    /**
+     * Zero-fill the last record of a segment, as left by a batch interrupted by a crash.
+     */
+    private static void truncateLastRecord(Path segment) throws IOException {
+        try (var channel = FileChannel.open(segment, READ, WRITE)) {
+            var buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            var offset = 0;
+            var last = 0;
+            while (buffer.getInt(offset) != 0) {
+                last = offset;
+                offset += HubObjectRecord.HEADER_SIZE + buffer.getInt(offset);
+            }
+            buffer.put(last, new byte[offset - last]);
+            buffer.force();
+        }
+    }
+
+    private static HubObject withoutMetadata(byte[] hubObject) {
+        return new HubObject(hubObject, HubObjectMetadata.Builder.newInstance().build());
+    }
+
+    private static List<byte[]> hubObjects(int count) {
+        return IntStream.range(0, count).mapToObj(i -> hubObject()).collect(Collectors.toList());
+    }
+
+    private static byte[] hubObject() {
+        return FAKER.internet().uuid().getBytes(UTF_8);
+    }
+}
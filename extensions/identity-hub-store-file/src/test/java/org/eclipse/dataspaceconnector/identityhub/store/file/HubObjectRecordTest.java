@@ -0,0 +1,85 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.dataspaceconnector.identityhub.store.file;
+
+import com.github.javafaker.Faker;
+import org.eclipse.dataspaceconnector.identityhub.store.HubObjectMetadata;
+import org.junit.jupiter.api.Test;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+class HubObjectRecordTest {
+
+    private static final Faker FAKER = new Faker();
+
+    @Test
+    void encodeAndDecode() {
+        // Arrange
+        var metadata = HubObjectMetadata.Builder.newInstance()
+                .cid(FAKER.internet().uuid())
+                .issuer(FAKER.internet().url())
+                .subject(FAKER.internet().url())
+                .expiration(Instant.ofEpochMilli(FAKER.number().randomNumber()))
+                .type("VerifiableCredential")
+                .schema(FAKER.internet().url())
+                .build();
+        var record = new HubObjectRecord(FAKER.lorem().sentence().getBytes(UTF_8), metadata, 2);
+
+        // Act
+        var decoded = HubObjectRecord.decode(payload(record.encode(), 0));
+
+        // Assert
+        assertThat(decoded).usingRecursiveComparison().isEqualTo(record);
+    }
+
+    @Test
+    void encodeAndDecodeWithoutExpiration() {
+        // Arrange
+        var metadata = HubObjectMetadata.Builder.newInstance()
+                .issuer(FAKER.internet().url())
+                .build();
+        var record = new HubObjectRecord(FAKER.lorem().sentence().getBytes(UTF_8), metadata, 0);
+
+        // Act
+        var decoded = HubObjectRecord.decode(payload(record.encode(), 0));
+
+        // Assert
+        assertThat(decoded).usingRecursiveComparison().isEqualTo(record);
+        assertThat(decoded.getMetadata().getExpiration()).isNull();
+    }
+
+    @Test
+    void decodeRecordWithoutExpirationFails() {
+        // Arrange
+        var metadata = HubObjectMetadata.Builder.newInstance()
+                .issuer(FAKER.internet().url())
+                .expiration(Instant.now())
+                .build();
+        var record = new HubObjectRecord(FAKER.lorem().sentence().getBytes(UTF_8), metadata, 0);
+
+        // Act & Assert
+        assertThatExceptionOfType(BufferUnderflowException.class).isThrownBy(() -> HubObjectRecord.decode(payload(record.encode(), Long.BYTES)));
+    }
+
+    private static ByteBuffer payload(byte[] encoded, int truncated) {
+        return ByteBuffer.wrap(encoded, HubObjectRecord.HEADER_SIZE, encoded.length - HubObjectRecord.HEADER_SIZE - truncated).slice();
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.dataspaceconnector.identityhub.store.sql;
+
+import org.eclipse.dataspaceconnector.identityhub.store.HubObjectQuery;
+
+import java.util.List;
+
+/**
+ * SQL statements used by the {@link SqlIdentityHubStore}, to be implemented for each SQL dialect.
+ */
+public interface HubObjectStatements {
+
+    default String getHubObjectTable() {
+        return "edc_identity_hub_object";
+    }
+
+    default String getTypeTable() {
+        return "edc_identity_hub_object_type";
+    }
+
+    default String getSchemaTable() {
+        return "edc_identity_hub_object_schema";
+    }
+
+    default String getStoreVersionTable() {
+        return "edc_identity_hub_store_version";
+    }
+
+    default String getSchemaVersionTable() {
+        return "edc_identity_hub_schema_version";
+    }
+
+    default String getIdColumn() {
+        return "id";
+    }
+
+    default String getCidColumn() {
+        return "cid";
+    }
+
+    default String getDataColumn() {
+        return "data";
+    }
+
+    default String getIssuerColumn() {
+        return "issuer";
+    }
+
+    default String getSubjectColumn() {
+        return "subject";
+    }
+
+    default String getExpirationColumn() {
+        return "expiration";
+    }
+
+    default String getObjectIdColumn() {
+        return "object_id";
+    }
+
+    default String getTypeColumn() {
+        return "type";
+    }
+
+    default String getSchemaColumn() {
+        return "schema";
+    }
+
+    default String getVersionColumn() {
+        return "version";
+    }
+
+    /**
+     * Classpath resources of the schema migrations, in the order of their versions. The version of a migration is its
+     * index in the list plus one.
+     */
+    List<String> getMigrations();
+
+    String getCreateSchemaVersionTableStatement();
+
+    String getSelectSchemaVersionStatement();
+
+    String getInsertSchemaVersionStatement();
+
+    /**
+     * Insert a hub object, doing nothing if a hub object with the same CID exists. Parameters: cid, data, issuer, subject,
+     * expiration.
+     */
+    String getInsertHubObjectStatement();
+
+    /**
+     * Parameters: object id, type.
+     */
+    String getInsertTypeStatement();
+
+    /**
+     * Parameters: object id, schema.
+     */
+    String getInsertSchemaStatement();
+
+    String getSelectAllStatement();
+
+    /**
+     * Select the version of the store, which is the number of hub objects.
+     */
+    String getSelectStoreVersionStatement();
+
+    /**
+     * Increment the version of the store. Parameters: number of hub objects added.
+     */
+    String getIncrementStoreVersionStatement();
+
+    /**
+     * Parameters: cid.
+     */
+    String getFindByCidStatement();
+
+    /**
+     * Select the id and data of the hub objects matching the filters of the query, ordered by id. Parameters: minimum id,
+     * then the issuer, subject, type and schema of the query which are not null, then the maximum number of rows.
+     */
+    String getQueryStatement(HubObjectQuery query);
+}
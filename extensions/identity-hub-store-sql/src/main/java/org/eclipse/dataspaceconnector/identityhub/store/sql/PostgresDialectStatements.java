@@ -0,0 +1,105 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.dataspaceconnector.identityhub.store.sql;
+
+import org.eclipse.dataspaceconnector.identityhub.store.HubObjectQuery;
+
+import java.util.List;
+
+import static java.lang.String.format;
+
+/**
+ * {@link HubObjectStatements} for PostgreSQL.
+ */
+public class PostgresDialectStatements implements HubObjectStatements {
+
+    @Override
+    public List<String> getMigrations() {
+        return List.of(
+                "migrations/postgresql/V1__create_hub_object_tables.sql",
+                "migrations/postgresql/V2__add_hub_object_expiration.sql",
+                "migrations/postgresql/V3__add_store_version.sql");
+    }
+
+    @Override
+    public String getCreateSchemaVersionTableStatement() {
+        return format("CREATE TABLE IF NOT EXISTS %s (%s INTEGER NOT NULL)", getSchemaVersionTable(), getVersionColumn());
+    }
+
+    @Override
+    public String getSelectSchemaVersionStatement() {
+        return format("SELECT MAX(%s) FROM %s", getVersionColumn(), getSchemaVersionTable());
+    }
+
+    @Override
+    public String getInsertSchemaVersionStatement() {
+        return format("INSERT INTO %s (%s) VALUES (?)", getSchemaVersionTable(), getVersionColumn());
+    }
+
+    @Override
+    public String getInsertHubObjectStatement() {
+        return format("INSERT INTO %s (%s, %s, %s, %s, %s) VALUES (?, ?, ?, ?, ?) ON CONFLICT (%s) DO NOTHING",
+                getHubObjectTable(), getCidColumn(), getDataColumn(), getIssuerColumn(), getSubjectColumn(), getExpirationColumn(), getCidColumn());
+    }
+
+    @Override
+    public String getInsertTypeStatement() {
+        return format("INSERT INTO %s (%s, %s) VALUES (?, ?)", getTypeTable(), getObjectIdColumn(), getTypeColumn());
+    }
+
+    @Override
+    public String getInsertSchemaStatement() {
+        return format("INSERT INTO %s (%s, %s) VALUES (?, ?)", getSchemaTable(), getObjectIdColumn(), getSchemaColumn());
+    }
+
+    @Override
+    public String getSelectAllStatement() {
+        return format("SELECT %s FROM %s ORDER BY %s", getDataColumn(), getHubObjectTable(), getIdColumn());
+    }
+
+    @Override
+    public String getSelectStoreVersionStatement() {
+        return format("SELECT %s FROM %s WHERE %s = 1", getVersionColumn(), getStoreVersionTable(), getIdColumn());
+    }
+
+    @Override
+    public String getIncrementStoreVersionStatement() {
+        return format("UPDATE %s SET %s = %s + ? WHERE %s = 1", getStoreVersionTable(), getVersionColumn(), getVersionColumn(), getIdColumn());
+    }
+
+    @Override
+    public String getFindByCidStatement() {
+        return format("SELECT %s FROM %s WHERE %s = ?", getDataColumn(), getHubObjectTable(), getCidColumn());
+    }
+
+    @Override
+    public String getQueryStatement(HubObjectQuery query) {
+        var sql = new StringBuilder(format("SELECT o.%s, o.%s FROM %s o WHERE o.%s >= ?", getIdColumn(), getDataColumn(), getHubObjectTable(), getIdColumn()));
+        if (query.getIssuer() != null) {
+            sql.append(format(" AND o.%s = ?", getIssuerColumn()));
+        }
+        if (query.getSubject() != null) {
+            sql.append(format(" AND o.%s = ?", getSubjectColumn()));
+        }
+        if (query.getType() != null) {
+            sql.append(format(" AND EXISTS (SELECT 1 FROM %s t WHERE t.%s = o.%s AND t.%s = ?)", getTypeTable(), getObjectIdColumn(), getIdColumn(), getTypeColumn()));
+        }
+        if (query.getSchema() != null) {
+            sql.append(format(" AND EXISTS (SELECT 1 FROM %s s WHERE s.%s = o.%s AND s.%s = ?)", getSchemaTable(), getObjectIdColumn(), getIdColumn(), getSchemaColumn()));
+        }
+        sql.append(format(" ORDER BY o.%s LIMIT ?", getIdColumn()));
+        return sql.toString();
+    }
+}
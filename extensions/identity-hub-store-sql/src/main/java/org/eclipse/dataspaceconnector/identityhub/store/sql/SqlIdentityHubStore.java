@@ -0,0 +1,246 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.dataspaceconnector.identityhub.store.sql;
+
+import org.eclipse.dataspaceconnector.identityhub.model.DataCid;
+import org.eclipse.dataspaceconnector.identityhub.store.HubObject;
+import org.eclipse.dataspaceconnector.identityhub.store.HubObjectMetadata;
+import org.eclipse.dataspaceconnector.identityhub.store.HubObjectPage;
+import org.eclipse.dataspaceconnector.identityhub.store.HubObjectQuery;
+import org.eclipse.dataspaceconnector.identityhub.store.IdentityHubStore;
+import org.eclipse.dataspaceconnector.identityhub.store.OffsetCursor;
+import org.eclipse.dataspaceconnector.spi.EdcException;
+import org.eclipse.dataspaceconnector.spi.transaction.TransactionContext;
+import org.eclipse.dataspaceconnector.spi.transaction.datasource.DataSourceRegistry;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import static java.lang.String.format;
+
+/**
+ * {@link IdentityHubStore} backed by a SQL database, so that several Identity Hub replicas can share the same hub objects.
+ * <p>
+ * Connections are obtained from a data source of the {@link DataSourceRegistry}, which is expected to be pooled, and
+ * all the statements are prepared. The positions used by the cursors are the identifiers generated by the database.
+ * The schema is migrated on first use. The hub objects of {@link #addAll(List)} are inserted in a single transaction,
+ * with one JDBC batch per table.
+ * <p>
+ * The number of hub objects, which is also the version of the store, is kept in a single row incremented by the
+ * transactions adding hub objects, so that reading it does not scan the hub objects. Concurrent additions therefore
+ * commit one after the other.
+ */
+public class SqlIdentityHubStore implements IdentityHubStore {
+
+    private final DataSourceRegistry dataSourceRegistry;
+    private final String dataSourceName;
+    private final TransactionContext transactionContext;
+    private final HubObjectStatements statements;
+    private volatile boolean migrated;
+
+    public SqlIdentityHubStore(DataSourceRegistry dataSourceRegistry, String dataSourceName, TransactionContext transactionContext, HubObjectStatements statements) {
+        this.dataSourceRegistry = dataSourceRegistry;
+        this.dataSourceName = dataSourceName;
+        this.transactionContext = transactionContext;
+        this.statements = statements;
+    }
+
+    @Override
+    public Collection<byte[]> getAll() {
+        return transactionContext.execute(() -> {
+            try (var connection = getConnection(); var statement = connection.prepareStatement(statements.getSelectAllStatement()); var resultSet = statement.executeQuery()) {
+                var hubObjects = new ArrayList<byte[]>();
+                while (resultSet.next()) {
+                    hubObjects.add(resultSet.getBytes(1));
+                }
+                return hubObjects;
+            } catch (SQLException e) {
+                throw new EdcException(e);
+            }
+        });
+    }
+
+    @Override
+    public void add(byte[] hubObject, HubObjectMetadata metadata) {
+        addAll(List.of(new HubObject(hubObject, metadata)));
+    }
+
+    @Override
+    public void addAll(List<HubObject> hubObjects) {
+        transactionContext.execute(() -> {
+            // Hub objects repeated within the batch are only inserted once
+            var batch = new LinkedHashMap<String, HubObject>();
+            for (var hubObject : hubObjects) {
+                var cid = hubObject.getMetadata().getCid();
+                batch.putIfAbsent(cid != null ? cid : DataCid.of(hubObject.getData()), hubObject);
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+
+            // The generated keys hold the CID along with the identifier, as the hub objects which already exist are skipped
+            var keyColumns = new String[]{statements.getIdColumn(), statements.getCidColumn()};
+            try (var connection = getConnection();
+                 var insertHubObject = connection.prepareStatement(statements.getInsertHubObjectStatement(), keyColumns);
+                 var insertType = connection.prepareStatement(statements.getInsertTypeStatement());
+                 var insertSchema = connection.prepareStatement(statements.getInsertSchemaStatement())) {
+                for (var entry : batch.entrySet()) {
+                    addHubObject(insertHubObject, entry.getKey(), entry.getValue());
+                }
+                insertHubObject.executeBatch();
+
+                var added = 0;
+                try (var generatedKeys = insertHubObject.getGeneratedKeys()) {
+                    while (generatedKeys.next()) {
+                        var id = generatedKeys.getLong(1);
+                        var metadata = batch.get(generatedKeys.getString(2)).getMetadata();
+                        addValues(insertType, id, metadata.getTypes());
+                        addValues(insertSchema, id, metadata.getSchemas());
+                        added++;
+                    }
+                }
+                insertType.executeBatch();
+                insertSchema.executeBatch();
+                if (added > 0) {
+                    // Incremented last, so that the row stays locked for as short as possible
+                    incrementVersion(connection, added);
+                }
+            } catch (SQLException e) {
+                throw new EdcException(e);
+            }
+        });
+    }
+
+    @Override
+    public byte[] findByCid(String cid) {
+        return transactionContext.execute(() -> {
+            try (var connection = getConnection(); var statement = connection.prepareStatement(statements.getFindByCidStatement())) {
+                statement.setString(1, cid);
+                try (var resultSet = statement.executeQuery()) {
+                    return resultSet.next() ? resultSet.getBytes(1) : null;
+                }
+            } catch (SQLException e) {
+                throw new EdcException(e);
+            }
+        });
+    }
+
+    @Override
+    public HubObjectPage query(HubObjectQuery query) {
+        var minId = OffsetCursor.decode(query.getCursor());
+        return transactionContext.execute(() -> {
+            try (var connection = getConnection(); var statement = connection.prepareStatement(statements.getQueryStatement(query))) {
+                var index = 1;
+                statement.setLong(index++, minId);
+                for (var filter : new String[]{query.getIssuer(), query.getSubject(), query.getType(), query.getSchema()}) {
+                    if (filter != null) {
+                        statement.setString(index++, filter);
+                    }
+                }
+                // Read one more row, to get the position of the next page
+                statement.setInt(index, query.getLimit() + 1);
+
+                var items = new ArrayList<byte[]>();
+                try (var resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        if (items.size() == query.getLimit()) {
+                            return new HubObjectPage(items, OffsetCursor.encode(resultSet.getLong(1)));
+                        }
+                        items.add(resultSet.getBytes(2));
+                    }
+                }
+                return new HubObjectPage(items, null);
+            } catch (SQLException e) {
+                throw new EdcException(e);
+            }
+        });
+    }
+
+    /**
+     * Version of the store, which is the number of hub objects. Unlike the greatest identifier, the number of hub objects
+     * changes each time a transaction adding hub objects commits, even when transactions commit out of order.
+     */
+    @Override
+    public long version() {
+        return count();
+    }
+
+    @Override
+    public long count() {
+        return transactionContext.execute(() -> {
+            try (var connection = getConnection(); var statement = connection.prepareStatement(statements.getSelectStoreVersionStatement()); var resultSet = statement.executeQuery()) {
+                resultSet.next();
+                return resultSet.getLong(1);
+            } catch (SQLException e) {
+                throw new EdcException(e);
+            }
+        });
+    }
+
+    private static void addHubObject(PreparedStatement statement, String cid, HubObject hubObject) throws SQLException {
+        var metadata = hubObject.getMetadata();
+        statement.setString(1, cid);
+        statement.setBytes(2, hubObject.getData());
+        statement.setString(3, metadata.getIssuer());
+        statement.setString(4, metadata.getSubject());
+        statement.setTimestamp(5, metadata.getExpiration() != null ? Timestamp.from(metadata.getExpiration()) : null);
+        statement.addBatch();
+    }
+
+    private void incrementVersion(Connection connection, int added) throws SQLException {
+        try (var statement = connection.prepareStatement(statements.getIncrementStoreVersionStatement())) {
+            statement.setLong(1, added);
+            statement.executeUpdate();
+        }
+    }
+
+    private static void addValues(PreparedStatement statement, long id, Collection<String> values) throws SQLException {
+        for (var value : values) {
+            statement.setLong(1, id);
+            statement.setString(2, value);
+            statement.addBatch();
+        }
+    }
+
+    private Connection getConnection() throws SQLException {
+        var dataSource = dataSourceRegistry.resolve(dataSourceName);
+        if (dataSource == null) {
+            throw new EdcException(format("No data source registered with name %s", dataSourceName));
+        }
+        var connection = dataSource.getConnection();
+        if (!migrated) {
+            try {
+                migrate(connection);
+            } catch (SQLException | RuntimeException e) {
+                connection.close();
+                throw e;
+            }
+        }
+        return connection;
+    }
+
+    private synchronized void migrate(Connection connection) throws SQLException {
+        if (!migrated) {
+            new SqlSchemaMigrator(statements).migrate(connection);
+            migrated = true;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.dataspaceconnector.identityhub.store.sql;
+
+import org.eclipse.dataspaceconnector.identityhub.store.IdentityHubStore;
+import org.eclipse.dataspaceconnector.spi.EdcSetting;
+import org.eclipse.dataspaceconnector.spi.system.Inject;
+import org.eclipse.dataspaceconnector.spi.system.Provides;
+import org.eclipse.dataspaceconnector.spi.system.ServiceExtension;
+import org.eclipse.dataspaceconnector.spi.system.ServiceExtensionContext;
+import org.eclipse.dataspaceconnector.spi.transaction.TransactionContext;
+import org.eclipse.dataspaceconnector.spi.transaction.datasource.DataSourceRegistry;
+
+/**
+ * EDC extension providing a SQL {@link IdentityHubStore}, replacing the default in-memory store.
+ * The data source is looked up by name in the {@link DataSourceRegistry}, e.g. a pooled data source configured with
+ * the EDC SQL pool extension.
+ */
+@Provides(IdentityHubStore.class)
+public class SqlIdentityHubStoreExtension implements ServiceExtension {
+
+    @EdcSetting
+    private static final String DATASOURCE_NAME_SETTING = "edc.identity.hub.store.sql.datasource";
+    private static final String DEFAULT_DATASOURCE_NAME = "identityhub";
+
+    @Inject
+    private DataSourceRegistry dataSourceRegistry;
+
+    @Inject
+    private TransactionContext transactionContext;
+
+    @Override
+    public String name() {
+        return "Identity Hub SQL Store";
+    }
+
+    @Override
+    public void initialize(ServiceExtensionContext context) {
+        var dataSourceName = context.getSetting(DATASOURCE_NAME_SETTING, DEFAULT_DATASOURCE_NAME);
+        var store = new SqlIdentityHubStore(dataSourceRegistry, dataSourceName, transactionContext, new PostgresDialectStatements());
+        context.registerService(IdentityHubStore.class, store);
+    }
+}
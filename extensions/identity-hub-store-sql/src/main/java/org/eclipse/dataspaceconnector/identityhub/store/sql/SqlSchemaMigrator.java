@@ -0,0 +1,93 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.dataspaceconnector.identityhub.store.sql;
+
+import org.eclipse.dataspaceconnector.spi.EdcException;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Applies the schema migrations of a {@link HubObjectStatements} dialect which have not been applied yet.
+ * The version of the schema is recorded in a dedicated table. Migrations use "IF NOT EXISTS" clauses, so that replicas
+ * migrating the same database concurrently do not fail.
+ */
+class SqlSchemaMigrator {
+
+    private final HubObjectStatements statements;
+
+    SqlSchemaMigrator(HubObjectStatements statements) {
+        this.statements = statements;
+    }
+
+    /**
+     * Apply the pending migrations.
+     *
+     * @param connection connection to the database.
+     * @return version of the schema after migration.
+     */
+    int migrate(Connection connection) throws SQLException {
+        try (var statement = connection.createStatement()) {
+            statement.execute(statements.getCreateSchemaVersionTableStatement());
+        }
+
+        var version = currentVersion(connection);
+        var migrations = statements.getMigrations();
+        for (; version < migrations.size(); version++) {
+            try (var statement = connection.createStatement()) {
+                for (var sql : readStatements(migrations.get(version))) {
+                    statement.execute(sql);
+                }
+            }
+            try (var statement = connection.prepareStatement(statements.getInsertSchemaVersionStatement())) {
+                statement.setInt(1, version + 1);
+                statement.executeUpdate();
+            }
+        }
+        return version;
+    }
+
+    private int currentVersion(Connection connection) throws SQLException {
+        try (var statement = connection.createStatement(); var resultSet = statement.executeQuery(statements.getSelectSchemaVersionStatement())) {
+            return resultSet.next() ? resultSet.getInt(1) : 0;
+        }
+    }
+
+    /**
+     * Read the statements of a migration script, separated by semicolons. Comment lines are ignored.
+     */
+    private static String[] readStatements(String resource) {
+        try (var stream = SqlSchemaMigrator.class.getClassLoader().getResourceAsStream(resource)) {
+            if (stream == null) {
+                throw new EdcException(format("Migration script not found: %s", resource));
+            }
+            var script = new String(stream.readAllBytes(), UTF_8).lines()
+                    .filter(line -> !line.trim().startsWith("--"))
+                    .collect(Collectors.joining("\n"));
+            return Arrays.stream(script.split(";"))
+                    .map(String::trim)
+                    .filter(sql -> !sql.isEmpty())
+                    .toArray(String[]::new);
+        } catch (IOException e) {
+            throw new EdcException(format("Failed to read migration script %s", resource), e);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+--
+--  Copyright (c) 2022 Microsoft Corporation
+--
+--  This program and the accompanying materials are made available under the
+--  terms of the Apache License, Version 2.0 which is available at
+--  https://www.apache.org/licenses/LICENSE-2.0
+--
+--  SPDX-License-Identifier: Apache-2.0
+--
+--  Contributors:
+--       Microsoft Corporation - initial implementation
+--
+
+CREATE TABLE IF NOT EXISTS edc_identity_hub_object
+(
+    id      BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+    cid     VARCHAR(128) NOT NULL UNIQUE,
+    data    BYTEA        NOT NULL,
+    issuer  VARCHAR,
+    subject VARCHAR
+);
+
+CREATE INDEX IF NOT EXISTS edc_identity_hub_object_issuer_index ON edc_identity_hub_object (issuer, id);
+
+CREATE INDEX IF NOT EXISTS edc_identity_hub_object_subject_index ON edc_identity_hub_object (subject, id);
+
+CREATE TABLE IF NOT EXISTS edc_identity_hub_object_type
+(
+    object_id BIGINT  NOT NULL REFERENCES edc_identity_hub_object (id),
+    type      VARCHAR NOT NULL,
+    PRIMARY KEY (type, object_id)
+);
+
+CREATE TABLE IF NOT EXISTS edc_identity_hub_object_schema
+(
+    object_id BIGINT  NOT NULL REFERENCES edc_identity_hub_object (id),
+    schema    VARCHAR NOT NULL,
+    PRIMARY KEY (schema, object_id)
+);
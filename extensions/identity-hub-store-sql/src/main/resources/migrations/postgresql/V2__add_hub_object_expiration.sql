@@ -0,0 +1,15 @@
+--
+--  Copyright (c) 2022 Microsoft Corporation
+--
+--  This program and the accompanying materials are made available under the
+--  terms of the Apache License, Version 2.0 which is available at
+--  https://www.apache.org/licenses/LICENSE-2.0
+--
+--  SPDX-License-Identifier: Apache-2.0
+--
+--  Contributors:
+--       Microsoft Corporation - initial implementation
+--
+
+ALTER TABLE edc_identity_hub_object
+    ADD COLUMN IF NOT EXISTS expiration TIMESTAMP WITH TIME ZONE;
@@ -0,0 +1,24 @@
+--
+--  Copyright (c) 2022 Microsoft Corporation
+--
+--  This program and the accompanying materials are made available under the
+--  terms of the Apache License, Version 2.0 which is available at
+--  https://www.apache.org/licenses/LICENSE-2.0
+--
+--  SPDX-License-Identifier: Apache-2.0
+--
+--  Contributors:
+--       Microsoft Corporation - initial implementation
+--
+
+-- Single row holding the number of hub objects, used as version of the store instead of counting the hub objects
+CREATE TABLE IF NOT EXISTS edc_identity_hub_store_version
+(
+    id      INTEGER PRIMARY KEY,
+    version BIGINT NOT NULL
+);
+
+INSERT INTO edc_identity_hub_store_version (id, version)
+SELECT 1, COUNT(*)
+FROM edc_identity_hub_object
+ON CONFLICT (id) DO NOTHING;
@@ -0,0 +1,262 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.dataspaceconnector.identityhub.store.sql;
+
+import com.github.javafaker.Faker;
+import org.eclipse.dataspaceconnector.identityhub.model.DataCid;
+import org.eclipse.dataspaceconnector.identityhub.store.HubObject;
+import org.eclipse.dataspaceconnector.identityhub.store.HubObjectMetadata;
+import org.eclipse.dataspaceconnector.identityhub.store.HubObjectQuery;
+import org.eclipse.dataspaceconnector.spi.transaction.TransactionContext;
+import org.eclipse.dataspaceconnector.spi.transaction.datasource.DataSourceRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the PostgreSQL dialect against an embedded H2 database in PostgreSQL compatibility mode.
+ */
+class SqlIdentityHubStoreTest {
+
+    private static final Faker FAKER = new Faker();
+    private static final String DATASOURCE_NAME = "identityhub";
+
+    private JdbcDataSource dataSource;
+    private SqlIdentityHubStore store;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new JdbcDataSource();
+        dataSource.setURL(String.format("jdbc:h2:mem:%s;MODE=PostgreSQL;DB_CLOSE_DELAY=-1", FAKER.internet().uuid()));
+        store = createStore();
+    }
+
+    @Test
+    void addAndRead() {
+        // Arrange
+        var hubObjects = hubObjects(5);
+
+        // Act
+        hubObjects.forEach(store::add);
+
+        // Assert
+        assertThat(store.getAll()).containsExactlyElementsOf(hubObjects);
+        assertThat(store.findByCid(DataCid.of(hubObjects.get(3)))).isEqualTo(hubObjects.get(3));
+        assertThat(store.findByCid(DataCid.of(hubObject()))).isNull();
+    }
+
+    @Test
+    void addDuplicateHubObject() {
+        // Arrange
+        var hubObject = hubObject();
+        var metadata = HubObjectMetadata.Builder.newInstance().type(FAKER.lorem().word()).build();
+
+        // Act
+        store.add(hubObject, metadata);
+        store.add(hubObject.clone(), metadata);
+
+        // Assert
+        assertThat(store.getAll()).hasSize(1);
+    }
+
+    @Test
+    void addAll() {
+        // Arrange
+        var hubObjects = hubObjects(5);
+        var type = FAKER.lorem().word();
+        var batch = hubObjects.stream()
+                .map(hubObject -> new HubObject(hubObject, HubObjectMetadata.Builder.newInstance().type(type).build()))
+                .collect(Collectors.toList());
+        batch.add(new HubObject(hubObjects.get(0).clone(), HubObjectMetadata.Builder.newInstance().type(type).build()));
+
+        // Act
+        store.addAll(batch);
+
+        // Assert
+        assertThat(store.getAll()).containsExactlyElementsOf(hubObjects);
+        assertThat(store.query(HubObjectQuery.Builder.newInstance().type(type).limit(10).build()).getItems()).containsExactlyElementsOf(hubObjects);
+    }
+
+    @Test
+    void addAllSkipsExistingHubObjects() {
+        // Arrange
+        var existing = hubObject();
+        store.add(existing, HubObjectMetadata.Builder.newInstance().type(FAKER.lorem().word()).build());
+        var type = FAKER.lorem().word();
+        var hubObjects = hubObjects(2);
+        var batch = List.of(
+                new HubObject(hubObjects.get(0), HubObjectMetadata.Builder.newInstance().type(type).build()),
+                new HubObject(existing.clone(), HubObjectMetadata.Builder.newInstance().type(type).build()),
+                new HubObject(hubObjects.get(1), HubObjectMetadata.Builder.newInstance().type(type).build()));
+
+        // Act
+        store.addAll(batch);
+
+        // Assert
+        assertThat(store.getAll()).containsExactly(existing, hubObjects.get(0), hubObjects.get(1));
+        assertThat(store.query(HubObjectQuery.Builder.newInstance().type(type).limit(10).build()).getItems()).containsExactlyElementsOf(hubObjects);
+        assertThat(store.count()).isEqualTo(3);
+    }
+
+    @Test
+    void versionChangesWhenHubObjectsAreAdded() {
+        // Arrange
+        store.add(hubObject());
+        var version = store.version();
+
+        // Act
+        var sameVersion = store.version();
+        store.add(hubObject());
+        var newVersion = store.version();
+
+        // Assert
+        assertThat(sameVersion).isEqualTo(version);
+        assertThat(newVersion).isNotEqualTo(version);
+    }
+
+    @Test
+    void countIsKeptInStoreVersionRow() throws SQLException {
+        // Arrange
+        var hubObject = hubObject();
+
+        // Act
+        store.add(hubObject);
+        store.add(hubObject.clone());
+        store.addAll(hubObjects(2).stream().map(data -> new HubObject(data, HubObjectMetadata.Builder.newInstance().build())).collect(Collectors.toList()));
+
+        // Assert
+        assertThat(store.count()).isEqualTo(3);
+        try (var connection = dataSource.getConnection();
+             var statement = connection.prepareStatement("SELECT version FROM edc_identity_hub_store_version");
+             var resultSet = statement.executeQuery()) {
+            assertThat(resultSet.next()).isTrue();
+            assertThat(resultSet.getLong(1)).isEqualTo(3);
+            assertThat(resultSet.next()).isFalse();
+        }
+    }
+
+    @Test
+    void queryPages() {
+        // Arrange
+        var hubObjects = hubObjects(5);
+        hubObjects.forEach(store::add);
+
+        // Act
+        var firstPage = store.query(HubObjectQuery.Builder.newInstance().limit(3).build());
+        var secondPage = store.query(HubObjectQuery.Builder.newInstance().cursor(firstPage.getCursor()).limit(3).build());
+
+        // Assert
+        assertThat(firstPage.getItems()).containsExactlyElementsOf(hubObjects.subList(0, 3));
+        assertThat(firstPage.getCursor()).isNotNull();
+        assertThat(secondPage.getItems()).containsExactlyElementsOf(hubObjects.subList(3, 5));
+        assertThat(secondPage.getCursor()).isNull();
+    }
+
+    @Test
+    void queryWithFilters() {
+        // Arrange
+        var issuer = FAKER.internet().url();
+        var subject = FAKER.internet().url();
+        var type = FAKER.lorem().word();
+        var schema = FAKER.internet().url();
+        var matching = hubObject();
+        store.add(hubObject(), HubObjectMetadata.Builder.newInstance().issuer(issuer).subject(subject).type(type).build());
+        store.add(matching, HubObjectMetadata.Builder.newInstance().issuer(issuer).subject(subject).type(type).type(FAKER.lorem().word()).schema(schema).build());
+        store.add(hubObject(), HubObjectMetadata.Builder.newInstance().issuer(FAKER.internet().url()).subject(subject).type(type).schema(schema).build());
+
+        // Act
+        var page = store.query(HubObjectQuery.Builder.newInstance().issuer(issuer).subject(subject).type(type).schema(schema).limit(10).build());
+
+        // Assert
+        assertThat(page.getItems()).containsExactly(matching);
+        assertThat(page.getCursor()).isNull();
+    }
+
+    @Test
+    void queryWithInvalidCursor() {
+        var query = HubObjectQuery.Builder.newInstance().cursor(FAKER.lorem().word()).limit(1).build();
+
+        assertThatIllegalArgumentException().isThrownBy(() -> store.query(query));
+    }
+
+    @Test
+    void addStoresExpiration() throws SQLException {
+        // Arrange
+        var expiration = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+
+        // Act
+        store.add(hubObject(), HubObjectMetadata.Builder.newInstance().expiration(expiration).build());
+        store.add(hubObject(), HubObjectMetadata.Builder.newInstance().build());
+
+        // Assert
+        try (var connection = dataSource.getConnection();
+             var statement = connection.prepareStatement("SELECT expiration FROM edc_identity_hub_object ORDER BY id");
+             var resultSet = statement.executeQuery()) {
+            assertThat(resultSet.next()).isTrue();
+            assertThat(resultSet.getTimestamp(1).toInstant()).isEqualTo(expiration);
+            assertThat(resultSet.next()).isTrue();
+            assertThat(resultSet.getTimestamp(1)).isNull();
+        }
+    }
+
+    @Test
+    void migrationIsAppliedOnce() {
+        // Arrange
+        var hubObject = hubObject();
+        store.add(hubObject);
+
+        // Act
+        var otherReplica = createStore();
+
+        // Assert
+        assertThat(otherReplica.getAll()).containsExactly(hubObject);
+    }
+
+    private SqlIdentityHubStore createStore() {
+        var dataSourceRegistry = mock(DataSourceRegistry.class);
+        when(dataSourceRegistry.resolve(DATASOURCE_NAME)).thenReturn(dataSource);
+        var transactionContext = mock(TransactionContext.class);
+        doAnswer(invocation -> {
+            invocation.getArgument(0, TransactionContext.TransactionBlock.class).execute();
+            return null;
+        }).when(transactionContext).execute(any(TransactionContext.TransactionBlock.class));
+        doAnswer(invocation -> invocation.getArgument(0, TransactionContext.ResultTransactionBlock.class).execute())
+                .when(transactionContext).execute(any(TransactionContext.ResultTransactionBlock.class));
+        return new SqlIdentityHubStore(dataSourceRegistry, DATASOURCE_NAME, transactionContext, new PostgresDialectStatements());
+    }
+
+    private static List<byte[]> hubObjects(int count) {
+        return IntStream.range(0, count).mapToObj(i -> hubObject()).collect(Collectors.toList());
+    }
+
+    private static byte[] hubObject() {
+        return FAKER.internet().uuid().getBytes(UTF_8);
+    }
+}
@@ -20,6 +20,7 @@ val edcVersion: String by project
 val edcGroup: String by project
 val jupiterVersion: String by project
 val nimbusVersion: String by project
+val openTelemetryVersion: String by project
 val okHttpVersion: String by project
 val mockitoVersion: String by project
 val assertj: String by project
@@ -33,6 +34,7 @@ dependencies {
     implementation("${edcGroup}:identity-did-spi:${edcVersion}")
     implementation("com.nimbusds:nimbus-jose-jwt:${nimbusVersion}")
     implementation("com.squareup.okhttp3:okhttp:${okHttpVersion}")
+    implementation("io.opentelemetry:opentelemetry-extension-annotations:${openTelemetryVersion}")
 
     testImplementation(testFixtures(project(":spi:identity-hub-spi")))
     testImplementation("com.github.javafaker:javafaker:${faker}")
@@ -0,0 +1,129 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.dataspaceconnector.identityhub.verifier;
+
+import org.eclipse.dataspaceconnector.iam.did.spi.key.PublicKeyWrapper;
+import org.eclipse.dataspaceconnector.iam.did.spi.resolution.DidPublicKeyResolver;
+import org.eclipse.dataspaceconnector.spi.result.Result;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link DidPublicKeyResolver} caching the public keys resolved by another resolver, so that verifying several
+ * credentials of a same issuer only resolves its DID once.
+ * <p>
+ * Resolved public keys are cached for a time-to-live, and resolution failures for a shorter time-to-live, so that an
+ * unreachable issuer is not resolved again for every credential. Concurrent resolutions of a same DID are de-duplicated:
+ * only the first caller resolves the DID, the other ones wait for its result. The cache is bounded, the least recently
+ * used entries being evicted first.
+ * <p>
+ * Cached public keys also keep their {@link com.nimbusds.jose.JWSVerifier}, see {@link VerifierCachingPublicKeyWrapper}.
+ */
+class CachingDidPublicKeyResolver implements DidPublicKeyResolver {
+
+    private final DidPublicKeyResolver resolver;
+    private final Duration ttl;
+    private final Duration negativeTtl;
+    private final Clock clock;
+    private final Map<String, CompletableFuture<CachedResult>> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    CachingDidPublicKeyResolver(DidPublicKeyResolver resolver, int maxEntries, Duration ttl, Duration negativeTtl, Clock clock) {
+        this.resolver = resolver;
+        this.ttl = ttl;
+        this.negativeTtl = negativeTtl;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CompletableFuture<CachedResult>> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    @Override
+    public Result<PublicKeyWrapper> resolvePublicKey(String didUrl) {
+        var resolution = new CompletableFuture<CachedResult>();
+        CompletableFuture<CachedResult> cached;
+        synchronized (entries) {
+            cached = entries.get(didUrl);
+            if (cached == null || isExpired(cached)) {
+                entries.put(didUrl, resolution);
+                cached = null;
+            }
+        }
+
+        if (cached != null) {
+            hits.increment();
+            try {
+                return cached.join().result;
+            } catch (CompletionException e) {
+                throw (RuntimeException) e.getCause();
+            }
+        }
+
+        misses.increment();
+        try {
+            var resolved = resolver.resolvePublicKey(didUrl);
+            var result = resolved.succeeded() ? Result.<PublicKeyWrapper>success(new VerifierCachingPublicKeyWrapper(resolved.getContent())) : resolved;
+            var expiration = clock.instant().plus(result.succeeded() ? ttl : negativeTtl);
+            resolution.complete(new CachedResult(result, expiration));
+            return result;
+        } catch (RuntimeException e) {
+            // Do not cache unexpected errors, the next caller resolves the DID again
+            synchronized (entries) {
+                entries.remove(didUrl, resolution);
+            }
+            resolution.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Number of resolutions served from the cache, including the ones waiting for a concurrent resolution.
+     */
+    long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Number of resolutions delegated to the underlying resolver.
+     */
+    long getMissCount() {
+        return misses.sum();
+    }
+
+    private boolean isExpired(CompletableFuture<CachedResult> entry) {
+        return entry.isDone() && !entry.isCompletedExceptionally() && entry.join().expiration.isBefore(clock.instant());
+    }
+
+    private static final class CachedResult {
+        private final Result<PublicKeyWrapper> result;
+        private final Instant expiration;
+
+        private CachedResult(Result<PublicKeyWrapper> result, Instant expiration) {
+            this.result = result;
+            this.expiration = expiration;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.dataspaceconnector.identityhub.verifier;
+
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.eclipse.dataspaceconnector.spi.result.Result;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.ParseException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * {@link JwtCredentialsVerifier} caching the successful signature verifications of another verifier, so that verifying
+ * the same credentials again (e.g. for each policy evaluation of a same participant) skips the signature verification.
+ * <p>
+ * Verifications are keyed by the SHA-256 digest of the serialized JWT, and kept until the expiration of the JWT ("exp"
+ * claim) or a time-to-live, whichever comes first. Failed verifications are not cached, as they may be caused by a
+ * transient failure to resolve the public key of the issuer. Claims are always verified by the other verifier, as their
+ * validity depends on the current time. The cache is bounded, the least recently used entries being evicted first.
+ */
+class CachingJwtCredentialsVerifier implements JwtCredentialsVerifier {
+
+    private final JwtCredentialsVerifier verifier;
+    private final Duration ttl;
+    private final Clock clock;
+    private final Map<String, Instant> verifiedSignatures;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    CachingJwtCredentialsVerifier(JwtCredentialsVerifier verifier, int maxEntries, Duration ttl, Clock clock) {
+        this.verifier = verifier;
+        this.ttl = ttl;
+        this.clock = clock;
+        this.verifiedSignatures = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Instant> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    @Override
+    public Result<Void> isSignedByIssuer(SignedJWT jwt) {
+        return isSignedByIssuer(jwt, () -> verifier.isSignedByIssuer(jwt), () -> expirationTime(jwt));
+    }
+
+    @Override
+    public Result<Void> isSignedByIssuer(SignedJWT jwt, JWTClaimsSet claims) {
+        return isSignedByIssuer(jwt, () -> verifier.isSignedByIssuer(jwt, claims), claims::getExpirationTime);
+    }
+
+    @Override
+    public Result<Void> verifyClaims(SignedJWT jwt, String expectedSubject) {
+        return verifier.verifyClaims(jwt, expectedSubject);
+    }
+
+    @Override
+    public Result<Void> verifyClaims(SignedJWT jwt, JWTClaimsSet claims, String expectedSubject) {
+        return verifier.verifyClaims(jwt, claims, expectedSubject);
+    }
+
+    /**
+     * Number of signature verifications served from the cache.
+     */
+    long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Number of signature verifications delegated to the other verifier.
+     */
+    long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Serve a signature verification from the cache, or delegate it to the other verifier and cache it if successful.
+     *
+     * @param verification   verification by the other verifier.
+     * @param expirationTime expiration time of the JWT, only read on a successful verification.
+     */
+    private Result<Void> isSignedByIssuer(SignedJWT jwt, Supplier<Result<Void>> verification, Supplier<Date> expirationTime) {
+        var digest = digest(jwt);
+        var now = clock.instant();
+        synchronized (verifiedSignatures) {
+            var expiration = verifiedSignatures.get(digest);
+            if (expiration != null) {
+                if (now.isBefore(expiration)) {
+                    hits.increment();
+                    return Result.success();
+                }
+                verifiedSignatures.remove(digest);
+            }
+        }
+
+        misses.increment();
+        var result = verification.get();
+        if (result.succeeded()) {
+            var expiration = expiration(expirationTime.get(), now);
+            synchronized (verifiedSignatures) {
+                verifiedSignatures.put(digest, expiration);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Expiration of a cached verification: the expiration of the JWT, bounded by the time-to-live.
+     */
+    private Instant expiration(Date expirationTime, Instant now) {
+        var expiration = now.plus(ttl);
+        if (expirationTime != null && expirationTime.toInstant().isBefore(expiration)) {
+            return expirationTime.toInstant();
+        }
+        return expiration;
+    }
+
+    private static Date expirationTime(SignedJWT jwt) {
+        try {
+            return jwt.getJWTClaimsSet().getExpirationTime();
+        } catch (ParseException e) {
+            // The signature was verified, only the time-to-live applies
+            return null;
+        }
+    }
+
+    private static String digest(SignedJWT jwt) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256").digest(jwt.serialize().getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e);
+        }
+    }
+}
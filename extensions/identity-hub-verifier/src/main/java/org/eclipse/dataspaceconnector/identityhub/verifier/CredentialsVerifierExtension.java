@@ -16,19 +16,65 @@ package org.eclipse.dataspaceconnector.identityhub.verifier;
 
 import okhttp3.OkHttpClient;
 import org.eclipse.dataspaceconnector.iam.did.spi.credentials.CredentialsVerifier;
+import org.eclipse.dataspaceconnector.identityhub.client.CachingIdentityHubClient;
+import org.eclipse.dataspaceconnector.identityhub.client.IdentityHubClient;
 import org.eclipse.dataspaceconnector.identityhub.client.IdentityHubClientImpl;
 import org.eclipse.dataspaceconnector.identityhub.credentials.VerifiableCredentialsJwtServiceImpl;
+import org.eclipse.dataspaceconnector.spi.EdcException;
+import org.eclipse.dataspaceconnector.spi.EdcSetting;
 import org.eclipse.dataspaceconnector.spi.monitor.Monitor;
 import org.eclipse.dataspaceconnector.spi.system.Inject;
 import org.eclipse.dataspaceconnector.spi.system.Provider;
 import org.eclipse.dataspaceconnector.spi.system.ServiceExtension;
+import org.eclipse.dataspaceconnector.spi.system.ServiceExtensionContext;
 import org.eclipse.dataspaceconnector.spi.types.TypeManager;
 
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+
 /**
  * Extension to provide verifier for IdentityHub Verifiable Credentials.
+ * The credentials read from the Identity Hubs can be cached, see {@link CachingIdentityHubClient}. All the Identity Hubs
+ * of a DID document can be read concurrently, see {@link IdentityHubCredentialsReader}.
  */
 public class CredentialsVerifierExtension implements ServiceExtension {
 
+    @EdcSetting
+    private static final String VERIFICATION_MODE_SETTING = "edc.identity.hub.verifier.verification.mode";
+    private static final String SEQUENTIAL_MODE = "sequential";
+    private static final String PARALLEL_MODE = "parallel";
+
+    @EdcSetting
+    private static final String VERIFICATION_THREADS_SETTING = "edc.identity.hub.verifier.verification.threads";
+
+    @EdcSetting
+    private static final String CLIENT_CACHE_TTL_SETTING = "edc.identity.hub.verifier.client.cache.ttl.seconds";
+    private static final int DEFAULT_CLIENT_CACHE_TTL = 0;
+
+    @EdcSetting
+    private static final String CLIENT_CACHE_STALE_WINDOW_SETTING = "edc.identity.hub.verifier.client.cache.stale.window.seconds";
+    private static final int DEFAULT_CLIENT_CACHE_STALE_WINDOW = 60;
+
+    @EdcSetting
+    private static final String CLIENT_CACHE_MAX_ENTRIES_SETTING = "edc.identity.hub.verifier.client.cache.max.entries";
+    private static final int DEFAULT_CLIENT_CACHE_MAX_ENTRIES = 1000;
+
+    @EdcSetting
+    private static final String CLIENT_CACHE_MAX_ENTRY_BYTES_SETTING = "edc.identity.hub.verifier.client.cache.max.entry.bytes";
+    private static final int DEFAULT_CLIENT_CACHE_MAX_ENTRY_BYTES = 1024 * 1024;
+
+    @EdcSetting
+    private static final String HUB_READ_MODE_SETTING = "edc.identity.hub.verifier.hub.read.mode";
+    private static final String DEFAULT_HUB_READ_MODE = "first";
+
+    @EdcSetting
+    private static final String HUB_MAX_CONCURRENT_SETTING = "edc.identity.hub.verifier.hub.max.concurrent";
+    private static final int DEFAULT_HUB_MAX_CONCURRENT = Integer.MAX_VALUE;
+
     @Inject
     private OkHttpClient httpClient;
 
@@ -41,15 +87,80 @@ public class CredentialsVerifierExtension implements ServiceExtension {
     @Inject
     private JwtCredentialsVerifier jwtCredentialsVerifier;
 
+    private ForkJoinPool verificationPool;
+    private ExecutorService refreshExecutor;
+
     @Override
     public String name() {
         return "Credentials Verifier";
     }
 
     @Provider
-    public CredentialsVerifier createCredentialsVerifier() {
-        var client = new IdentityHubClientImpl(httpClient, typeManager.getMapper(), monitor);
+    public CredentialsVerifier createCredentialsVerifier(ServiceExtensionContext context) {
+        var credentialsReader = createCredentialsReader(context, createClient(context));
         var verifiableCredentialsJwtService = new VerifiableCredentialsJwtServiceImpl(typeManager.getMapper(), monitor);
-        return new IdentityHubCredentialsVerifier(client, monitor, jwtCredentialsVerifier, verifiableCredentialsJwtService);
+        return new IdentityHubCredentialsVerifier(credentialsReader, monitor, jwtCredentialsVerifier, verifiableCredentialsJwtService, createVerificationPool(context));
+    }
+
+    @Override
+    public void shutdown() {
+        if (verificationPool != null) {
+            verificationPool.shutdown();
+        }
+        if (refreshExecutor != null) {
+            refreshExecutor.shutdown();
+        }
+    }
+
+    /**
+     * Create the client reading the credentials from the Identity Hubs, caching them if a time-to-live is configured.
+     */
+    private IdentityHubClient createClient(ServiceExtensionContext context) {
+        IdentityHubClient client = new IdentityHubClientImpl(httpClient, typeManager.getMapper(), monitor);
+        var ttl = context.getSetting(CLIENT_CACHE_TTL_SETTING, DEFAULT_CLIENT_CACHE_TTL);
+        if (ttl <= 0) {
+            return client;
+        }
+
+        var staleWindow = context.getSetting(CLIENT_CACHE_STALE_WINDOW_SETTING, DEFAULT_CLIENT_CACHE_STALE_WINDOW);
+        var maxEntries = context.getSetting(CLIENT_CACHE_MAX_ENTRIES_SETTING, DEFAULT_CLIENT_CACHE_MAX_ENTRIES);
+        var maxEntryBytes = context.getSetting(CLIENT_CACHE_MAX_ENTRY_BYTES_SETTING, DEFAULT_CLIENT_CACHE_MAX_ENTRY_BYTES);
+        // At most one refresh runs per cached Identity Hub, so that the number of threads is bounded by the number of entries
+        refreshExecutor = Executors.newCachedThreadPool();
+        return new CachingIdentityHubClient(client, refreshExecutor, maxEntries, maxEntryBytes, Duration.ofSeconds(ttl), Duration.ofSeconds(staleWindow), Clock.systemUTC(), monitor);
+    }
+
+    /**
+     * Create the reader of the credentials, reading either the first or all the Identity Hubs of a DID document.
+     */
+    private IdentityHubCredentialsReader createCredentialsReader(ServiceExtensionContext context, IdentityHubClient client) {
+        var mode = context.getSetting(HUB_READ_MODE_SETTING, DEFAULT_HUB_READ_MODE);
+        IdentityHubCredentialsReader.Mode readMode;
+        try {
+            readMode = IdentityHubCredentialsReader.Mode.valueOf(mode.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new EdcException(String.format("Invalid value for %s: %s", HUB_READ_MODE_SETTING, mode));
+        }
+
+        var maxConcurrentHubs = context.getSetting(HUB_MAX_CONCURRENT_SETTING, DEFAULT_HUB_MAX_CONCURRENT);
+        return new IdentityHubCredentialsReader(client, readMode, maxConcurrentHubs, Clock.systemUTC(), monitor);
+    }
+
+    /**
+     * Create the pool verifying the credentials in parallel mode, or null in sequential mode. The pool is dedicated to
+     * the verification of credentials, so that this CPU-bound work does not compete with the common pool.
+     */
+    private ForkJoinPool createVerificationPool(ServiceExtensionContext context) {
+        var mode = context.getSetting(VERIFICATION_MODE_SETTING, SEQUENTIAL_MODE);
+        if (SEQUENTIAL_MODE.equals(mode)) {
+            return null;
+        }
+        if (!PARALLEL_MODE.equals(mode)) {
+            throw new EdcException(String.format("Invalid value for %s: %s", VERIFICATION_MODE_SETTING, mode));
+        }
+
+        var threads = context.getSetting(VERIFICATION_THREADS_SETTING, Runtime.getRuntime().availableProcessors());
+        verificationPool = new ForkJoinPool(threads);
+        return verificationPool;
     }
 }
@@ -29,6 +29,7 @@ import java.util.Set;
 
 /**
  * Verifies verifiable credentials in JWT format with a DID issuer.
+ * The claims are parsed once per verification, or not at all when they are passed along with the JWT.
  */
 class DidJwtCredentialsVerifier implements JwtCredentialsVerifier {
 
@@ -45,14 +46,20 @@ class DidJwtCredentialsVerifier implements JwtCredentialsVerifier {
 
     @Override
     public Result<Void> isSignedByIssuer(SignedJWT jwt) {
-        String issuer;
+        JWTClaimsSet claims;
         try {
-            issuer = jwt.getJWTClaimsSet().getIssuer();
+            claims = jwt.getJWTClaimsSet();
         } catch (ParseException e) {
             var failureMessage = "Error parsing issuer from JWT";
             monitor.warning(failureMessage, e);
             return Result.failure(String.format("%s: %s", failureMessage, e.getMessage()));
         }
+        return isSignedByIssuer(jwt, claims);
+    }
+
+    @Override
+    public Result<Void> isSignedByIssuer(SignedJWT jwt, JWTClaimsSet claims) {
+        var issuer = claims.getIssuer();
         var issuerPublicKey = didPublicKeyResolver.resolvePublicKey(issuer);
         if (issuerPublicKey.failed()) {
             var failureMessage = String.format("Failed finding publicKey of issuer: %s", issuer);
@@ -72,7 +79,11 @@ class DidJwtCredentialsVerifier implements JwtCredentialsVerifier {
             monitor.warning(failureMessage, e);
             return Result.failure(String.format("%s: %s", failureMessage, e.getMessage()));
         }
+        return verifyClaims(jwt, jwtClaimsSet, expectedSubject);
+    }
 
+    @Override
+    public Result<Void> verifyClaims(SignedJWT jwt, JWTClaimsSet jwtClaimsSet, String expectedSubject) {
         // verify claims
         var exactMatchClaims = new JWTClaimsSet.Builder()
                 .subject(expectedSubject)
@@ -0,0 +1,252 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.dataspaceconnector.identityhub.verifier;
+
+import com.nimbusds.jwt.SignedJWT;
+import io.opentelemetry.extension.annotations.WithSpan;
+import org.eclipse.dataspaceconnector.identityhub.client.IdentityHubClient;
+import org.eclipse.dataspaceconnector.spi.monitor.Monitor;
+import org.eclipse.dataspaceconnector.spi.response.ResponseStatus;
+import org.eclipse.dataspaceconnector.spi.response.StatusResult;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Reads the VerifiableCredentials of a participant from the Identity Hubs advertised in its DID document.
+ * <p>
+ * In {@link Mode#FIRST} mode, only the first Identity Hub is read. In the other modes, the Identity Hubs are read
+ * concurrently: {@link Mode#FASTEST} returns the first successful response, while {@link Mode#MERGE} waits for all the
+ * responses and returns the VerifiableCredentials of all the Identity Hubs which answered, without duplicates.
+ * <p>
+ * The latency of each Identity Hub is tracked as a moving average, failures counting as twice the average. In
+ * {@link Mode#FASTEST} mode, only the Identity Hubs with the lowest latency, up to the configured maximum, are read at
+ * first. The other ones are only read if none of them answered successfully. The latency is only kept for a bounded
+ * number of Identity Hubs, the least recently read ones being forgotten first.
+ */
+public class IdentityHubCredentialsReader {
+    public static final int DEFAULT_MAX_TRACKED_HUBS = 1000;
+
+    // Weight of the latest response in the moving average of the latency
+    private static final double LATENCY_SMOOTHING = 0.2;
+
+    private final IdentityHubClient identityHubClient;
+    private final Mode mode;
+    private final int maxConcurrentHubs;
+    private final Clock clock;
+    private final Monitor monitor;
+    private final Map<String, Double> latencies;
+
+    /**
+     * Create a reader only reading the first Identity Hub.
+     *
+     * @param identityHubClient IdentityHubClient.
+     */
+    public IdentityHubCredentialsReader(IdentityHubClient identityHubClient, Monitor monitor) {
+        this(identityHubClient, Mode.FIRST, 1, Clock.systemUTC(), monitor);
+    }
+
+    /**
+     * Create a reader.
+     *
+     * @param identityHubClient IdentityHubClient.
+     * @param mode              how the Identity Hubs are read.
+     * @param maxConcurrentHubs maximum number of Identity Hubs read at first in {@link Mode#FASTEST} mode.
+     * @param clock             clock used to measure the latency of the Identity Hubs.
+     */
+    public IdentityHubCredentialsReader(IdentityHubClient identityHubClient, Mode mode, int maxConcurrentHubs, Clock clock, Monitor monitor) {
+        this(identityHubClient, mode, maxConcurrentHubs, DEFAULT_MAX_TRACKED_HUBS, clock, monitor);
+    }
+
+    /**
+     * Create a reader.
+     *
+     * @param identityHubClient IdentityHubClient.
+     * @param mode              how the Identity Hubs are read.
+     * @param maxConcurrentHubs maximum number of Identity Hubs read at first in {@link Mode#FASTEST} mode.
+     * @param maxTrackedHubs    maximum number of Identity Hubs whose latency is kept.
+     * @param clock             clock used to measure the latency of the Identity Hubs.
+     */
+    public IdentityHubCredentialsReader(IdentityHubClient identityHubClient, Mode mode, int maxConcurrentHubs, int maxTrackedHubs, Clock clock, Monitor monitor) {
+        this.identityHubClient = identityHubClient;
+        this.mode = mode;
+        this.maxConcurrentHubs = maxConcurrentHubs;
+        this.clock = clock;
+        this.monitor = monitor;
+        this.latencies = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Double> eldest) {
+                return size() > maxTrackedHubs;
+            }
+        };
+    }
+
+    /**
+     * Read the VerifiableCredentials from the Identity Hubs.
+     *
+     * @param hubBaseUrls base URLs of the Identity Hubs, in the order of the DID document. Must not be empty.
+     * @return the VerifiableCredentials, or a failure if no Identity Hub answered successfully.
+     */
+    @WithSpan
+    public StatusResult<Collection<SignedJWT>> read(List<String> hubBaseUrls) {
+        var distinctUrls = hubBaseUrls.stream().distinct().collect(Collectors.toList());
+        switch (mode) {
+            case FASTEST:
+                return readFastest(distinctUrls);
+            case MERGE:
+                return readAll(distinctUrls);
+            default:
+                return identityHubClient.getVerifiableCredentials(distinctUrls.get(0));
+        }
+    }
+
+    /**
+     * Get the average latency of an Identity Hub.
+     *
+     * @return the average latency, or null if the Identity Hub has not been read yet.
+     */
+    public Duration getAverageLatency(String hubBaseUrl) {
+        Double latency;
+        synchronized (latencies) {
+            latency = latencies.get(hubBaseUrl);
+        }
+        return latency != null ? Duration.ofNanos(latency.longValue()) : null;
+    }
+
+    private StatusResult<Collection<SignedJWT>> readFastest(List<String> hubBaseUrls) {
+        var known = new HashMap<String, Double>();
+        synchronized (latencies) {
+            hubBaseUrls.forEach(url -> known.put(url, latencies.getOrDefault(url, 0.0)));
+        }
+        // Identity Hubs which have not been read yet come first, so that their latency gets measured
+        var ranked = hubBaseUrls.stream()
+                .sorted(Comparator.comparingDouble(known::get))
+                .collect(Collectors.toList());
+        var selected = Math.min(Math.max(maxConcurrentHubs, 1), ranked.size());
+
+        var result = firstSuccess(ranked.subList(0, selected)).join();
+        if (result.succeeded() || selected == ranked.size()) {
+            return result;
+        }
+
+        monitor.warning(String.format("Falling back to slower identity hubs: %s", result.getFailureDetail()));
+        var fallback = firstSuccess(ranked.subList(selected, ranked.size())).join();
+        return fallback.succeeded() ? fallback : StatusResult.failure(ResponseStatus.FATAL_ERROR, String.join(", ", result.getFailureDetail(), fallback.getFailureDetail()));
+    }
+
+    /**
+     * Read the Identity Hubs concurrently, completing with the first successful response, or with the failures of all
+     * the Identity Hubs if none succeeded.
+     */
+    private CompletableFuture<StatusResult<Collection<SignedJWT>>> firstSuccess(List<String> hubBaseUrls) {
+        var first = new CompletableFuture<StatusResult<Collection<SignedJWT>>>();
+        var failures = new String[hubBaseUrls.size()];
+        var remaining = new AtomicInteger(hubBaseUrls.size());
+        for (var i = 0; i < hubBaseUrls.size(); i++) {
+            var index = i;
+            // Slower responses still complete in the background, so that the latency of every Identity Hub is measured
+            timedRead(hubBaseUrls.get(i)).thenAccept(result -> {
+                if (result.succeeded()) {
+                    first.complete(result);
+                    return;
+                }
+                failures[index] = result.getFailureDetail();
+                if (remaining.decrementAndGet() == 0) {
+                    first.complete(StatusResult.failure(ResponseStatus.FATAL_ERROR, String.join(", ", failures)));
+                }
+            });
+        }
+        return first;
+    }
+
+    private StatusResult<Collection<SignedJWT>> readAll(List<String> hubBaseUrls) {
+        var futures = hubBaseUrls.stream()
+                .map(this::timedRead)
+                .collect(Collectors.toList());
+
+        // Credentials served by several Identity Hubs are only returned once, in the order of the DID document
+        var verifiableCredentials = new LinkedHashMap<String, SignedJWT>();
+        var failures = new ArrayList<String>();
+        for (var i = 0; i < futures.size(); i++) {
+            var result = futures.get(i).join();
+            if (result.succeeded()) {
+                result.getContent().forEach(jwt -> verifiableCredentials.putIfAbsent(jwt.serialize(), jwt));
+            } else {
+                failures.add(String.format("%s: %s", hubBaseUrls.get(i), result.getFailureDetail()));
+            }
+        }
+
+        if (failures.size() == futures.size()) {
+            return StatusResult.failure(ResponseStatus.FATAL_ERROR, String.join(", ", failures));
+        }
+        if (!failures.isEmpty()) {
+            monitor.warning(String.format("Could not retrieve verifiable credentials from %s identity hubs: %s", failures.size(), String.join(", ", failures)));
+        }
+        return StatusResult.success(List.copyOf(verifiableCredentials.values()));
+    }
+
+    private CompletableFuture<StatusResult<Collection<SignedJWT>>> timedRead(String hubBaseUrl) {
+        var start = clock.instant();
+        return identityHubClient.getVerifiableCredentialsAsync(hubBaseUrl)
+                .exceptionally(throwable -> StatusResult.failure(ResponseStatus.FATAL_ERROR, throwable.getMessage()))
+                .thenApply(result -> {
+                    recordLatency(hubBaseUrl, Duration.between(start, clock.instant()), result.succeeded());
+                    return result;
+                });
+    }
+
+    private void recordLatency(String hubBaseUrl, Duration latency, boolean succeeded) {
+        synchronized (latencies) {
+            latencies.compute(hubBaseUrl, (url, average) -> {
+                var sample = (double) latency.toNanos();
+                if (average == null) {
+                    return succeeded ? sample : 2 * sample;
+                }
+                if (!succeeded) {
+                    sample = 2 * Math.max(sample, average);
+                }
+                return average + LATENCY_SMOOTHING * (sample - average);
+            });
+        }
+    }
+
+    /**
+     * How the Identity Hubs of a participant are read.
+     */
+    public enum Mode {
+        /**
+         * Only read the first Identity Hub.
+         */
+        FIRST,
+        /**
+         * Read the Identity Hubs concurrently and use the first successful response.
+         */
+        FASTEST,
+        /**
+         * Read the Identity Hubs concurrently and merge the responses.
+         */
+        MERGE
+    }
+}
@@ -14,7 +14,9 @@
 
 package org.eclipse.dataspaceconnector.identityhub.verifier;
 
+import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.SignedJWT;
+import io.opentelemetry.extension.annotations.WithSpan;
 import org.eclipse.dataspaceconnector.iam.did.spi.credentials.CredentialsVerifier;
 import org.eclipse.dataspaceconnector.iam.did.spi.document.DidDocument;
 import org.eclipse.dataspaceconnector.iam.did.spi.document.Service;
@@ -26,9 +28,14 @@ import org.eclipse.dataspaceconnector.spi.result.AbstractResult;
 import org.eclipse.dataspaceconnector.spi.result.Result;
 import org.jetbrains.annotations.NotNull;
 
+import java.text.ParseException;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -36,27 +43,57 @@ import static java.util.stream.Collectors.partitioningBy;
 
 /**
  * Obtains and verifies credentials associated with a DID.
- * The DID document contains an IdentityHub service, the IdentityHubCredentialsVerifier gets credentials from the
- * IdentityHub instance and verifies the credentials.
+ * The DID document contains IdentityHub services, the IdentityHubCredentialsVerifier gets credentials from the
+ * IdentityHub instances and verifies the credentials. How the IdentityHub instances are read depends on the
+ * {@link IdentityHubCredentialsReader}.
+ * The claims of each credential are parsed once, and shared by the verification of its claims and signature and by the
+ * extraction of the credential.
  */
 public class IdentityHubCredentialsVerifier implements CredentialsVerifier {
 
     private static final String IDENTITY_HUB_SERVICE_TYPE = "IdentityHub";
-    private final IdentityHubClient identityHubClient;
+    private final IdentityHubCredentialsReader credentialsReader;
     private final Monitor monitor;
     private final JwtCredentialsVerifier jwtCredentialsVerifier;
     private final VerifiableCredentialsJwtService verifiableCredentialsJwtService;
+    private final Executor verificationExecutor;
 
     /**
-     * Create a new credential verifier that uses an Identity Hub
+     * Create a new credential verifier that uses an Identity Hub, verifying the credentials one after the other.
      *
      * @param identityHubClient IdentityHubClient.
      */
     public IdentityHubCredentialsVerifier(IdentityHubClient identityHubClient, Monitor monitor, JwtCredentialsVerifier jwtCredentialsVerifier, VerifiableCredentialsJwtService verifiableCredentialsJwtService) {
-        this.identityHubClient = identityHubClient;
+        this(identityHubClient, monitor, jwtCredentialsVerifier, verifiableCredentialsJwtService, null);
+    }
+
+    /**
+     * Create a new credential verifier that uses an Identity Hub, verifying the credentials in parallel.
+     *
+     * @param identityHubClient    IdentityHubClient.
+     * @param verificationExecutor executor verifying the claims and signature of each credential, or null to verify the
+     *                             credentials one after the other in the calling thread.
+     */
+    public IdentityHubCredentialsVerifier(IdentityHubClient identityHubClient, Monitor monitor, JwtCredentialsVerifier jwtCredentialsVerifier,
+                                          VerifiableCredentialsJwtService verifiableCredentialsJwtService, Executor verificationExecutor) {
+        this(new IdentityHubCredentialsReader(identityHubClient, monitor), monitor, jwtCredentialsVerifier, verifiableCredentialsJwtService, verificationExecutor);
+    }
+
+    /**
+     * Create a new credential verifier that reads the credentials with the given reader, e.g. from all the Identity Hubs
+     * of the DID document.
+     *
+     * @param credentialsReader    reader of the credentials from the Identity Hubs.
+     * @param verificationExecutor executor verifying the claims and signature of each credential, or null to verify the
+     *                             credentials one after the other in the calling thread.
+     */
+    public IdentityHubCredentialsVerifier(IdentityHubCredentialsReader credentialsReader, Monitor monitor, JwtCredentialsVerifier jwtCredentialsVerifier,
+                                          VerifiableCredentialsJwtService verifiableCredentialsJwtService, Executor verificationExecutor) {
+        this.credentialsReader = credentialsReader;
         this.monitor = monitor;
         this.jwtCredentialsVerifier = jwtCredentialsVerifier;
         this.verifiableCredentialsJwtService = verifiableCredentialsJwtService;
+        this.verificationExecutor = verificationExecutor;
     }
 
     /**
@@ -78,23 +115,24 @@ public class IdentityHubCredentialsVerifier implements CredentialsVerifier {
      *   }
      *   }</pre>
      *
-     * @param didDocument of a participant. The Did Document should contain an IdentityHub service.
+     * @param didDocument of a participant. The Did Document should contain at least one IdentityHub service.
      * @return VerifiableCredentials.
      */
     @Override
+    @WithSpan
     public Result<Map<String, Object>> getVerifiedCredentials(DidDocument didDocument) {
         monitor.debug(() -> "Retrieving verified credentials for " + didDocument.getId());
 
-        var hubBaseUrl = getIdentityHubBaseUrl(didDocument);
-        if (hubBaseUrl == null) {
+        var hubBaseUrls = getIdentityHubBaseUrls(didDocument);
+        if (hubBaseUrls.isEmpty()) {
             var errorMessage = "Could not retrieve identity hub URL from DID document";
             monitor.severe(errorMessage);
             return Result.failure(errorMessage);
         }
 
-        monitor.debug(() -> String.format("Using identity hub URL: %s", hubBaseUrl));
+        monitor.debug(() -> String.format("Using identity hub URLs: %s", hubBaseUrls));
 
-        var verifiableCredentials = identityHubClient.getVerifiableCredentials(hubBaseUrl);
+        var verifiableCredentials = credentialsReader.read(hubBaseUrls);
         if (verifiableCredentials.failed()) {
             monitor.severe("Could not retrieve verifiable credentials from identity hub");
             return Result.failure(verifiableCredentials.getFailureMessages());
@@ -125,33 +163,25 @@ public class IdentityHubCredentialsVerifier implements CredentialsVerifier {
     }
 
     @NotNull
-    private AggregatedResult<List<SignedJWT>> verifyCredentials(StatusResult<Collection<SignedJWT>> jwts, DidDocument didDocument) {
-        // Get valid credentials.
-        var verifiedJwts = jwts.getContent()
-                .stream()
-                .map(jwt -> verifyJwtClaims(jwt, didDocument))
-                .collect(partitioningBy(AbstractResult::succeeded));
-
-        var jwtsSignedByIssuer = verifiedJwts.get(true)
-                .stream()
-                .map(jwt -> verifySignature(jwt.getContent()))
-                .collect(partitioningBy(AbstractResult::succeeded));
+    private AggregatedResult<List<Verification>> verifyCredentials(StatusResult<Collection<SignedJWT>> jwts, DidDocument didDocument) {
+        // Verify each credential, possibly in parallel. Results keep the order of the credentials, so that the
+        // aggregated result does not depend on the scheduling of the verifications.
+        var verifications = verifyAll(List.copyOf(jwts.getContent()), jwt -> verify(jwt, didDocument));
 
-        var validCredentials = jwtsSignedByIssuer
-                .get(true)
-                .stream()
-                .map(AbstractResult::getContent)
+        // Get valid credentials.
+        var validCredentials = verifications.stream()
+                .filter(Verification::succeeded)
                 .collect(Collectors.toList());
 
         // Gather failure messages of invalid credentials.
-        var verificationFailures = verifiedJwts
-                .get(false)
-                .stream()
+        var verificationFailures = verifications.stream()
+                .map(verification -> verification.claimsResult)
+                .filter(AbstractResult::failed)
                 .map(AbstractResult::getFailureDetail);
 
-        var signatureVerificationFailures = jwtsSignedByIssuer
-                .get(false)
-                .stream()
+        var signatureVerificationFailures = verifications.stream()
+                .map(verification -> verification.signatureResult)
+                .filter(result -> result != null && result.failed())
                 .map(AbstractResult::getFailureDetail);
 
         var failedResults = Stream.concat(verificationFailures, signatureVerificationFailures)
@@ -164,22 +194,63 @@ public class IdentityHubCredentialsVerifier implements CredentialsVerifier {
         return new AggregatedResult<>(validCredentials, failedResults);
     }
 
+    /**
+     * Verify the claims of a credential, then its signature if the claims are valid.
+     */
+    private Verification verify(SignedJWT jwt, DidDocument didDocument) {
+        JWTClaimsSet claims;
+        try {
+            claims = jwt.getJWTClaimsSet();
+        } catch (ParseException e) {
+            var failureMessage = "Error parsing claims from JWT";
+            monitor.warning(failureMessage, e);
+            return new Verification(jwt, null, Result.failure(String.format("%s: %s", failureMessage, e.getMessage())), null);
+        }
+
+        var claimsResult = verifyJwtClaims(jwt, claims, didDocument);
+        var signatureResult = claimsResult.succeeded() ? verifySignature(jwt, claims) : null;
+        return new Verification(jwt, claims, claimsResult, signatureResult);
+    }
+
+    /**
+     * Apply the verification to each credential, in parallel if an executor is configured.
+     *
+     * @return verification results, in the order of the credentials.
+     */
+    private List<Verification> verifyAll(List<SignedJWT> jwts, Function<SignedJWT, Verification> verification) {
+        if (verificationExecutor == null || jwts.size() < 2) {
+            return jwts.stream().map(verification).collect(Collectors.toList());
+        }
+
+        var futures = jwts.stream()
+                .map(jwt -> CompletableFuture.supplyAsync(() -> verification.apply(jwt), verificationExecutor))
+                .collect(Collectors.toList());
+        try {
+            return futures.stream().map(CompletableFuture::join).collect(Collectors.toList());
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
     @NotNull
-    private Result<SignedJWT> verifyJwtClaims(SignedJWT jwt, DidDocument didDocument) {
-        var result = jwtCredentialsVerifier.verifyClaims(jwt, didDocument.getId());
+    private Result<SignedJWT> verifyJwtClaims(SignedJWT jwt, JWTClaimsSet claims, DidDocument didDocument) {
+        var result = jwtCredentialsVerifier.verifyClaims(jwt, claims, didDocument.getId());
         return result.succeeded() ? Result.success(jwt) : Result.failure(result.getFailureMessages());
     }
 
     @NotNull
-    private Result<SignedJWT> verifySignature(SignedJWT jwt) {
-        var result = jwtCredentialsVerifier.isSignedByIssuer(jwt);
+    private Result<SignedJWT> verifySignature(SignedJWT jwt, JWTClaimsSet claims) {
+        var result = jwtCredentialsVerifier.isSignedByIssuer(jwt, claims);
         return result.succeeded() ? Result.success(jwt) : Result.failure(result.getFailureMessages());
     }
 
     @NotNull
-    private AggregatedResult<Map<String, Object>> extractClaimsFromCredential(List<SignedJWT> verifiedCredentials) {
+    private AggregatedResult<Map<String, Object>> extractClaimsFromCredential(List<Verification> verifiedCredentials) {
         var result = verifiedCredentials.stream()
-                .map(verifiableCredentialsJwtService::extractCredential)
+                .map(verification -> verifiableCredentialsJwtService.extractCredential(verification.jwt, verification.claims))
                 .collect(partitioningBy(AbstractResult::succeeded));
 
         var successfulResults = result.get(true).stream()
@@ -193,13 +264,32 @@ public class IdentityHubCredentialsVerifier implements CredentialsVerifier {
         return new AggregatedResult<>(successfulResults, failedResults);
     }
 
-    private String getIdentityHubBaseUrl(DidDocument didDocument) {
+    private List<String> getIdentityHubBaseUrls(DidDocument didDocument) {
         return didDocument
                 .getService()
                 .stream()
                 .filter(s -> s.getType().equals(IDENTITY_HUB_SERVICE_TYPE))
-                .findFirst()
                 .map(Service::getServiceEndpoint)
-                .orElse(null);
+                .collect(Collectors.toList());
+    }
+
+    private static final class Verification {
+        private final SignedJWT jwt;
+        // Null if the claims cannot be parsed
+        private final JWTClaimsSet claims;
+        private final Result<SignedJWT> claimsResult;
+        // Null if the claims are invalid, as the signature is not verified then
+        private final Result<SignedJWT> signatureResult;
+
+        private Verification(SignedJWT jwt, JWTClaimsSet claims, Result<SignedJWT> claimsResult, Result<SignedJWT> signatureResult) {
+            this.jwt = jwt;
+            this.claims = claims;
+            this.claimsResult = claimsResult;
+            this.signatureResult = signatureResult;
+        }
+
+        private boolean succeeded() {
+            return claimsResult.succeeded() && signatureResult.succeeded();
+        }
     }
 }
@@ -14,11 +14,15 @@
 
 package org.eclipse.dataspaceconnector.identityhub.verifier;
 
+import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.SignedJWT;
 import org.eclipse.dataspaceconnector.spi.result.Result;
 
 /**
  * Verifies verifiable credentials in JWT format.
+ * <p>
+ * The claims of a JWT can be passed along with it, so that a caller which already parsed them does not get them parsed
+ * again by each verification.
  */
 public interface JwtCredentialsVerifier {
 
@@ -38,4 +42,27 @@ public interface JwtCredentialsVerifier {
      * @return if the JWT is valid and for the given subject
      */
     Result<Void> verifyClaims(SignedJWT jwt, String expectedSubject);
+
+    /**
+     * Verifies if a JWT is really signed by the claimed issuer (iss field), using its already parsed claims.
+     *
+     * @param jwt    to be verified.
+     * @param claims claims of the JWT.
+     * @return if the JWT is signed by the claimed issuer.
+     */
+    default Result<Void> isSignedByIssuer(SignedJWT jwt, JWTClaimsSet claims) {
+        return isSignedByIssuer(jwt);
+    }
+
+    /**
+     * Verifies the claims of a JWT as {@link #verifyClaims(SignedJWT, String)}, using its already parsed claims.
+     *
+     * @param jwt             to be verified.
+     * @param claims          claims of the JWT.
+     * @param expectedSubject subject claim to verify.
+     * @return if the JWT is valid and for the given subject
+     */
+    default Result<Void> verifyClaims(SignedJWT jwt, JWTClaimsSet claims, String expectedSubject) {
+        return verifyClaims(jwt, expectedSubject);
+    }
 }
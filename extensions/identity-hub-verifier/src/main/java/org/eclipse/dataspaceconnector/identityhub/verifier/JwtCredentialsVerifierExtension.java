@@ -15,19 +15,60 @@
 package org.eclipse.dataspaceconnector.identityhub.verifier;
 
 import org.eclipse.dataspaceconnector.iam.did.spi.resolution.DidPublicKeyResolver;
+import org.eclipse.dataspaceconnector.identityhub.metrics.MetricsRegistry;
+import org.eclipse.dataspaceconnector.identityhub.validation.CredentialValidationRegistry;
+import org.eclipse.dataspaceconnector.spi.EdcSetting;
 import org.eclipse.dataspaceconnector.spi.monitor.Monitor;
 import org.eclipse.dataspaceconnector.spi.system.Inject;
 import org.eclipse.dataspaceconnector.spi.system.Provider;
 import org.eclipse.dataspaceconnector.spi.system.ServiceExtension;
+import org.eclipse.dataspaceconnector.spi.system.ServiceExtensionContext;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.Supplier;
 
 /**
  * Extension to provide verifier for IdentityHub Verifiable Credentials in JWT format.
+ * The public keys of the issuers are cached, see {@link CachingDidPublicKeyResolver}, as well as the successful
+ * signature verifications, see {@link CachingJwtCredentialsVerifier}. The hits and misses of both caches are exposed in
+ * the {@link MetricsRegistry} provided by another extension, if any.
+ * When running along with the Identity Hub, the verifier is also registered as the "signature" stage of the validation
+ * of the written Verifiable Credentials, which runs only if enabled in {@code edc.identity.hub.write.validation.stages}.
  */
 public class JwtCredentialsVerifierExtension implements ServiceExtension {
+
+    public static final String CACHE_METRIC = "identityhub.verifier.cache.requests";
+
+    @EdcSetting
+    private static final String KEY_CACHE_MAX_ENTRIES_SETTING = "edc.identity.hub.verifier.key.cache.max.entries";
+    private static final int DEFAULT_KEY_CACHE_MAX_ENTRIES = 1000;
+
+    @EdcSetting
+    private static final String KEY_CACHE_TTL_SETTING = "edc.identity.hub.verifier.key.cache.ttl.seconds";
+    private static final int DEFAULT_KEY_CACHE_TTL = 300;
+
+    @EdcSetting
+    private static final String KEY_CACHE_NEGATIVE_TTL_SETTING = "edc.identity.hub.verifier.key.cache.negative.ttl.seconds";
+    private static final int DEFAULT_KEY_CACHE_NEGATIVE_TTL = 30;
+
+    @EdcSetting
+    private static final String SIGNATURE_CACHE_MAX_ENTRIES_SETTING = "edc.identity.hub.verifier.signature.cache.max.entries";
+    private static final int DEFAULT_SIGNATURE_CACHE_MAX_ENTRIES = 10000;
+
+    @EdcSetting
+    private static final String SIGNATURE_CACHE_TTL_SETTING = "edc.identity.hub.verifier.signature.cache.ttl.seconds";
+    private static final int DEFAULT_SIGNATURE_CACHE_TTL = 300;
+
     @Inject
     private Monitor monitor;
     @Inject
     private DidPublicKeyResolver didPublicKeyResolver;
+    @Inject(required = false)
+    private MetricsRegistry metricsRegistry;
+    @Inject(required = false)
+    private CredentialValidationRegistry credentialValidationRegistry;
 
     @Override
     public String name() {
@@ -35,7 +76,28 @@ public class JwtCredentialsVerifierExtension implements ServiceExtension {
     }
 
     @Provider
-    public JwtCredentialsVerifier createJwtVerifier() {
-        return new DidJwtCredentialsVerifier(didPublicKeyResolver, monitor);
+    public JwtCredentialsVerifier createJwtVerifier(ServiceExtensionContext context) {
+        var keyCacheMaxEntries = context.getSetting(KEY_CACHE_MAX_ENTRIES_SETTING, DEFAULT_KEY_CACHE_MAX_ENTRIES);
+        var keyCacheTtl = Duration.ofSeconds(context.getSetting(KEY_CACHE_TTL_SETTING, DEFAULT_KEY_CACHE_TTL));
+        var keyCacheNegativeTtl = Duration.ofSeconds(context.getSetting(KEY_CACHE_NEGATIVE_TTL_SETTING, DEFAULT_KEY_CACHE_NEGATIVE_TTL));
+        var cachingResolver = new CachingDidPublicKeyResolver(didPublicKeyResolver, keyCacheMaxEntries, keyCacheTtl, keyCacheNegativeTtl, Clock.systemUTC());
+        var signatureCacheMaxEntries = context.getSetting(SIGNATURE_CACHE_MAX_ENTRIES_SETTING, DEFAULT_SIGNATURE_CACHE_MAX_ENTRIES);
+        var signatureCacheTtl = Duration.ofSeconds(context.getSetting(SIGNATURE_CACHE_TTL_SETTING, DEFAULT_SIGNATURE_CACHE_TTL));
+        var verifier = new DidJwtCredentialsVerifier(cachingResolver, monitor);
+        var cachingVerifier = new CachingJwtCredentialsVerifier(verifier, signatureCacheMaxEntries, signatureCacheTtl, Clock.systemUTC());
+
+        if (metricsRegistry != null) {
+            registerCacheMetrics("key", cachingResolver::getHitCount, cachingResolver::getMissCount);
+            registerCacheMetrics("signature", cachingVerifier::getHitCount, cachingVerifier::getMissCount);
+        }
+        if (credentialValidationRegistry != null) {
+            credentialValidationRegistry.register(new SignatureValidationStage(cachingVerifier));
+        }
+        return cachingVerifier;
+    }
+
+    private void registerCacheMetrics(String cache, Supplier<Number> hits, Supplier<Number> misses) {
+        metricsRegistry.registerCounter(CACHE_METRIC, Map.of("cache", cache, "result", "hit"), hits);
+        metricsRegistry.registerCounter(CACHE_METRIC, Map.of("cache", cache, "result", "miss"), misses);
     }
 }
@@ -0,0 +1,45 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.dataspaceconnector.identityhub.verifier;
+
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.eclipse.dataspaceconnector.identityhub.validation.CredentialValidationStage;
+import org.eclipse.dataspaceconnector.spi.result.Result;
+
+/**
+ * Validates that the Verifiable Credentials written into the Identity Hub are signed by their issuer, resolving the
+ * public key from the DID of the issuer.
+ */
+class SignatureValidationStage implements CredentialValidationStage {
+
+    static final String NAME = "signature";
+
+    private final JwtCredentialsVerifier jwtCredentialsVerifier;
+
+    SignatureValidationStage(JwtCredentialsVerifier jwtCredentialsVerifier) {
+        this.jwtCredentialsVerifier = jwtCredentialsVerifier;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public Result<Void> validate(SignedJWT jwt, JWTClaimsSet claims) {
+        return jwtCredentialsVerifier.isSignedByIssuer(jwt, claims);
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.dataspaceconnector.identityhub.verifier;
+
+import com.nimbusds.jose.JWEEncrypter;
+import com.nimbusds.jose.JWSVerifier;
+import org.eclipse.dataspaceconnector.iam.did.spi.key.PublicKeyWrapper;
+
+/**
+ * {@link PublicKeyWrapper} creating its {@link JWSVerifier} once, instead of creating a new verifier (and validating the
+ * key again) for every signature verification. Nimbus verifiers are immutable, so the verifier can be shared by
+ * concurrent verifications.
+ */
+class VerifierCachingPublicKeyWrapper implements PublicKeyWrapper {
+
+    private final PublicKeyWrapper publicKey;
+    private volatile JWSVerifier verifier;
+
+    VerifierCachingPublicKeyWrapper(PublicKeyWrapper publicKey) {
+        this.publicKey = publicKey;
+    }
+
+    @Override
+    public JWEEncrypter encrypter() {
+        return publicKey.encrypter();
+    }
+
+    @Override
+    public JWSVerifier verifier() {
+        var current = verifier;
+        if (current == null) {
+            // Concurrent callers may create a verifier each, only one of them is kept
+            current = publicKey.verifier();
+            verifier = current;
+        }
+        return current;
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.dataspaceconnector.identityhub.verifier;
+
+import com.github.javafaker.Faker;
+import com.nimbusds.jose.JWSVerifier;
+import org.eclipse.dataspaceconnector.iam.did.spi.key.PublicKeyWrapper;
+import org.eclipse.dataspaceconnector.iam.did.spi.resolution.DidPublicKeyResolver;
+import org.eclipse.dataspaceconnector.spi.result.Result;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.eclipse.dataspaceconnector.identityhub.junit.testfixtures.VerifiableCredentialTestUtil.generateEcKey;
+import static org.eclipse.dataspaceconnector.identityhub.junit.testfixtures.VerifiableCredentialTestUtil.toPublicKeyWrapper;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CachingDidPublicKeyResolverTest {
+
+    private static final Faker FAKER = new Faker();
+    private static final Duration TTL = Duration.ofMinutes(5);
+    private static final Duration NEGATIVE_TTL = Duration.ofSeconds(30);
+    private static final int MAX_ENTRIES = 2;
+
+    private final MutableClock clock = new MutableClock();
+    private DidPublicKeyResolver resolver;
+    private CachingDidPublicKeyResolver cachingResolver;
+
+    @BeforeEach
+    void setUp() {
+        resolver = mock(DidPublicKeyResolver.class);
+        cachingResolver = new CachingDidPublicKeyResolver(resolver, MAX_ENTRIES, TTL, NEGATIVE_TTL, clock);
+    }
+
+    @Test
+    void resolvesPublicKeyOnceUntilExpiration() {
+        // Arrange
+        var issuer = FAKER.internet().url();
+        var publicKey = toPublicKeyWrapper(generateEcKey());
+        when(resolver.resolvePublicKey(issuer)).thenReturn(Result.success(publicKey));
+
+        // Act
+        var first = cachingResolver.resolvePublicKey(issuer);
+        var second = cachingResolver.resolvePublicKey(issuer);
+        clock.advance(TTL.plusSeconds(1));
+        var afterExpiration = cachingResolver.resolvePublicKey(issuer);
+
+        // Assert
+        assertThat(first.getContent().verifier()).isSameAs(second.getContent().verifier());
+        assertThat(afterExpiration.getContent()).isNotSameAs(first.getContent());
+        verify(resolver, times(2)).resolvePublicKey(issuer);
+        assertThat(cachingResolver.getHitCount()).isEqualTo(1);
+        assertThat(cachingResolver.getMissCount()).isEqualTo(2);
+    }
+
+    @Test
+    void cachesFailuresForNegativeTtl() {
+        // Arrange
+        var issuer = FAKER.internet().url();
+        when(resolver.resolvePublicKey(issuer)).thenReturn(Result.failure(FAKER.lorem().sentence()));
+
+        // Act
+        cachingResolver.resolvePublicKey(issuer);
+        var cached = cachingResolver.resolvePublicKey(issuer);
+        clock.advance(NEGATIVE_TTL.plusSeconds(1));
+        cachingResolver.resolvePublicKey(issuer);
+
+        // Assert
+        assertThat(cached.failed()).isTrue();
+        verify(resolver, times(2)).resolvePublicKey(issuer);
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedEntries() {
+        // Arrange
+        var issuers = new ArrayList<String>();
+        for (var i = 0; i < MAX_ENTRIES + 1; i++) {
+            var issuer = FAKER.internet().url() + i;
+            issuers.add(issuer);
+            when(resolver.resolvePublicKey(issuer)).thenReturn(Result.success(toPublicKeyWrapper(generateEcKey())));
+        }
+
+        // Act
+        cachingResolver.resolvePublicKey(issuers.get(0));
+        cachingResolver.resolvePublicKey(issuers.get(1));
+        cachingResolver.resolvePublicKey(issuers.get(0));
+        cachingResolver.resolvePublicKey(issuers.get(2));
+        cachingResolver.resolvePublicKey(issuers.get(0));
+        cachingResolver.resolvePublicKey(issuers.get(1));
+
+        // Assert
+        verify(resolver, times(1)).resolvePublicKey(issuers.get(0));
+        verify(resolver, times(2)).resolvePublicKey(issuers.get(1));
+        verify(resolver, times(1)).resolvePublicKey(issuers.get(2));
+    }
+
+    @Test
+    void concurrentResolutionsAreDeduplicated() throws Exception {
+        // Arrange
+        var issuer = FAKER.internet().url();
+        var publicKey = toPublicKeyWrapper(generateEcKey());
+        var resolving = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        when(resolver.resolvePublicKey(issuer)).thenAnswer(invocation -> {
+            resolving.countDown();
+            release.await();
+            return Result.success(publicKey);
+        });
+        var executor = Executors.newFixedThreadPool(4);
+
+        try {
+            // Act
+            var first = CompletableFuture.supplyAsync(() -> cachingResolver.resolvePublicKey(issuer), executor);
+            resolving.await(5, TimeUnit.SECONDS);
+            var others = new ArrayList<CompletableFuture<Result<PublicKeyWrapper>>>();
+            for (var i = 0; i < 3; i++) {
+                others.add(CompletableFuture.supplyAsync(() -> cachingResolver.resolvePublicKey(issuer), executor));
+            }
+            release.countDown();
+
+            // Assert
+            var resolved = first.get(5, TimeUnit.SECONDS).getContent();
+            for (var other : others) {
+                assertThat(other.get(5, TimeUnit.SECONDS).getContent()).isSameAs(resolved);
+            }
+            verify(resolver, times(1)).resolvePublicKey(issuer);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void errorsAreNotCached() {
+        // Arrange
+        var issuer = FAKER.internet().url();
+        var publicKey = toPublicKeyWrapper(generateEcKey());
+        when(resolver.resolvePublicKey(issuer))
+                .thenThrow(new IllegalStateException(FAKER.lorem().sentence()))
+                .thenReturn(Result.success(publicKey));
+
+        // Act & Assert
+        assertThatIllegalStateException().isThrownBy(() -> cachingResolver.resolvePublicKey(issuer));
+        assertThat(cachingResolver.resolvePublicKey(issuer).succeeded()).isTrue();
+    }
+
+    @Test
+    void cachedPublicKeyReusesVerifier() {
+        // Arrange
+        var issuer = FAKER.internet().url();
+        var publicKey = mock(PublicKeyWrapper.class);
+        when(publicKey.verifier()).thenAnswer(invocation -> mock(JWSVerifier.class));
+        when(resolver.resolvePublicKey(issuer)).thenReturn(Result.success(publicKey));
+
+        // Act
+        var verifiers = new ArrayList<JWSVerifier>();
+        for (var i = 0; i < 3; i++) {
+            verifiers.add(cachingResolver.resolvePublicKey(issuer).getContent().verifier());
+        }
+
+        // Assert
+        assertThat(verifiers).containsOnly(verifiers.get(0));
+        verify(publicKey, times(1)).verifier();
+    }
+}
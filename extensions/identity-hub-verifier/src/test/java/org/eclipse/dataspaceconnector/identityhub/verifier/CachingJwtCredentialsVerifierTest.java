@@ -0,0 +1,154 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.dataspaceconnector.identityhub.verifier;
+
+import com.github.javafaker.Faker;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.eclipse.dataspaceconnector.spi.result.Result;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.eclipse.dataspaceconnector.identityhub.junit.testfixtures.VerifiableCredentialTestUtil.buildSignedJwt;
+import static org.eclipse.dataspaceconnector.identityhub.junit.testfixtures.VerifiableCredentialTestUtil.generateEcKey;
+import static org.eclipse.dataspaceconnector.identityhub.junit.testfixtures.VerifiableCredentialTestUtil.generateVerifiableCredential;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CachingJwtCredentialsVerifierTest {
+
+    private static final Faker FAKER = new Faker();
+    private static final Duration TTL = Duration.ofMinutes(5);
+    private static final int MAX_ENTRIES = 2;
+
+    private final MutableClock clock = new MutableClock();
+    private JwtCredentialsVerifier verifier;
+    private CachingJwtCredentialsVerifier cachingVerifier;
+
+    @BeforeEach
+    void setUp() {
+        verifier = mock(JwtCredentialsVerifier.class);
+        cachingVerifier = new CachingJwtCredentialsVerifier(verifier, MAX_ENTRIES, TTL, clock);
+    }
+
+    @Test
+    void verifiesSignatureOnceUntilTtl() throws Exception {
+        // Arrange
+        var jwt = jwt();
+        var sameJwt = SignedJWT.parse(jwt.serialize());
+        when(verifier.isSignedByIssuer(any())).thenReturn(Result.success());
+
+        // Act
+        var first = cachingVerifier.isSignedByIssuer(jwt);
+        var second = cachingVerifier.isSignedByIssuer(sameJwt);
+        clock.advance(TTL.plusSeconds(1));
+        var afterTtl = cachingVerifier.isSignedByIssuer(jwt);
+
+        // Assert
+        assertThat(first.succeeded()).isTrue();
+        assertThat(second.succeeded()).isTrue();
+        assertThat(afterTtl.succeeded()).isTrue();
+        verify(verifier, times(2)).isSignedByIssuer(any());
+        assertThat(cachingVerifier.getHitCount()).isEqualTo(1);
+        assertThat(cachingVerifier.getMissCount()).isEqualTo(2);
+    }
+
+    @Test
+    void verificationExpiresWithJwt() {
+        // Arrange
+        var expiration = clock.instant().plusSeconds(60);
+        var claims = new JWTClaimsSet.Builder()
+                .claim("vc", generateVerifiableCredential())
+                .issuer(FAKER.internet().url())
+                .subject(FAKER.internet().url())
+                .expirationTime(Date.from(expiration))
+                .build();
+        var jwt = buildSignedJwt(claims, generateEcKey());
+        when(verifier.isSignedByIssuer(jwt)).thenReturn(Result.success());
+
+        // Act
+        cachingVerifier.isSignedByIssuer(jwt);
+        clock.advance(Duration.ofSeconds(30));
+        cachingVerifier.isSignedByIssuer(jwt);
+        clock.advance(Duration.ofSeconds(31));
+        cachingVerifier.isSignedByIssuer(jwt);
+
+        // Assert
+        verify(verifier, times(2)).isSignedByIssuer(jwt);
+    }
+
+    @Test
+    void failedVerificationIsNotCached() {
+        // Arrange
+        var jwt = jwt();
+        when(verifier.isSignedByIssuer(jwt)).thenReturn(Result.failure("JWT not signed"), Result.success());
+
+        // Act
+        var first = cachingVerifier.isSignedByIssuer(jwt);
+        var second = cachingVerifier.isSignedByIssuer(jwt);
+
+        // Assert
+        assertThat(first.failed()).isTrue();
+        assertThat(second.succeeded()).isTrue();
+        verify(verifier, times(2)).isSignedByIssuer(jwt);
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedVerification() {
+        // Arrange
+        var jwts = new SignedJWT[]{jwt(), jwt(), jwt()};
+        when(verifier.isSignedByIssuer(any())).thenReturn(Result.success());
+
+        // Act
+        cachingVerifier.isSignedByIssuer(jwts[0]);
+        cachingVerifier.isSignedByIssuer(jwts[1]);
+        cachingVerifier.isSignedByIssuer(jwts[0]);
+        cachingVerifier.isSignedByIssuer(jwts[2]);
+        cachingVerifier.isSignedByIssuer(jwts[0]);
+        cachingVerifier.isSignedByIssuer(jwts[1]);
+
+        // Assert
+        verify(verifier, times(1)).isSignedByIssuer(jwts[0]);
+        verify(verifier, times(2)).isSignedByIssuer(jwts[1]);
+        verify(verifier, times(1)).isSignedByIssuer(jwts[2]);
+    }
+
+    @Test
+    void claimsAreAlwaysVerified() {
+        // Arrange
+        var jwt = jwt();
+        var subject = FAKER.internet().url();
+        when(verifier.verifyClaims(jwt, subject)).thenReturn(Result.success(), Result.failure("VC expired"));
+
+        // Act
+        var first = cachingVerifier.verifyClaims(jwt, subject);
+        var second = cachingVerifier.verifyClaims(jwt, subject);
+
+        // Assert
+        assertThat(first.succeeded()).isTrue();
+        assertThat(second.failed()).isTrue();
+    }
+
+    private static SignedJWT jwt() {
+        return buildSignedJwt(generateVerifiableCredential(), FAKER.internet().url(), FAKER.internet().url(), generateEcKey());
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.dataspaceconnector.identityhub.verifier;
+
+import com.github.javafaker.Faker;
+import com.nimbusds.jwt.SignedJWT;
+import org.eclipse.dataspaceconnector.identityhub.client.IdentityHubClient;
+import org.eclipse.dataspaceconnector.spi.monitor.Monitor;
+import org.eclipse.dataspaceconnector.spi.response.ResponseStatus;
+import org.eclipse.dataspaceconnector.spi.response.StatusResult;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.eclipse.dataspaceconnector.identityhub.junit.testfixtures.VerifiableCredentialTestUtil.buildSignedJwt;
+import static org.eclipse.dataspaceconnector.identityhub.junit.testfixtures.VerifiableCredentialTestUtil.generateEcKey;
+import static org.eclipse.dataspaceconnector.identityhub.junit.testfixtures.VerifiableCredentialTestUtil.generateVerifiableCredential;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IdentityHubCredentialsReaderTest {
+
+    private static final Faker FAKER = new Faker();
+    private static final String HUB_BASE_URL = "https://" + FAKER.internet().url();
+    private static final String MIRROR_BASE_URL = "https://" + FAKER.internet().url();
+    private final IdentityHubClient identityHubClientMock = mock(IdentityHubClient.class);
+    private final MutableClock clock = new MutableClock();
+
+    @Test
+    void read_firstModeOnlyReadsFirstHub() {
+        // Arrange
+        var jwt = jwt();
+        when(identityHubClientMock.getVerifiableCredentials(HUB_BASE_URL)).thenReturn(StatusResult.success(List.of(jwt)));
+        var reader = new IdentityHubCredentialsReader(identityHubClientMock, mock(Monitor.class));
+
+        // Act
+        var result = reader.read(List.of(HUB_BASE_URL, MIRROR_BASE_URL));
+
+        // Assert
+        assertThat(result.succeeded()).isTrue();
+        assertThat(result.getContent()).containsExactly(jwt);
+        verify(identityHubClientMock, never()).getVerifiableCredentials(MIRROR_BASE_URL);
+    }
+
+    @Test
+    void read_fastestModeReturnsFirstSuccessfulResponse() {
+        // Arrange
+        var jwt = jwt();
+        var slowResponse = new CompletableFuture<StatusResult<Collection<SignedJWT>>>();
+        when(identityHubClientMock.getVerifiableCredentialsAsync(HUB_BASE_URL)).thenReturn(slowResponse);
+        when(identityHubClientMock.getVerifiableCredentialsAsync(MIRROR_BASE_URL)).thenReturn(completed(StatusResult.success(List.of(jwt))));
+        var reader = reader(IdentityHubCredentialsReader.Mode.FASTEST, Integer.MAX_VALUE);
+
+        // Act
+        var result = reader.read(List.of(HUB_BASE_URL, MIRROR_BASE_URL));
+
+        // Assert
+        assertThat(result.succeeded()).isTrue();
+        assertThat(result.getContent()).containsExactly(jwt);
+        assertThat(reader.getAverageLatency(HUB_BASE_URL)).isNull();
+        assertThat(reader.getAverageLatency(MIRROR_BASE_URL)).isNotNull();
+    }
+
+    @Test
+    void read_fastestModeFailsIfAllHubsFail() {
+        // Arrange
+        when(identityHubClientMock.getVerifiableCredentialsAsync(HUB_BASE_URL)).thenReturn(completed(StatusResult.failure(ResponseStatus.FATAL_ERROR, "hub failure")));
+        when(identityHubClientMock.getVerifiableCredentialsAsync(MIRROR_BASE_URL)).thenReturn(completed(StatusResult.failure(ResponseStatus.FATAL_ERROR, "mirror failure")));
+        var reader = reader(IdentityHubCredentialsReader.Mode.FASTEST, 1);
+
+        // Act
+        var result = reader.read(List.of(HUB_BASE_URL, MIRROR_BASE_URL));
+
+        // Assert
+        assertThat(result.failed()).isTrue();
+        assertThat(result.getFailureDetail()).isEqualTo("hub failure, mirror failure");
+    }
+
+    @Test
+    void read_fastestModeDeprioritizesSlowHubs() {
+        // Arrange
+        when(identityHubClientMock.getVerifiableCredentialsAsync(HUB_BASE_URL)).thenAnswer(invocation -> {
+            clock.advance(Duration.ofMillis(500));
+            return completed(StatusResult.success(List.of(jwt())));
+        });
+        when(identityHubClientMock.getVerifiableCredentialsAsync(MIRROR_BASE_URL)).thenAnswer(invocation -> {
+            clock.advance(Duration.ofMillis(10));
+            return completed(StatusResult.success(List.of(jwt())));
+        });
+        var reader = reader(IdentityHubCredentialsReader.Mode.FASTEST, 1);
+        var hubBaseUrls = List.of(HUB_BASE_URL, MIRROR_BASE_URL);
+
+        // Act
+        reader.read(hubBaseUrls);
+        reader.read(hubBaseUrls);
+        reader.read(hubBaseUrls);
+
+        // Assert
+        verify(identityHubClientMock, times(1)).getVerifiableCredentialsAsync(HUB_BASE_URL);
+        verify(identityHubClientMock, times(2)).getVerifiableCredentialsAsync(MIRROR_BASE_URL);
+        assertThat(reader.getAverageLatency(HUB_BASE_URL)).isEqualTo(Duration.ofMillis(500));
+        assertThat(reader.getAverageLatency(MIRROR_BASE_URL)).isEqualTo(Duration.ofMillis(10));
+    }
+
+    @Test
+    void read_fastestModeFallsBackToSlowHubs() {
+        // Arrange
+        var jwt = jwt();
+        when(identityHubClientMock.getVerifiableCredentialsAsync(HUB_BASE_URL)).thenReturn(completed(StatusResult.failure(ResponseStatus.FATAL_ERROR)));
+        when(identityHubClientMock.getVerifiableCredentialsAsync(MIRROR_BASE_URL)).thenReturn(completed(StatusResult.success(List.of(jwt))));
+        var reader = reader(IdentityHubCredentialsReader.Mode.FASTEST, 1);
+
+        // Act
+        var result = reader.read(List.of(HUB_BASE_URL, MIRROR_BASE_URL));
+
+        // Assert
+        assertThat(result.succeeded()).isTrue();
+        assertThat(result.getContent()).containsExactly(jwt);
+    }
+
+    @Test
+    void read_mergeModeDeduplicatesCredentials() {
+        // Arrange
+        var shared = jwt();
+        var hubOnly = jwt();
+        var mirrorOnly = jwt();
+        when(identityHubClientMock.getVerifiableCredentialsAsync(HUB_BASE_URL)).thenReturn(completed(StatusResult.success(List.of(hubOnly, shared))));
+        when(identityHubClientMock.getVerifiableCredentialsAsync(MIRROR_BASE_URL)).thenReturn(completed(StatusResult.success(List.of(shared, mirrorOnly))));
+        var reader = reader(IdentityHubCredentialsReader.Mode.MERGE, 1);
+
+        // Act
+        var result = reader.read(List.of(HUB_BASE_URL, MIRROR_BASE_URL));
+
+        // Assert
+        assertThat(result.succeeded()).isTrue();
+        assertThat(result.getContent()).containsExactly(hubOnly, shared, mirrorOnly);
+    }
+
+    @Test
+    void read_mergeModeIgnoresFailingHubs() {
+        // Arrange
+        var jwt = jwt();
+        when(identityHubClientMock.getVerifiableCredentialsAsync(HUB_BASE_URL)).thenReturn(completed(StatusResult.failure(ResponseStatus.FATAL_ERROR)));
+        when(identityHubClientMock.getVerifiableCredentialsAsync(MIRROR_BASE_URL)).thenReturn(completed(StatusResult.success(List.of(jwt))));
+        var reader = reader(IdentityHubCredentialsReader.Mode.MERGE, 1);
+
+        // Act
+        var result = reader.read(List.of(HUB_BASE_URL, MIRROR_BASE_URL));
+
+        // Assert
+        assertThat(result.succeeded()).isTrue();
+        assertThat(result.getContent()).containsExactly(jwt);
+    }
+
+    @Test
+    void read_forgetsLatencyOfLeastRecentlyReadHubs() {
+        // Arrange
+        when(identityHubClientMock.getVerifiableCredentialsAsync(HUB_BASE_URL)).thenReturn(completed(StatusResult.success(List.of(jwt()))));
+        when(identityHubClientMock.getVerifiableCredentialsAsync(MIRROR_BASE_URL)).thenReturn(completed(StatusResult.success(List.of(jwt()))));
+        var reader = new IdentityHubCredentialsReader(identityHubClientMock, IdentityHubCredentialsReader.Mode.MERGE, 1, 1, clock, mock(Monitor.class));
+
+        // Act
+        reader.read(List.of(HUB_BASE_URL, MIRROR_BASE_URL));
+
+        // Assert
+        assertThat(reader.getAverageLatency(HUB_BASE_URL)).isNull();
+        assertThat(reader.getAverageLatency(MIRROR_BASE_URL)).isNotNull();
+    }
+
+    private IdentityHubCredentialsReader reader(IdentityHubCredentialsReader.Mode mode, int maxConcurrentHubs) {
+        return new IdentityHubCredentialsReader(identityHubClientMock, mode, maxConcurrentHubs, clock, mock(Monitor.class));
+    }
+
+    private static SignedJWT jwt() {
+        return buildSignedJwt(generateVerifiableCredential(), FAKER.internet().url(), FAKER.internet().url(), generateEcKey());
+    }
+
+    private static CompletableFuture<StatusResult<Collection<SignedJWT>>> completed(StatusResult<Collection<SignedJWT>> result) {
+        return CompletableFuture.completedFuture(result);
+    }
+}
@@ -32,8 +32,11 @@ import org.eclipse.dataspaceconnector.spi.result.Result;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentMatchers;
 
+import java.text.ParseException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Supplier;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -44,6 +47,8 @@ import static org.eclipse.dataspaceconnector.identityhub.junit.testfixtures.Veri
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -80,10 +85,58 @@ class IdentityHubCredentialsVerifierTest {
                 .isEqualTo(toMap(credential, ISSUER, SUBJECT));
     }
 
+    @Test
+    void getVerifiedClaims_parsesClaimsOnce() throws ParseException {
+
+        // Arrange
+        var jws = spy(buildSignedJwt(generateVerifiableCredential(), ISSUER, SUBJECT, generateEcKey()));
+        setUpMocks(jws, true, true);
+
+        // Act
+        var credentials = credentialsVerifier.getVerifiedCredentials(DID_DOCUMENT);
+
+        // Assert
+        assertThat(credentials.succeeded()).isTrue();
+        verify(jws, times(1)).getJWTClaimsSet();
+    }
+
     private void setUpMocks(SignedJWT jws, boolean isSigned, boolean claimsValid) {
         when(identityHubClientMock.getVerifiableCredentials(HUB_BASE_URL)).thenReturn(StatusResult.success(List.of(jws)));
-        when(jwtCredentialsVerifierMock.isSignedByIssuer(jws)).thenReturn(isSigned ? Result.success() : Result.failure("JWT not signed"));
-        when(jwtCredentialsVerifierMock.verifyClaims(eq(jws), any())).thenReturn(claimsValid ? Result.success() : Result.failure("VC not valid"));
+        when(jwtCredentialsVerifierMock.isSignedByIssuer(eq(jws), any())).thenReturn(isSigned ? Result.success() : Result.failure("JWT not signed"));
+        when(jwtCredentialsVerifierMock.verifyClaims(eq(jws), any(), any())).thenReturn(claimsValid ? Result.success() : Result.failure("VC not valid"));
+    }
+
+    @Test
+    void getVerifiedClaims_parallelVerificationKeepsFailureOrder() {
+
+        // Arrange
+        var jwts = new ArrayList<SignedJWT>();
+        for (var i = 0; i < 20; i++) {
+            var jws = buildSignedJwt(generateVerifiableCredential(), ISSUER, SUBJECT, generateEcKey());
+            jwts.add(jws);
+            var index = i;
+            when(jwtCredentialsVerifierMock.verifyClaims(eq(jws), any(), any())).thenReturn(i % 3 == 0 ? Result.failure("VC not valid " + i) : Result.success());
+            when(jwtCredentialsVerifierMock.isSignedByIssuer(eq(jws), any())).thenAnswer(invocation -> {
+                Thread.sleep(FAKER.number().numberBetween(0, 10));
+                return index % 4 == 0 ? Result.failure("JWT not signed " + index) : Result.success();
+            });
+        }
+        when(identityHubClientMock.getVerifiableCredentials(HUB_BASE_URL)).thenReturn(StatusResult.success(jwts));
+        var pool = new ForkJoinPool(4);
+        var parallelVerifier = new IdentityHubCredentialsVerifier(identityHubClientMock, monitorMock, jwtCredentialsVerifierMock, verifiableCredentialsJwtService, pool);
+
+        try {
+            // Act
+            var sequentialResult = credentialsVerifier.getVerifiedCredentials(DID_DOCUMENT);
+            var parallelResult = parallelVerifier.getVerifiedCredentials(DID_DOCUMENT);
+
+            // Assert
+            assertThat(parallelResult.failed()).isTrue();
+            assertThat(parallelResult.getFailureMessages()).isEqualTo(sequentialResult.getFailureMessages());
+            assertThat(parallelResult.getFailureDetail()).startsWith("VC not valid 0, VC not valid 3").contains("JWT not signed 4, JWT not signed 8");
+        } finally {
+            pool.shutdownNow();
+        }
     }
 
     @Test
@@ -24,14 +24,17 @@ val jupiterVersion: String by project
 val restAssured: String by project
 val faker: String by project
 val nimbusVersion: String by project
+val openTelemetryVersion: String by project
 val mockitoVersion: String by project
 
 dependencies {
     api(project(":spi:identity-hub-spi"))
     api(project(":identity-hub-core:identity-hub-model"))
     implementation(project(":spi:identity-hub-store-spi"))
+    implementation(project(":identity-hub-core:identity-hub-store-index"))
     implementation("${edcGroup}:http:${edcVersion}")
     implementation("com.nimbusds:nimbus-jose-jwt:${nimbusVersion}")
+    implementation("io.opentelemetry:opentelemetry-extension-annotations:${openTelemetryVersion}")
 
     testImplementation("${edcGroup}:common-util:${edcVersion}:test-fixtures")
     testImplementation("${edcGroup}:junit:${edcVersion}")
@@ -15,59 +15,186 @@
 package org.eclipse.dataspaceconnector.identityhub;
 
 import org.eclipse.dataspaceconnector.identityhub.api.IdentityHubController;
+import org.eclipse.dataspaceconnector.identityhub.metrics.MetricsRegistry;
 import org.eclipse.dataspaceconnector.identityhub.processor.CollectionsQueryProcessor;
 import org.eclipse.dataspaceconnector.identityhub.processor.CollectionsWriteProcessor;
 import org.eclipse.dataspaceconnector.identityhub.processor.FeatureDetectionReadProcessor;
+import org.eclipse.dataspaceconnector.identityhub.processor.MessageExecutor;
 import org.eclipse.dataspaceconnector.identityhub.processor.MessageProcessorRegistry;
+import org.eclipse.dataspaceconnector.identityhub.processor.ParallelMessageExecutor;
+import org.eclipse.dataspaceconnector.identityhub.selfdescription.SelfDescription;
 import org.eclipse.dataspaceconnector.identityhub.selfdescription.SelfDescriptionLoader;
+import org.eclipse.dataspaceconnector.identityhub.selfdescription.SelfDescriptionWatcher;
 import org.eclipse.dataspaceconnector.identityhub.store.IdentityHubInMemoryStore;
 import org.eclipse.dataspaceconnector.identityhub.store.IdentityHubStore;
+import org.eclipse.dataspaceconnector.identityhub.store.MeteredIdentityHubStore;
+import org.eclipse.dataspaceconnector.identityhub.validation.CredentialValidationPipeline;
+import org.eclipse.dataspaceconnector.identityhub.validation.CredentialValidationRegistry;
+import org.eclipse.dataspaceconnector.identityhub.validation.ExpirationValidationStage;
+import org.eclipse.dataspaceconnector.identityhub.validation.StructureValidationStage;
+import org.eclipse.dataspaceconnector.spi.EdcException;
 import org.eclipse.dataspaceconnector.spi.EdcSetting;
 import org.eclipse.dataspaceconnector.spi.WebService;
 import org.eclipse.dataspaceconnector.spi.system.Inject;
 import org.eclipse.dataspaceconnector.spi.system.Provider;
+import org.eclipse.dataspaceconnector.spi.system.Provides;
 import org.eclipse.dataspaceconnector.spi.system.ServiceExtension;
 import org.eclipse.dataspaceconnector.spi.system.ServiceExtensionContext;
 
-import java.util.Optional;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 import static org.eclipse.dataspaceconnector.identityhub.model.WebNodeInterfaceMethod.COLLECTIONS_QUERY;
 import static org.eclipse.dataspaceconnector.identityhub.model.WebNodeInterfaceMethod.COLLECTIONS_WRITE;
 import static org.eclipse.dataspaceconnector.identityhub.model.WebNodeInterfaceMethod.FEATURE_DETECTION_READ;
 
 /**
- * EDC extension to boot the services used by the Identity Hub
+ * EDC extension to boot the services used by the Identity Hub.
+ * Metrics of the messages and of the store are recorded in the {@link MetricsRegistry} provided by another extension, if
+ * any.
+ * The Self-Description configured with {@code edc.self.description.document.path} is reloaded whenever the file
+ * changes, without restarting the runtime.
+ * Written Verifiable Credentials are validated by the stages listed in {@code edc.identity.hub.write.validation.stages},
+ * among the ones registered in the {@link CredentialValidationRegistry} by this extension and by other extensions. The
+ * runtime fails to start if one of the listed stages has not been registered.
  */
+@Provides(CredentialValidationRegistry.class)
 public class IdentityHubExtension implements ServiceExtension {
 
     @EdcSetting
     private static final String SELF_DESCRIPTION_DOCUMENT_PATH_SETTING = "edc.self.description.document.path";
     private static final String DEFAULT_SELF_DESCRIPTION_FILE_NAME = "default-self-description.json";
 
+    @EdcSetting
+    private static final String QUERY_MAX_PAGE_SIZE_SETTING = "edc.identity.hub.query.max.page.size";
+
+    @EdcSetting
+    private static final String MESSAGE_PROCESSING_MODE_SETTING = "edc.identity.hub.message.processing.mode";
+    private static final String SEQUENTIAL_MODE = "sequential";
+    private static final String PARALLEL_MODE = "parallel";
+
+    @EdcSetting
+    private static final String MESSAGE_PROCESSING_THREADS_SETTING = "edc.identity.hub.message.processing.threads";
+    private static final int QUEUE_SIZE_PER_THREAD = 64;
+
+    @EdcSetting
+    private static final String MESSAGE_PROCESSING_MAX_CONCURRENCY_SETTING = "edc.identity.hub.message.processing.max.concurrency.per.request";
+    private static final int DEFAULT_MAX_CONCURRENCY_PER_REQUEST = 8;
+
+    @EdcSetting
+    private static final String WRITE_VALIDATION_STAGES_SETTING = "edc.identity.hub.write.validation.stages";
+    private static final String DEFAULT_WRITE_VALIDATION_STAGES = String.join(",", StructureValidationStage.NAME, ExpirationValidationStage.NAME);
+
     @Inject
     private WebService webService;
 
     @Inject
     private IdentityHubStore identityHubStore;
 
+    @Inject(required = false)
+    private MetricsRegistry metricsRegistry;
+
+    private ExecutorService messageExecutorService;
+    private SelfDescriptionWatcher selfDescriptionWatcher;
+    private CredentialValidationPipeline validationPipeline;
+
     @Override
     public void initialize(ServiceExtensionContext context) {
 
+        // Metrics are discarded unless an extension provides a registry
+        var metrics = metricsRegistry != null ? metricsRegistry : MetricsRegistry.NOOP;
+        var store = new MeteredIdentityHubStore(identityHubStore, metrics);
+
         var methodProcessorFactory = new MessageProcessorRegistry();
-        methodProcessorFactory.register(COLLECTIONS_QUERY, new CollectionsQueryProcessor(identityHubStore));
-        methodProcessorFactory.register(COLLECTIONS_WRITE, new CollectionsWriteProcessor(identityHubStore));
+        var maxPageSize = context.getSetting(QUERY_MAX_PAGE_SIZE_SETTING, CollectionsQueryProcessor.DEFAULT_MAX_PAGE_SIZE);
+        methodProcessorFactory.register(COLLECTIONS_QUERY, new CollectionsQueryProcessor(store, maxPageSize));
+        validationPipeline = createValidationPipeline(context, metrics);
+        methodProcessorFactory.register(COLLECTIONS_WRITE, new CollectionsWriteProcessor(store, validationPipeline));
         methodProcessorFactory.register(FEATURE_DETECTION_READ, new FeatureDetectionReadProcessor());
 
-        var loader = new SelfDescriptionLoader(context.getTypeManager().getMapper());
-        var selfDescription = Optional.ofNullable(context.getSetting(SELF_DESCRIPTION_DOCUMENT_PATH_SETTING, null))
-                .map(loader::fromFile)
-                .orElse(loader.fromClasspath(DEFAULT_SELF_DESCRIPTION_FILE_NAME));
-        var identityHubController = new IdentityHubController(methodProcessorFactory, selfDescription);
+        var identityHubController = new IdentityHubController(methodProcessorFactory, createSelfDescription(context), createMessageExecutor(context), context.getTypeManager().getMapper(), metrics);
         webService.registerResource(identityHubController);
     }
 
+    @Override
+    public void start() {
+        // All the extensions have registered their validation stages by now
+        validationPipeline.checkStages();
+    }
+
+    @Override
+    public void shutdown() {
+        if (messageExecutorService != null) {
+            messageExecutorService.shutdown();
+        }
+        if (selfDescriptionWatcher != null) {
+            selfDescriptionWatcher.close();
+        }
+    }
+
     @Provider(isDefault = true)
     public IdentityHubStore identityHubStore() {
         return new IdentityHubInMemoryStore();
     }
+
+    /**
+     * Create the validation pipeline of the written Verifiable Credentials, with the structure and expiration stages.
+     * Other extensions register further stages, e.g. the verification of the signature, through the registry.
+     */
+    private CredentialValidationPipeline createValidationPipeline(ServiceExtensionContext context, MetricsRegistry metrics) {
+        var stages = Arrays.stream(context.getSetting(WRITE_VALIDATION_STAGES_SETTING, DEFAULT_WRITE_VALIDATION_STAGES).split(","))
+                .map(String::trim)
+                .filter(stage -> !stage.isEmpty())
+                .collect(Collectors.toList());
+        var pipeline = new CredentialValidationPipeline(stages, metrics);
+        pipeline.register(new StructureValidationStage(context.getTypeManager().getMapper()));
+        pipeline.register(new ExpirationValidationStage(Clock.systemUTC()));
+        context.registerService(CredentialValidationRegistry.class, pipeline);
+        return pipeline;
+    }
+
+    /**
+     * Create the supplier of the Self-Description: the configured file, watched for changes, or the default one from
+     * the classpath.
+     */
+    private Supplier<SelfDescription> createSelfDescription(ServiceExtensionContext context) {
+        var mapper = context.getTypeManager().getMapper();
+        var loader = new SelfDescriptionLoader(mapper);
+        var path = context.getSetting(SELF_DESCRIPTION_DOCUMENT_PATH_SETTING, null);
+        if (path == null) {
+            var selfDescription = SelfDescription.of(loader.fromClasspath(DEFAULT_SELF_DESCRIPTION_FILE_NAME), mapper);
+            return () -> selfDescription;
+        }
+
+        selfDescriptionWatcher = new SelfDescriptionWatcher(Path.of(path), loader, mapper, context.getMonitor());
+        selfDescriptionWatcher.start();
+        return selfDescriptionWatcher;
+    }
+
+    /**
+     * Create the executor of the messages of a request. In parallel mode, messages run on a bounded thread pool, the
+     * calling thread processing the messages which do not fit in the queue.
+     */
+    private MessageExecutor createMessageExecutor(ServiceExtensionContext context) {
+        var mode = context.getSetting(MESSAGE_PROCESSING_MODE_SETTING, SEQUENTIAL_MODE);
+        if (SEQUENTIAL_MODE.equals(mode)) {
+            return MessageExecutor.SEQUENTIAL;
+        }
+        if (!PARALLEL_MODE.equals(mode)) {
+            throw new EdcException(String.format("Invalid value for %s: %s", MESSAGE_PROCESSING_MODE_SETTING, mode));
+        }
+
+        var threads = context.getSetting(MESSAGE_PROCESSING_THREADS_SETTING, Runtime.getRuntime().availableProcessors());
+        var maxConcurrency = context.getSetting(MESSAGE_PROCESSING_MAX_CONCURRENCY_SETTING, DEFAULT_MAX_CONCURRENCY_PER_REQUEST);
+        messageExecutorService = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads * QUEUE_SIZE_PER_THREAD), new ThreadPoolExecutor.CallerRunsPolicy());
+        return new ParallelMessageExecutor(messageExecutorService, maxConcurrency);
+    }
 }
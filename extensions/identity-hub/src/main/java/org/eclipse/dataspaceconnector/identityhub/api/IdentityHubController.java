@@ -15,23 +15,46 @@
 package org.eclipse.dataspaceconnector.identityhub.api;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.opentelemetry.extension.annotations.WithSpan;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.GET;
 import jakarta.ws.rs.POST;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import org.eclipse.dataspaceconnector.identityhub.metrics.MetricsRegistry;
 import org.eclipse.dataspaceconnector.identityhub.model.MessageRequestObject;
 import org.eclipse.dataspaceconnector.identityhub.model.MessageResponseObject;
 import org.eclipse.dataspaceconnector.identityhub.model.RequestObject;
 import org.eclipse.dataspaceconnector.identityhub.model.RequestStatus;
 import org.eclipse.dataspaceconnector.identityhub.model.ResponseObject;
+import org.eclipse.dataspaceconnector.identityhub.model.WebNodeInterfaceMethod;
 import org.eclipse.dataspaceconnector.identityhub.model.WebNodeInterfaces;
+import org.eclipse.dataspaceconnector.identityhub.processor.MessageExecutor;
+import org.eclipse.dataspaceconnector.identityhub.processor.MessageProcessor;
 import org.eclipse.dataspaceconnector.identityhub.processor.MessageProcessorRegistry;
+import org.eclipse.dataspaceconnector.identityhub.selfdescription.SelfDescription;
 
-import java.util.stream.Collectors;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
 
 import static org.eclipse.dataspaceconnector.identityhub.model.WebNodeInterfaceMethod.fromName;
 
@@ -39,6 +62,23 @@ import static org.eclipse.dataspaceconnector.identityhub.model.WebNodeInterfaceM
  * Identity Hub controller, exposing a <a href="https://identity.foundation/decentralized-web-node/spec">Decentralized Web Node</a> compatible endpoint.
  * <p>
  * See {@link WebNodeInterfaces} for a list of currently supported DWN interfaces.
+ * <p>
+ * Consecutive messages of a same method are processed together by their {@link MessageProcessor}, e.g. consecutive
+ * "CollectionsWrite" messages are stored in a single commit, while messages of different methods are processed in the
+ * order of the request.
+ * <p>
+ * The response is streamed: each reply is written and flushed once serialized, and the entries of "CollectionsQuery"
+ * replies are read from the store while they are written, so that the memory used does not depend on the size of the
+ * response. All the messages are processed before the response is written, so that a processing failure still results
+ * in an error status. Entries read lazily while the response is written, e.g. from the segments of the file store, are
+ * read after the 200 status has been sent: a failure to read them aborts the response, which the client sees as a
+ * truncated body.
+ * <p>
+ * The processing of the messages is measured in the {@link MetricsRegistry}: the number of messages by method and
+ * reply status, and the duration of the processing of each group of consecutive messages of a same method.
+ * <p>
+ * The Self-Description is served as pre-encoded bytes, gzip compressed if the client accepts it, with a strong entity
+ * tag so that clients can revalidate their copy with {@code If-None-Match}.
  */
 @Tag(name = "IdentityHub")
 @Produces(MediaType.APPLICATION_JSON)
@@ -46,40 +86,131 @@ import static org.eclipse.dataspaceconnector.identityhub.model.WebNodeInterfaceM
 @Path("/identity-hub")
 public class IdentityHubController {
 
+    public static final String MESSAGES_METRIC = "identityhub.messages";
+    public static final String PROCESSING_METRIC = "identityhub.messages.processing";
+    private static final String METHOD_TAG = "method";
+    private static final String STATUS_TAG = "status";
+    private static final String GZIP_ENCODING = "gzip";
+
     private final MessageProcessorRegistry messageProcessorRegistry;
-    private final JsonNode selfDescription;
+    private final Supplier<SelfDescription> selfDescription;
+    private final MessageExecutor messageExecutor;
+    private final ObjectMapper objectMapper;
+    private final MetricsRegistry metricsRegistry;
+
+    public IdentityHubController(MessageProcessorRegistry messageProcessorRegistry, Supplier<SelfDescription> selfDescription) {
+        this(messageProcessorRegistry, selfDescription, MessageExecutor.SEQUENTIAL);
+    }
+
+    public IdentityHubController(MessageProcessorRegistry messageProcessorRegistry, Supplier<SelfDescription> selfDescription, MessageExecutor messageExecutor) {
+        this(messageProcessorRegistry, selfDescription, messageExecutor, new ObjectMapper());
+    }
+
+    public IdentityHubController(MessageProcessorRegistry messageProcessorRegistry, Supplier<SelfDescription> selfDescription, MessageExecutor messageExecutor, ObjectMapper objectMapper) {
+        this(messageProcessorRegistry, selfDescription, messageExecutor, objectMapper, MetricsRegistry.NOOP);
+    }
 
-    public IdentityHubController(MessageProcessorRegistry messageProcessorRegistry, JsonNode selfDescription) {
+    public IdentityHubController(MessageProcessorRegistry messageProcessorRegistry, Supplier<SelfDescription> selfDescription, MessageExecutor messageExecutor, ObjectMapper objectMapper,
+                                 MetricsRegistry metricsRegistry) {
         this.messageProcessorRegistry = messageProcessorRegistry;
         this.selfDescription = selfDescription;
+        this.messageExecutor = messageExecutor;
+        this.objectMapper = objectMapper;
+        this.metricsRegistry = metricsRegistry;
     }
 
     @Operation(description = "A Decentralized Web Node (https://identity.foundation/decentralized-web-node/spec) compatible endpoint supporting operations to read and write Verifiable Credentials into an Identity Hub")
+    @ApiResponse(description = "default response", content = @Content(schema = @Schema(implementation = ResponseObject.class)))
     @POST
-    public ResponseObject handleRequest(RequestObject requestObject) {
-        var replies = requestObject.getMessages()
-                .stream()
-                .map(this::processMessage)
-                .collect(Collectors.toList());
-
-        return ResponseObject.Builder.newInstance()
-                .requestId(requestObject.getRequestId())
-                .status(RequestStatus.OK)
-                .replies(replies)
-                .build();
+    @WithSpan
+    public StreamingOutput handleRequest(RequestObject requestObject) {
+        var messages = new ArrayList<>(requestObject.getMessages());
+        var replies = new ArrayList<MessageResponseObject>(messages.size());
+        var start = 0;
+        while (start < messages.size()) {
+            var method = methodOf(messages.get(start));
+            var end = start + 1;
+            while (end < messages.size() && methodOf(messages.get(end)) == method) {
+                end++;
+            }
+            replies.addAll(process(method, messages.subList(start, end)));
+            start = end;
+        }
+
+        return output -> writeResponse(output, requestObject.getRequestId(), replies);
     }
 
     @Operation(description = "Serve Self-Description document as defined in Gaia-X Trust Framework (https://gaia-x.gitlab.io/policy-rules-committee/trust-framework/)")
+    @ApiResponse(description = "default response", content = @Content(schema = @Schema(implementation = JsonNode.class)))
     @GET
     @Path("/self-description")
-    public JsonNode getSelfDescription() {
-        return selfDescription;
+    public Response getSelfDescription(@Context Request request, @Context HttpHeaders headers) {
+        // The document is read once, so that the content and the entity tag belong to the same version
+        var document = selfDescription.get();
+        var gzip = acceptsGzip(headers.getRequestHeader(HttpHeaders.ACCEPT_ENCODING));
+        var etag = new EntityTag(gzip ? document.getGzipEtag() : document.getEtag());
+
+        var notModified = request.evaluatePreconditions(etag);
+        var response = notModified != null ? notModified : Response.ok(gzip ? document.getGzipContent() : document.getContent(), MediaType.APPLICATION_JSON_TYPE);
+        if (gzip && notModified == null) {
+            response.encoding(GZIP_ENCODING);
+        }
+        return response.tag(etag)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .build();
     }
 
-    private MessageResponseObject processMessage(MessageRequestObject messageRequestObject) {
-        var method = fromName(messageRequestObject.getDescriptor().getMethod());
+    /**
+     * Process consecutive messages of a same method, recording the duration of the processing and the status of each reply.
+     */
+    @WithSpan
+    private List<MessageResponseObject> process(WebNodeInterfaceMethod method, List<MessageRequestObject> messages) {
         var processor = messageProcessorRegistry.resolve(method);
-        return processor.process(messageRequestObject.getData());
+        var start = System.nanoTime();
+        var replies = processor.processAll(messages, messageExecutor);
+        metricsRegistry.record(PROCESSING_METRIC, Map.of(METHOD_TAG, method.getName()), Duration.ofNanos(System.nanoTime() - start));
+        for (var reply : replies) {
+            metricsRegistry.increment(MESSAGES_METRIC, Map.of(METHOD_TAG, method.getName(), STATUS_TAG, String.valueOf(reply.getStatus().getCode())), 1);
+        }
+        return replies;
+    }
+
+    /**
+     * Write a response object, with the same structure as {@link ResponseObject}, flushing each reply once written.
+     */
+    @WithSpan
+    private void writeResponse(OutputStream output, String requestId, List<MessageResponseObject> replies) throws IOException {
+        try (var generator = objectMapper.getFactory().createGenerator(output)) {
+            generator.writeStartObject();
+            generator.writeStringField("requestId", requestId);
+            generator.writeFieldName("status");
+            objectMapper.writeValue(generator, RequestStatus.OK);
+            generator.writeArrayFieldStart("replies");
+            for (var reply : replies) {
+                objectMapper.writeValue(generator, reply);
+                generator.flush();
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+    }
+
+    /**
+     * Whether the Accept-Encoding headers accept gzip, i.e. list it, or any encoding, without a zero quality value.
+     */
+    private static boolean acceptsGzip(List<String> acceptEncodings) {
+        if (acceptEncodings == null) {
+            return false;
+        }
+        return acceptEncodings.stream()
+                .flatMap(header -> Arrays.stream(header.split(",")))
+                .map(coding -> coding.split(";"))
+                .filter(parts -> GZIP_ENCODING.equalsIgnoreCase(parts[0].trim()) || "*".equals(parts[0].trim()))
+                .anyMatch(parts -> Arrays.stream(parts).skip(1).map(String::trim).noneMatch(param -> param.matches("q=0(\\.0{0,3})?")));
+    }
+
+    private static WebNodeInterfaceMethod methodOf(MessageRequestObject messageRequestObject) {
+        return fromName(messageRequestObject.getDescriptor().getMethod());
     }
 
 }
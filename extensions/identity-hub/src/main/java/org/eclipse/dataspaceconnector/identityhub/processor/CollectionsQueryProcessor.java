@@ -14,32 +14,119 @@
 
 package org.eclipse.dataspaceconnector.identityhub.processor;
 
+import io.opentelemetry.extension.annotations.WithSpan;
+import org.eclipse.dataspaceconnector.identityhub.model.CollectionsQueryFilter;
+import org.eclipse.dataspaceconnector.identityhub.model.MessageRequestObject;
 import org.eclipse.dataspaceconnector.identityhub.model.MessageResponseObject;
 import org.eclipse.dataspaceconnector.identityhub.model.MessageStatus;
+import org.eclipse.dataspaceconnector.identityhub.store.HubObjectQuery;
 import org.eclipse.dataspaceconnector.identityhub.store.IdentityHubStore;
+import org.eclipse.dataspaceconnector.spi.EdcException;
 
-import java.util.Collection;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 
 import static org.eclipse.dataspaceconnector.identityhub.model.MessageResponseObject.MESSAGE_ID_VALUE;
 
 /**
- * Processor of "CollectionsQuery" messages, returning the list of objects available in the {@link IdentityHubStore}
+ * Processor of "CollectionsQuery" messages, returning a page of the objects available in the {@link IdentityHubStore}.
+ * The size of the page is given by the descriptor limit, capped to a maximum page size. The response contains a cursor
+ * to be passed in the descriptor of the next query when more objects are available.
+ * The descriptor filter restricts the returned objects to the ones matching the issuer, subject, type and schema provided.
+ * <p>
+ * The response contains an entity tag derived from the version of the store and from the query: its filter, cursor and
+ * page size. When the descriptor contains the entity tag of a previous response to the same query and the store has not
+ * changed since, the response has a "not modified" status and no entries.
  */
 public class CollectionsQueryProcessor implements MessageProcessor {
 
+    public static final int DEFAULT_MAX_PAGE_SIZE = 1000;
+
     private final IdentityHubStore identityHubStore;
+    private final int maxPageSize;
 
     public CollectionsQueryProcessor(IdentityHubStore identityHubStore) {
+        this(identityHubStore, DEFAULT_MAX_PAGE_SIZE);
+    }
+
+    public CollectionsQueryProcessor(IdentityHubStore identityHubStore, int maxPageSize) {
         this.identityHubStore = identityHubStore;
+        this.maxPageSize = maxPageSize;
     }
 
     @Override
     public MessageResponseObject process(byte[] data) {
-        Collection<?> entries = identityHubStore.getAll();
-        return MessageResponseObject.Builder.newInstance()
-                .messageId(MESSAGE_ID_VALUE)
-                .status(MessageStatus.OK)
-                .entries(entries)
-                .build();
+        return query(null, null, null, null);
+    }
+
+    @Override
+    public MessageResponseObject process(MessageRequestObject message) {
+        var descriptor = message.getDescriptor();
+        return query(descriptor.getCursor(), descriptor.getLimit(), descriptor.getFilter(), descriptor.getIfNoneMatch());
+    }
+
+    @WithSpan
+    private MessageResponseObject query(String cursor, Integer limit, CollectionsQueryFilter filter, String ifNoneMatch) {
+        if (limit != null && limit <= 0) {
+            return malformedMessage();
+        }
+
+        var queryBuilder = HubObjectQuery.Builder.newInstance()
+                .cursor(cursor)
+                .limit(limit == null ? maxPageSize : Math.min(limit, maxPageSize));
+        if (filter != null) {
+            queryBuilder.issuer(filter.getIssuer())
+                    .subject(filter.getSubject())
+                    .type(filter.getType())
+                    .schema(filter.getSchema());
+        }
+        var query = queryBuilder.build();
+
+        // Version read before the query, so that hub objects added meanwhile change the entity tag of the next queries
+        var etag = etag(identityHubStore.version(), query);
+        if (etag.equals(ifNoneMatch)) {
+            return MessageResponseObject.Builder.newInstance()
+                    .messageId(MESSAGE_ID_VALUE)
+                    .status(MessageStatus.NOT_MODIFIED)
+                    .etag(etag)
+                    .build();
+        }
+
+        try {
+            var page = identityHubStore.query(query);
+            return MessageResponseObject.Builder.newInstance()
+                    .messageId(MESSAGE_ID_VALUE)
+                    .status(MessageStatus.OK)
+                    .entries(page.getItems())
+                    .cursor(page.getCursor())
+                    .etag(etag)
+                    .build();
+        } catch (IllegalArgumentException e) {
+            return malformedMessage();
+        }
+    }
+
+    /**
+     * Entity tag of a query, so that the entity tag of a response is only matched by the same query on the same version of
+     * the store.
+     */
+    private static String etag(long version, HubObjectQuery query) {
+        var key = new StringBuilder().append(version).append(':').append(query.getLimit());
+        for (var value : new String[]{query.getCursor(), query.getIssuer(), query.getSubject(), query.getType(), query.getSchema()}) {
+            // Length-prefixed, so that values containing the separator cannot make two queries collide
+            key.append(':').append(value == null ? "-" : value.length() + "=" + value);
+        }
+        try {
+            var digest = MessageDigest.getInstance("SHA-256").digest(key.toString().getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new EdcException(e);
+        }
+    }
+
+    private MessageResponseObject malformedMessage() {
+        return MessageResponseObject.Builder.newInstance().messageId(MESSAGE_ID_VALUE).status(MessageStatus.MALFORMED_MESSAGE).build();
     }
 }
@@ -15,38 +15,136 @@
 package org.eclipse.dataspaceconnector.identityhub.processor;
 
 import com.nimbusds.jwt.SignedJWT;
+import io.opentelemetry.extension.annotations.WithSpan;
+import org.eclipse.dataspaceconnector.identityhub.model.DataCid;
+import org.eclipse.dataspaceconnector.identityhub.model.MessageRequestObject;
 import org.eclipse.dataspaceconnector.identityhub.model.MessageResponseObject;
 import org.eclipse.dataspaceconnector.identityhub.model.MessageStatus;
+import org.eclipse.dataspaceconnector.identityhub.store.HubObject;
 import org.eclipse.dataspaceconnector.identityhub.store.IdentityHubStore;
+import org.eclipse.dataspaceconnector.identityhub.validation.CredentialValidationPipeline;
 
 import java.text.ParseException;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
 
 import static org.eclipse.dataspaceconnector.identityhub.model.MessageResponseObject.MESSAGE_ID_VALUE;
 
 /**
  * Processor of "CollectionsWrite" messages, in order to write objects into the {@link IdentityHubStore}.
+ * Objects are indexed with the issuer, subject, types and schemas of the Verifiable Credential, so that they can be
+ * retrieved by filtered "CollectionsQuery" messages.
+ * When the descriptor contains a data CID, it must match the content identifier of the data (see {@link DataCid}).
+ * Verifiable Credentials are validated once on write by the {@link CredentialValidationPipeline}, from the claims parsed
+ * for their indexing; the invalid ones are rejected as malformed, the reply status detail giving the reason.
+ * Consecutive "CollectionsWrite" messages of a request are stored atomically, in a single store commit.
  */
 public class CollectionsWriteProcessor implements MessageProcessor {
 
     private static final String VERIFIABLE_CREDENTIALS_KEY = "vc";
     private final IdentityHubStore identityHubStore;
+    private final CredentialValidationPipeline validationPipeline;
 
     public CollectionsWriteProcessor(IdentityHubStore identityHubStore) {
+        this(identityHubStore, CredentialValidationPipeline.NONE);
+    }
+
+    public CollectionsWriteProcessor(IdentityHubStore identityHubStore, CredentialValidationPipeline validationPipeline) {
         this.identityHubStore = identityHubStore;
+        this.validationPipeline = validationPipeline;
     }
 
     @Override
     public MessageResponseObject process(byte[] data) {
+        return write(data, null);
+    }
+
+    @Override
+    public MessageResponseObject process(MessageRequestObject message) {
+        return write(message.getData(), message.getDescriptor().getDataCid());
+    }
+
+    /**
+     * Parses and validates the messages in parallel, then stores all the valid objects in a single store commit.
+     */
+    @Override
+    public List<MessageResponseObject> processAll(List<MessageRequestObject> messages, MessageExecutor executor) {
+        var parsedMessages = executor.execute(messages, message -> parse(message.getData(), message.getDescriptor().getDataCid()));
+        var validHubObjects = parsedMessages.stream()
+                .map(ParsedMessage::getHubObject)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        if (!validHubObjects.isEmpty()) {
+            identityHubStore.addAll(validHubObjects);
+        }
+        return parsedMessages.stream()
+                .map(parsedMessage -> reply(parsedMessage.getStatus()))
+                .collect(Collectors.toList());
+    }
+
+    private MessageResponseObject write(byte[] data, String dataCid) {
+        var parsedMessage = parse(data, dataCid);
+        var hubObject = parsedMessage.getHubObject();
+        if (hubObject != null) {
+            identityHubStore.add(hubObject.getData(), hubObject.getMetadata());
+        }
+        return reply(parsedMessage.getStatus());
+    }
+
+    /**
+     * Parse and validate the Verifiable Credential of a message.
+     *
+     * @return the object to store, or the status of the rejection if the message is malformed or the Verifiable
+     *         Credential is invalid.
+     */
+    @WithSpan
+    private ParsedMessage parse(byte[] data, String dataCid) {
+        var cid = DataCid.of(data);
+        if (dataCid != null && !dataCid.equals(cid)) {
+            return ParsedMessage.MALFORMED;
+        }
+
         try {
             var jwt = SignedJWT.parse(new String(data));
-            if (jwt.getJWTClaimsSet().getClaim(VERIFIABLE_CREDENTIALS_KEY) == null) {
-                return MessageResponseObject.Builder.newInstance().messageId(MESSAGE_ID_VALUE).status(MessageStatus.MALFORMED_MESSAGE).build();
+            var claims = jwt.getJWTClaimsSet();
+            if (claims.getClaim(VERIFIABLE_CREDENTIALS_KEY) == null) {
+                return ParsedMessage.MALFORMED;
             }
+            var validation = validationPipeline.validate(jwt, claims);
+            if (validation.failed()) {
+                return new ParsedMessage(null, MessageStatus.malformedMessage(String.format("Invalid Verifiable Credential: %s", validation.getFailureDetail())));
+            }
+            return new ParsedMessage(new HubObject(data, HubObjectMetadataExtractor.extract(claims, cid)), MessageStatus.OK);
         } catch (ParseException e) {
-            return MessageResponseObject.Builder.newInstance().messageId(MESSAGE_ID_VALUE).status(MessageStatus.MALFORMED_MESSAGE).build();
+            return ParsedMessage.MALFORMED;
         }
+    }
+
+    private static MessageResponseObject reply(MessageStatus status) {
+        return MessageResponseObject.Builder.newInstance().messageId(MESSAGE_ID_VALUE).status(status).build();
+    }
+
+    /**
+     * Outcome of the parsing of a message: the object to store, or null if the message was rejected.
+     */
+    private static final class ParsedMessage {
+        private static final ParsedMessage MALFORMED = new ParsedMessage(null, MessageStatus.MALFORMED_MESSAGE);
 
-        identityHubStore.add(data);
-        return MessageResponseObject.Builder.newInstance().messageId(MESSAGE_ID_VALUE).status(MessageStatus.OK).build();
+        private final HubObject hubObject;
+        private final MessageStatus status;
+
+        ParsedMessage(HubObject hubObject, MessageStatus status) {
+            this.hubObject = hubObject;
+            this.status = status;
+        }
+
+        HubObject getHubObject() {
+            return hubObject;
+        }
+
+        MessageStatus getStatus() {
+            return status;
+        }
     }
 }
@@ -0,0 +1,78 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.dataspaceconnector.identityhub.processor;
+
+import com.nimbusds.jwt.JWTClaimsSet;
+import org.eclipse.dataspaceconnector.identityhub.store.HubObjectMetadata;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Extracts the {@link HubObjectMetadata} used to index a Verifiable Credential in JWT format, from the claims parsed
+ * once when the Verifiable Credential is written.
+ * The types and schemas are read from the "type" and "credentialSchema" properties of the "vc" claim, which can either
+ * be single values or arrays as per the <a href="https://www.w3.org/TR/vc-data-model/">W3C Verifiable Credential</a> specification.
+ */
+class HubObjectMetadataExtractor {
+
+    private static final String VERIFIABLE_CREDENTIALS_KEY = "vc";
+    private static final String TYPE_KEY = "type";
+    private static final String CREDENTIAL_SCHEMA_KEY = "credentialSchema";
+    private static final String ID_KEY = "id";
+
+    private HubObjectMetadataExtractor() {
+    }
+
+    static HubObjectMetadata extract(JWTClaimsSet claims, String cid) {
+        var builder = HubObjectMetadata.Builder.newInstance()
+                .cid(cid)
+                .issuer(claims.getIssuer())
+                .subject(claims.getSubject());
+        if (claims.getExpirationTime() != null) {
+            builder.expiration(claims.getExpirationTime().toInstant());
+        }
+
+        var vc = claims.getClaim(VERIFIABLE_CREDENTIALS_KEY);
+        if (vc instanceof Map) {
+            var credential = (Map<?, ?>) vc;
+            builder.types(values(credential.get(TYPE_KEY)));
+            builder.schemas(values(credential.get(CREDENTIAL_SCHEMA_KEY)));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Values of a property which can be a single value or an array. Objects are represented by their "id" property.
+     */
+    private static List<String> values(Object property) {
+        Collection<?> values;
+        if (property == null) {
+            return List.of();
+        } else if (property instanceof Collection) {
+            values = (Collection<?>) property;
+        } else {
+            values = List.of(property);
+        }
+        return values.stream()
+                .map(v -> v instanceof Map ? ((Map<?, ?>) v).get(ID_KEY) : v)
+                .filter(Objects::nonNull)
+                .map(Object::toString)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.dataspaceconnector.identityhub.processor;
+
+import org.eclipse.dataspaceconnector.identityhub.model.MessageRequestObject;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Executes a task on each message of a request. Results are returned in the order of the messages.
+ */
+public interface MessageExecutor {
+
+    /**
+     * Executor processing the messages one after the other, in the calling thread.
+     */
+    MessageExecutor SEQUENTIAL = new MessageExecutor() {
+        @Override
+        public <T> List<T> execute(List<MessageRequestObject> messages, Function<MessageRequestObject, T> task) {
+            return messages.stream()
+                    .map(task)
+                    .collect(Collectors.toList());
+        }
+    };
+
+    /**
+     * Executes a task on each message of a request, e.g. processes the messages.
+     *
+     * @param messages messages of the request.
+     * @param task     function applied to a single message.
+     * @param <T>      type of the results.
+     * @return results, in the order of the messages.
+     */
+    <T> List<T> execute(List<MessageRequestObject> messages, Function<MessageRequestObject, T> task);
+}
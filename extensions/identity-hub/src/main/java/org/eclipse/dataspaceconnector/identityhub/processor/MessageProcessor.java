@@ -14,9 +14,12 @@
 
 package org.eclipse.dataspaceconnector.identityhub.processor;
 
+import org.eclipse.dataspaceconnector.identityhub.model.MessageRequestObject;
 import org.eclipse.dataspaceconnector.identityhub.model.MessageResponseObject;
 import org.eclipse.dataspaceconnector.identityhub.model.WebNodeInterfaces;
 
+import java.util.List;
+
 /**
  * <p>
  * Each implementor of the MessageProcessor interface handles a message of a different Decentralized Web Node Interface method.
@@ -36,4 +39,28 @@ public interface MessageProcessor {
      * @return MessageResponseObject
      */
     MessageResponseObject process(byte[] data);
+
+    /**
+     * Processes a message, giving access to its descriptor.
+     * Processors relying on descriptor properties (e.g. the cursor of a "CollectionsQuery") should override this method.
+     *
+     * @param message Message, containing the descriptor and the optional data
+     * @return MessageResponseObject
+     */
+    default MessageResponseObject process(MessageRequestObject message) {
+        return process(message.getData());
+    }
+
+    /**
+     * Processes consecutive messages of a request, all of them having the method handled by this processor.
+     * Processors able to handle several messages at once (e.g. storing the objects of "CollectionsWrite" messages in a
+     * single commit) should override this method.
+     *
+     * @param messages Messages, containing the descriptor and the optional data
+     * @param executor Executor of the messages, which may process them in parallel
+     * @return MessageResponseObject for each message, in the order of the messages
+     */
+    default List<MessageResponseObject> processAll(List<MessageRequestObject> messages, MessageExecutor executor) {
+        return executor.execute(messages, this::process);
+    }
 }
@@ -0,0 +1,79 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.dataspaceconnector.identityhub.processor;
+
+import org.eclipse.dataspaceconnector.identityhub.model.MessageRequestObject;
+import org.eclipse.dataspaceconnector.spi.EdcException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+
+/**
+ * Executes the messages of a request in parallel. The messages must be independent: the controller only hands over
+ * consecutive messages of a same method, so that a read sees the writes preceding it in the request.
+ * <p>
+ * At most {@code maxConcurrencyPerRequest} messages of a request run at the same time, so that a request with many
+ * messages does not monopolize the executor.
+ */
+public class ParallelMessageExecutor implements MessageExecutor {
+
+    private final Executor executor;
+    private final int maxConcurrencyPerRequest;
+
+    public ParallelMessageExecutor(Executor executor, int maxConcurrencyPerRequest) {
+        if (maxConcurrencyPerRequest <= 0) {
+            throw new IllegalArgumentException("Max concurrency per request must be positive");
+        }
+        this.executor = executor;
+        this.maxConcurrencyPerRequest = maxConcurrencyPerRequest;
+    }
+
+    @Override
+    public <T> List<T> execute(List<MessageRequestObject> messages, Function<MessageRequestObject, T> task) {
+        if (messages.size() == 1) {
+            // Tasks may return null, e.g. for a message rejected by the processor
+            return Collections.singletonList(task.apply(messages.get(0)));
+        }
+
+        var permits = new Semaphore(maxConcurrencyPerRequest);
+        var futures = new ArrayList<CompletableFuture<T>>(messages.size());
+        try {
+            for (var message : messages) {
+                permits.acquire();
+                futures.add(CompletableFuture.supplyAsync(() -> task.apply(message), executor)
+                        .whenComplete((result, throwable) -> permits.release()));
+            }
+            var results = new ArrayList<T>(messages.size());
+            for (var future : futures) {
+                results.add(future.join());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new EdcException("Interrupted while processing messages", e);
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.dataspaceconnector.identityhub.selfdescription;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.eclipse.dataspaceconnector.spi.EdcException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Self-Description document encoded once, so that it can be served as is: the UTF-8 JSON content, its gzip compressed
+ * variant, and a strong entity tag for each of them, derived from the SHA-256 digest of the content.
+ * <p>
+ * The content is shared between all the requests and must not be modified.
+ */
+public class SelfDescription {
+
+    private static final String GZIP_ETAG_SUFFIX = "-gzip";
+
+    private final byte[] content;
+    private final byte[] gzipContent;
+    private final String etag;
+
+    private SelfDescription(byte[] content, byte[] gzipContent, String etag) {
+        this.content = content;
+        this.gzipContent = gzipContent;
+        this.etag = etag;
+    }
+
+    /**
+     * Encode a Self-Description document.
+     *
+     * @param document JSON representation of the Self-Description.
+     * @param mapper   mapper used to serialize the document.
+     * @return the encoded Self-Description.
+     */
+    public static SelfDescription of(JsonNode document, ObjectMapper mapper) {
+        try {
+            var content = mapper.writeValueAsBytes(document);
+            return new SelfDescription(content, gzip(content), digest(content));
+        } catch (IOException e) {
+            throw new EdcException(e);
+        }
+    }
+
+    /**
+     * UTF-8 JSON content of the Self-Description.
+     */
+    public byte[] getContent() {
+        return content;
+    }
+
+    /**
+     * Gzip compressed UTF-8 JSON content of the Self-Description.
+     */
+    public byte[] getGzipContent() {
+        return gzipContent;
+    }
+
+    /**
+     * Entity tag of the content, without quotes.
+     */
+    public String getEtag() {
+        return etag;
+    }
+
+    /**
+     * Entity tag of the gzip compressed content, without quotes. It differs from the entity tag of the content, as
+     * both representations are not byte-for-byte identical.
+     */
+    public String getGzipEtag() {
+        return etag + GZIP_ETAG_SUFFIX;
+    }
+
+    private static byte[] gzip(byte[] content) throws IOException {
+        var output = new ByteArrayOutputStream(content.length / 4);
+        try (var gzip = new GZIPOutputStream(output)) {
+            gzip.write(content);
+        }
+        return output.toByteArray();
+    }
+
+    private static String digest(byte[] content) {
+        try {
+            var hash = MessageDigest.getInstance("SHA-256").digest(content);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new EdcException(e);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.dataspaceconnector.identityhub.selfdescription;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.eclipse.dataspaceconnector.spi.EdcException;
+import org.eclipse.dataspaceconnector.spi.monitor.Monitor;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.function.Supplier;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+/**
+ * Supplies the Self-Description loaded from a file, reloading it whenever the file is created or modified.
+ * <p>
+ * The reloaded document replaces the current one atomically, so that requests always get a complete document. If the
+ * file cannot be loaded, e.g. while it is being written, the current document is kept until the next change.
+ */
+public class SelfDescriptionWatcher implements Supplier<SelfDescription>, AutoCloseable {
+
+    private final Path path;
+    private final SelfDescriptionLoader loader;
+    private final ObjectMapper mapper;
+    private final Monitor monitor;
+    private volatile SelfDescription current;
+    private WatchService watchService;
+
+    /**
+     * Create a watcher, loading the Self-Description from the file.
+     *
+     * @param path    Path to the Self-Description file.
+     * @param loader  Loader of the Self-Description.
+     * @param mapper  Mapper used to serialize the Self-Description.
+     * @param monitor Monitor.
+     * @throws EdcException if the Self-Description cannot be loaded.
+     */
+    public SelfDescriptionWatcher(Path path, SelfDescriptionLoader loader, ObjectMapper mapper, Monitor monitor) {
+        this.path = path.toAbsolutePath();
+        this.loader = loader;
+        this.mapper = mapper;
+        this.monitor = monitor;
+        this.current = load();
+    }
+
+    @Override
+    public SelfDescription get() {
+        return current;
+    }
+
+    /**
+     * Start watching the file for changes, on a daemon thread.
+     */
+    public void start() {
+        try {
+            watchService = path.getFileSystem().newWatchService();
+            path.getParent().register(watchService, ENTRY_CREATE, ENTRY_MODIFY);
+        } catch (IOException e) {
+            throw new EdcException(e);
+        }
+        var thread = new Thread(this::watch, "self-description-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Reload the Self-Description from the file, keeping the current one if it cannot be loaded.
+     */
+    public void reload() {
+        try {
+            current = load();
+            monitor.info(String.format("Reloaded Self-Description from %s", path));
+        } catch (EdcException e) {
+            monitor.warning(String.format("Failed to reload Self-Description from %s, keeping the previous one", path), e);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                monitor.warning("Failed to stop watching the Self-Description", e);
+            }
+        }
+    }
+
+    private void watch() {
+        var fileName = path.getFileName();
+        while (true) {
+            WatchKey key;
+            try {
+                key = watchService.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ClosedWatchServiceException e) {
+                return;
+            }
+            // Events of other files of the directory are ignored, while lost events may include a change of the file
+            var changed = key.pollEvents().stream()
+                    .anyMatch(event -> event.kind() == OVERFLOW || fileName.equals(event.context()));
+            if (changed) {
+                reload();
+            }
+            if (!key.reset()) {
+                monitor.warning(String.format("Stopped watching Self-Description, directory %s is no longer accessible", path.getParent()));
+                return;
+            }
+        }
+    }
+
+    private SelfDescription load() {
+        var document = loader.fromFile(path.toString());
+        // A file being written may be empty or truncated, only complete documents are served
+        if (document == null || !document.isObject()) {
+            throw new EdcException(String.format("Self-Description %s is not a JSON object", path));
+        }
+        return SelfDescription.of(document, mapper);
+    }
+}
@@ -14,26 +14,92 @@
 
 package org.eclipse.dataspaceconnector.identityhub.store;
 
+import org.eclipse.dataspaceconnector.identityhub.model.DataCid;
+import org.eclipse.dataspaceconnector.identityhub.store.index.AppendOnlyList;
+import org.eclipse.dataspaceconnector.identityhub.store.index.HubObjectIndex;
+
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * In memory store of Hub Objects.
+ * <p>
+ * Hub objects are kept in a versioned append-only array: reads work on an immutable snapshot of the array without
+ * locking or copying, while writes are serialized and only append to the array.
+ * <p>
+ * Hub objects are addressed by their content identifier (see {@link DataCid}), so that writing the same hub object
+ * several times only stores it once.
  */
 public class IdentityHubInMemoryStore implements IdentityHubStore {
 
-    // Using a Map because concurrent hashset does not exist
-    private final Map<Object, Boolean> hubObjects = new ConcurrentHashMap<>();
+    // Position of the hub objects by content identifier, to discard duplicates and look up hub objects
+    private final Map<String, Integer> positionsByCid = new ConcurrentHashMap<>();
+    // Keeps insertion order, so that cursors remain valid while new hub objects are added
+    private final AppendOnlyList<byte[]> orderedHubObjects = new AppendOnlyList<>();
+    private final HubObjectIndex index = new HubObjectIndex();
+    // Random initial version, so that a restarted store does not reuse the versions of its previous hub objects
+    private final long initialVersion = UUID.randomUUID().getMostSignificantBits();
+
+    @Override
+    public Collection<byte[]> getAll() {
+        return orderedHubObjects.snapshot();
+    }
+
+    @Override
+    public synchronized void add(byte[] hubObject, HubObjectMetadata metadata) {
+        var cid = metadata.getCid() != null ? metadata.getCid() : DataCid.of(hubObject);
+        if (positionsByCid.containsKey(cid)) {
+            return;
+        }
+        // Index first, so that the metadata of every hub object of a snapshot is visible to the readers
+        index.add(metadata);
+        var position = orderedHubObjects.add(hubObject);
+        positionsByCid.put(cid, position);
+    }
+
+    @Override
+    public synchronized void addAll(List<HubObject> hubObjects) {
+        var cids = new LinkedHashSet<String>();
+        var added = new ArrayList<byte[]>();
+        for (var hubObject : hubObjects) {
+            var metadata = hubObject.getMetadata();
+            var cid = metadata.getCid() != null ? metadata.getCid() : DataCid.of(hubObject.getData());
+            if (positionsByCid.containsKey(cid) || !cids.add(cid)) {
+                continue;
+            }
+            index.add(metadata);
+            added.add(hubObject.getData());
+        }
+        // Publish all the hub objects in a single snapshot, so that readers never see a part of them only
+        var position = orderedHubObjects.addAll(added);
+        for (var cid : cids) {
+            positionsByCid.put(cid, position++);
+        }
+    }
+
+    @Override
+    public byte[] findByCid(String cid) {
+        var position = positionsByCid.get(cid);
+        return position != null ? orderedHubObjects.snapshot().get(position) : null;
+    }
+
+    @Override
+    public HubObjectPage query(HubObjectQuery query) {
+        return index.query(query, orderedHubObjects.snapshot());
+    }
 
     @Override
-    public Collection<Object> getAll() {
-        return new HashSet<>(hubObjects.keySet());
+    public long version() {
+        return initialVersion + orderedHubObjects.size();
     }
 
     @Override
-    public void add(Object hubObject) {
-        hubObjects.put(hubObject, true);
+    public long count() {
+        return orderedHubObjects.size();
     }
 }
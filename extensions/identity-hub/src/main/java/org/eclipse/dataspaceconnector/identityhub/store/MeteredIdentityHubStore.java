@@ -0,0 +1,105 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.dataspaceconnector.identityhub.store;
+
+import io.opentelemetry.extension.annotations.WithSpan;
+import org.eclipse.dataspaceconnector.identityhub.metrics.MetricsRegistry;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * {@link IdentityHubStore} recording the metrics of another store: number of hub objects, number of hub objects written
+ * (including the duplicates ignored by the store), and duration of the writes and queries.
+ */
+public class MeteredIdentityHubStore implements IdentityHubStore {
+
+    public static final String SIZE_METRIC = "identityhub.store.size";
+    public static final String WRITES_METRIC = "identityhub.store.writes";
+    public static final String OPERATIONS_METRIC = "identityhub.store.operations";
+    private static final Map<String, String> ADD_TAGS = Map.of("operation", "add");
+    private static final Map<String, String> QUERY_TAGS = Map.of("operation", "query");
+
+    private final IdentityHubStore identityHubStore;
+    private final MetricsRegistry metricsRegistry;
+
+    public MeteredIdentityHubStore(IdentityHubStore identityHubStore, MetricsRegistry metricsRegistry) {
+        this.identityHubStore = identityHubStore;
+        this.metricsRegistry = metricsRegistry;
+        metricsRegistry.registerGauge(SIZE_METRIC, Map.of(), identityHubStore::count);
+    }
+
+    @Override
+    public Collection<byte[]> getAll() {
+        return identityHubStore.getAll();
+    }
+
+    @Override
+    @WithSpan
+    public void add(byte[] hubObject, HubObjectMetadata metadata) {
+        timed(ADD_TAGS, () -> {
+            identityHubStore.add(hubObject, metadata);
+            return null;
+        });
+        metricsRegistry.increment(WRITES_METRIC, Map.of(), 1);
+    }
+
+    @Override
+    @WithSpan
+    public void addAll(List<HubObject> hubObjects) {
+        timed(ADD_TAGS, () -> {
+            identityHubStore.addAll(hubObjects);
+            return null;
+        });
+        metricsRegistry.increment(WRITES_METRIC, Map.of(), hubObjects.size());
+    }
+
+    @Override
+    @WithSpan
+    public byte[] findByCid(String cid) {
+        return identityHubStore.findByCid(cid);
+    }
+
+    @Override
+    @WithSpan
+    public HubObjectPage query(HubObjectQuery query) {
+        return timed(QUERY_TAGS, () -> identityHubStore.query(query));
+    }
+
+    @Override
+    public long version() {
+        return identityHubStore.version();
+    }
+
+    @Override
+    public long count() {
+        return identityHubStore.count();
+    }
+
+    /**
+     * Run a store operation, recording its duration whether it succeeds or not.
+     */
+    private <T> T timed(Map<String, String> tags, Supplier<T> operation) {
+        var start = System.nanoTime();
+        try {
+            return operation.get();
+        } finally {
+            metricsRegistry.record(OPERATIONS_METRIC, tags, Duration.ofNanos(System.nanoTime() - start));
+        }
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.dataspaceconnector.identityhub.validation;
+
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.eclipse.dataspaceconnector.identityhub.metrics.MetricsRegistry;
+import org.eclipse.dataspaceconnector.spi.EdcException;
+import org.eclipse.dataspaceconnector.spi.result.Result;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Validation of the Verifiable Credentials written into the Identity Hub, running the enabled
+ * {@link CredentialValidationStage}s in the order of their registration. Validation stops at the first failing stage, so
+ * that the cheap stages registered first spare the costly ones, e.g. the verification of the signature.
+ * <p>
+ * The duration and result of each stage are recorded in the {@link MetricsRegistry}.
+ * <p>
+ * The pipeline fails closed: once the extensions have registered their stages, {@link #checkStages()} fails if an
+ * enabled stage has not been registered, e.g. because of a typo in its name or of a missing extension, and validation
+ * fails until then rather than silently skipping the stage.
+ */
+public class CredentialValidationPipeline implements CredentialValidationRegistry {
+
+    public static final String VALIDATION_METRIC = "identityhub.write.validation";
+
+    /**
+     * Pipeline without any stage, accepting all the Verifiable Credentials.
+     */
+    public static final CredentialValidationPipeline NONE = new CredentialValidationPipeline(Set.of(), MetricsRegistry.NOOP);
+
+    private final Set<String> enabledStages;
+    private final MetricsRegistry metricsRegistry;
+    // Stages are registered by extensions while the runtime boots, and read by the processing threads afterwards
+    private final List<CredentialValidationStage> stages = new CopyOnWriteArrayList<>();
+    private final Set<String> registeredStages = ConcurrentHashMap.newKeySet();
+    private volatile boolean checked;
+
+    /**
+     * Create a pipeline.
+     *
+     * @param enabledStages   names of the stages to run, the other registered stages being ignored.
+     * @param metricsRegistry registry of the metrics of the stages.
+     */
+    public CredentialValidationPipeline(Collection<String> enabledStages, MetricsRegistry metricsRegistry) {
+        this.enabledStages = Set.copyOf(enabledStages);
+        this.metricsRegistry = metricsRegistry;
+    }
+
+    @Override
+    public void register(CredentialValidationStage stage) {
+        if (enabledStages.contains(stage.name())) {
+            registeredStages.add(stage.name());
+            stages.add(stage);
+        }
+    }
+
+    /**
+     * Check that a stage has been registered for each enabled stage name.
+     *
+     * @throws EdcException naming the enabled stages which have not been registered.
+     */
+    public void checkStages() {
+        if (checked) {
+            return;
+        }
+        var missing = new TreeSet<>(enabledStages);
+        missing.removeAll(registeredStages);
+        if (!missing.isEmpty()) {
+            throw new EdcException(String.format("Unknown or unregistered credential validation stages: %s", String.join(", ", missing)));
+        }
+        checked = true;
+    }
+
+    /**
+     * Validate a Verifiable Credential with all the enabled stages.
+     *
+     * @param jwt    the Verifiable Credential in JWT format.
+     * @param claims the claims of the JWT, already parsed.
+     * @return success if all the stages succeeded, or the failure of the first failing stage.
+     * @throws EdcException if an enabled stage has not been registered, see {@link #checkStages()}.
+     */
+    public Result<Void> validate(SignedJWT jwt, JWTClaimsSet claims) {
+        checkStages();
+        for (var stage : stages) {
+            var start = System.nanoTime();
+            var result = validate(stage, jwt, claims);
+            var tags = Map.of("stage", stage.name(), "result", result.succeeded() ? "success" : "failure");
+            metricsRegistry.record(VALIDATION_METRIC, tags, Duration.ofNanos(System.nanoTime() - start));
+            if (result.failed()) {
+                return result;
+            }
+        }
+        return Result.success();
+    }
+
+    /**
+     * Run a stage, an exception rejecting the Verifiable Credential rather than failing the whole request.
+     */
+    private static Result<Void> validate(CredentialValidationStage stage, SignedJWT jwt, JWTClaimsSet claims) {
+        try {
+            return stage.validate(jwt, claims);
+        } catch (RuntimeException e) {
+            return Result.failure(String.format("Validation stage %s failed: %s", stage.name(), e.getMessage()));
+        }
+    }
+}
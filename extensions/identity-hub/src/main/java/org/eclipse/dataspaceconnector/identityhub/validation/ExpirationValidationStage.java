@@ -0,0 +1,53 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.dataspaceconnector.identityhub.validation;
+
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.eclipse.dataspaceconnector.spi.result.Result;
+
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Rejects the expired Verifiable Credentials, which the consumers would reject anyway. The same clock skew is tolerated
+ * as when verifying the claims of the credentials.
+ */
+public class ExpirationValidationStage implements CredentialValidationStage {
+
+    public static final String NAME = "expiration";
+    // Default clock skew of the claims verification of the consumers
+    private static final Duration MAX_CLOCK_SKEW = Duration.ofSeconds(60);
+
+    private final Clock clock;
+
+    public ExpirationValidationStage(Clock clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public Result<Void> validate(SignedJWT jwt, JWTClaimsSet claims) {
+        var expirationTime = claims.getExpirationTime();
+        if (expirationTime != null && expirationTime.toInstant().plus(MAX_CLOCK_SKEW).isBefore(clock.instant())) {
+            return Result.failure(String.format("Expired at %s", expirationTime.toInstant()));
+        }
+        return Result.success();
+    }
+}
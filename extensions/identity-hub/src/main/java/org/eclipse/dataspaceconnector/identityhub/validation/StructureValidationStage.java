@@ -0,0 +1,63 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.dataspaceconnector.identityhub.validation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.eclipse.dataspaceconnector.identityhub.credentials.model.VerifiableCredential;
+import org.eclipse.dataspaceconnector.spi.result.Result;
+
+/**
+ * Validates the structure of the Verifiable Credentials: the JWT must have an issuer and a subject, which the consumers
+ * verify, and its "vc" claim must be a valid {@link VerifiableCredential}, as expected when extracting it.
+ */
+public class StructureValidationStage implements CredentialValidationStage {
+
+    public static final String NAME = "structure";
+    private static final String VERIFIABLE_CREDENTIALS_KEY = "vc";
+
+    private final ObjectMapper objectMapper;
+
+    public StructureValidationStage(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public Result<Void> validate(SignedJWT jwt, JWTClaimsSet claims) {
+        if (claims.getIssuer() == null) {
+            return Result.failure("Missing issuer");
+        }
+        if (claims.getSubject() == null) {
+            return Result.failure("Missing subject");
+        }
+
+        var verifiableCredential = claims.getClaim(VERIFIABLE_CREDENTIALS_KEY);
+        if (verifiableCredential == null) {
+            return Result.failure(String.format("Missing %s claim", VERIFIABLE_CREDENTIALS_KEY));
+        }
+        try {
+            objectMapper.convertValue(verifiableCredential, VerifiableCredential.class);
+        } catch (IllegalArgumentException e) {
+            return Result.failure(String.format("Invalid %s claim: %s", VERIFIABLE_CREDENTIALS_KEY, e.getMessage()));
+        }
+        return Result.success();
+    }
+}
@@ -14,17 +14,21 @@
 
 package org.eclipse.dataspaceconnector.identityhub.api;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.javafaker.Faker;
 import com.nimbusds.jwt.SignedJWT;
 import io.restassured.specification.RequestSpecification;
 import org.eclipse.dataspaceconnector.identityhub.model.Descriptor;
 import org.eclipse.dataspaceconnector.identityhub.model.MessageRequestObject;
 import org.eclipse.dataspaceconnector.identityhub.model.RequestObject;
+import org.eclipse.dataspaceconnector.identityhub.model.RequestStatus;
+import org.eclipse.dataspaceconnector.identityhub.model.ResponseObject;
 import org.eclipse.dataspaceconnector.junit.extensions.EdcExtension;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 
+import java.util.ArrayList;
 import java.util.Base64;
 import java.util.List;
 import java.util.Map;
@@ -44,6 +48,7 @@ import static org.eclipse.dataspaceconnector.junit.testfixtures.TestUtils.getFre
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
 
 @ExtendWith(EdcExtension.class)
 class IdentityHubControllerTest {
@@ -78,6 +83,65 @@ class IdentityHubControllerTest {
         assertThat(credentials).usingRecursiveFieldByFieldElementComparator().containsExactly(jwt.serialize().getBytes(UTF_8));
     }
 
+    @Test
+    void writeSeveralObjectsAndQueryInSameRequest() {
+        // Arrange
+        var jwts = List.of(
+                buildSignedJwt(generateVerifiableCredential(), FAKER.internet().url(), FAKER.internet().url(), generateEcKey()),
+                buildSignedJwt(generateVerifiableCredential(), FAKER.internet().url(), FAKER.internet().url(), generateEcKey()));
+        var messages = jwts.stream()
+                .map(jwt -> message(COLLECTIONS_WRITE.getName(), jwt.serialize().getBytes(UTF_8)))
+                .collect(Collectors.toCollection(ArrayList::new));
+        messages.add(message(COLLECTIONS_QUERY.getName(), null));
+
+        // Act
+        var response = baseRequest()
+                .body(RequestObject.Builder.newInstance().requestId(REQUEST_ID).target(TARGET).messages(messages).build())
+                .post()
+                .then()
+                .statusCode(200)
+                .body("replies", hasSize(3))
+                .body("replies[0].status.code", equalTo(200))
+                .body("replies[1].status.code", equalTo(200))
+                .body("replies[2].status.code", equalTo(200))
+                .extract().body().jsonPath();
+
+        // Assert
+        var credentials = response.getList("replies[2].entries", String.class).stream()
+                .map(s -> Base64.getDecoder().decode(s))
+                .collect(Collectors.toList());
+        assertThat(credentials).containsExactlyElementsOf(jwts.stream().map(jwt -> jwt.serialize().getBytes(UTF_8)).collect(Collectors.toList()));
+    }
+
+    @Test
+    void streamedResponseDeserializesAsResponseObject() throws Exception {
+        // Arrange
+        var jwt = buildSignedJwt(generateVerifiableCredential(), FAKER.internet().url(), FAKER.internet().url(), generateEcKey());
+        var messages = List.of(
+                message(COLLECTIONS_WRITE.getName(), jwt.serialize().getBytes(UTF_8)),
+                message(COLLECTIONS_QUERY.getName(), null),
+                message(FEATURE_DETECTION_READ.getName(), null));
+
+        // Act
+        var body = baseRequest()
+                .body(RequestObject.Builder.newInstance().requestId(REQUEST_ID).target(TARGET).messages(messages).build())
+                .post()
+                .then()
+                .statusCode(200)
+                .extract().body().asString();
+
+        // Assert
+        var responseObject = new ObjectMapper().readValue(body, ResponseObject.class);
+        assertThat(responseObject.getRequestId()).isEqualTo(REQUEST_ID);
+        assertThat(responseObject.getStatus().getCode()).isEqualTo(RequestStatus.OK.getCode());
+        assertThat(responseObject.getReplies()).hasSize(3)
+                .extracting(reply -> reply.getStatus().getCode())
+                .containsExactly(200, 200, 200);
+        var entries = new ArrayList<>(responseObject.getReplies()).get(1).getEntries();
+        assertThat(entries).hasSize(1);
+        assertThat(Base64.getDecoder().decode((String) entries.iterator().next())).isEqualTo(jwt.serialize().getBytes(UTF_8));
+    }
+
     @Test
     void detectFeatures() {
         baseRequest()
@@ -131,6 +195,59 @@ class IdentityHubControllerTest {
                 .body("selfDescriptionCredential.credentialSubject.gx-participant:headquarterAddress.gx-participant:country.@value", equalTo("FR"));
     }
 
+    @Test
+    void getSelfDescription_notModified() {
+        // Arrange
+        var etag = given()
+                .baseUri(API_URL)
+                .basePath(BASE_PATH)
+                .get("/self-description")
+                .then()
+                .statusCode(200)
+                .extract()
+                .header("ETag");
+
+        // Act & Assert
+        given()
+                .baseUri(API_URL)
+                .basePath(BASE_PATH)
+                .header("If-None-Match", etag)
+                .get("/self-description")
+                .then()
+                .assertThat()
+                .statusCode(304)
+                .header("ETag", etag);
+    }
+
+    @Test
+    void getSelfDescription_gzip() {
+        given()
+                .baseUri(API_URL)
+                .basePath(BASE_PATH)
+                .header("Accept-Encoding", "gzip")
+                .get("/self-description")
+                .then()
+                .assertThat()
+                .statusCode(200)
+                .header("Content-Encoding", "gzip")
+                .header("Vary", "Accept-Encoding")
+                .body("selfDescriptionCredential.credentialSubject.gx-participant:headquarterAddress.gx-participant:country.@value", equalTo("FR"));
+    }
+
+    @Test
+    void getSelfDescription_identity() {
+        given()
+                .baseUri(API_URL)
+                .basePath(BASE_PATH)
+                .header("Accept-Encoding", "identity")
+                .get("/self-description")
+                .then()
+                .assertThat()
+                .statusCode(200)
+                .header("Content-Encoding", nullValue())
+                .body("selfDescriptionCredential.credentialSubject.gx-participant:headquarterAddress.gx-participant:country.@value", equalTo("FR"));
+    }
+
     private RequestSpecification baseRequest() {
         return given()
                 .baseUri(API_URL)
@@ -147,14 +264,17 @@ class IdentityHubControllerTest {
         return RequestObject.Builder.newInstance()
                 .requestId(REQUEST_ID)
                 .target(TARGET)
-                .messages(List.of(
-                        MessageRequestObject.Builder.newInstance()
-                                .descriptor(Descriptor.Builder.newInstance()
-                                        .method(method)
-                                        .nonce(NONCE)
-                                        .build())
-                                .data(data)
-                                .build()))
+                .messages(List.of(message(method, data)))
+                .build();
+    }
+
+    private MessageRequestObject message(String method, byte[] data) {
+        return MessageRequestObject.Builder.newInstance()
+                .descriptor(Descriptor.Builder.newInstance()
+                        .method(method)
+                        .nonce(NONCE)
+                        .build())
+                .data(data)
                 .build();
     }
 
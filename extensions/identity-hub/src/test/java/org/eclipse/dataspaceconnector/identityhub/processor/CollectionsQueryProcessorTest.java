@@ -0,0 +1,274 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.dataspaceconnector.identityhub.processor;
+
+import com.github.javafaker.Faker;
+import org.eclipse.dataspaceconnector.identityhub.model.CollectionsQueryFilter;
+import org.eclipse.dataspaceconnector.identityhub.model.Descriptor;
+import org.eclipse.dataspaceconnector.identityhub.model.MessageRequestObject;
+import org.eclipse.dataspaceconnector.identityhub.model.MessageResponseObject;
+import org.eclipse.dataspaceconnector.identityhub.model.MessageStatus;
+import org.eclipse.dataspaceconnector.identityhub.store.HubObjectMetadata;
+import org.eclipse.dataspaceconnector.identityhub.store.IdentityHubInMemoryStore;
+import org.eclipse.dataspaceconnector.identityhub.store.IdentityHubStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.eclipse.dataspaceconnector.identityhub.model.WebNodeInterfaceMethod.COLLECTIONS_QUERY;
+
+class CollectionsQueryProcessorTest {
+
+    private static final Faker FAKER = new Faker();
+    private static final int MAX_PAGE_SIZE = 5;
+
+    private IdentityHubStore identityHubStore;
+    private CollectionsQueryProcessor queryProcessor;
+
+    @BeforeEach
+    void setUp() {
+        identityHubStore = new IdentityHubInMemoryStore();
+        queryProcessor = new CollectionsQueryProcessor(identityHubStore, MAX_PAGE_SIZE);
+    }
+
+    @Test
+    void queryAllPages() {
+        // Arrange
+        var hubObjects = addHubObjects(12);
+        var entries = new ArrayList<Object>();
+        String cursor = null;
+        var pages = 0;
+
+        // Act
+        do {
+            var result = queryProcessor.process(queryMessage(cursor, null));
+            assertThat(result.getStatus()).isEqualTo(MessageStatus.OK);
+            assertThat(result.getEntries()).hasSizeLessThanOrEqualTo(MAX_PAGE_SIZE);
+            entries.addAll(result.getEntries());
+            cursor = result.getCursor();
+            pages++;
+        } while (cursor != null);
+
+        // Assert
+        assertThat(pages).isEqualTo(3);
+        assertThat(entries).containsExactlyElementsOf(hubObjects);
+    }
+
+    @Test
+    void queryWithLimit() {
+        // Arrange
+        var hubObjects = addHubObjects(4);
+
+        // Act
+        var result = queryProcessor.process(queryMessage(null, 3));
+
+        // Assert
+        assertThat(result.getStatus()).isEqualTo(MessageStatus.OK);
+        assertThat(entries(result)).containsExactlyElementsOf(hubObjects.subList(0, 3));
+        assertThat(result.getCursor()).isNotNull();
+    }
+
+    @Test
+    void queryWithLimitAboveMaxPageSize() {
+        // Arrange
+        addHubObjects(MAX_PAGE_SIZE + 1);
+
+        // Act
+        var result = queryProcessor.process(queryMessage(null, MAX_PAGE_SIZE + 1));
+
+        // Assert
+        assertThat(result.getEntries()).hasSize(MAX_PAGE_SIZE);
+        assertThat(result.getCursor()).isNotNull();
+    }
+
+    @Test
+    void queryWithFilter() {
+        // Arrange
+        var issuer = FAKER.internet().url();
+        addHubObjects(3);
+        var hubObject = FAKER.internet().uuid().getBytes(UTF_8);
+        identityHubStore.add(hubObject, HubObjectMetadata.Builder.newInstance().issuer(issuer).build());
+        var filter = CollectionsQueryFilter.Builder.newInstance().issuer(issuer).build();
+
+        // Act
+        var result = queryProcessor.process(queryMessage(null, null, filter));
+
+        // Assert
+        assertThat(result.getStatus()).isEqualTo(MessageStatus.OK);
+        assertThat(entries(result)).containsExactly(hubObject);
+        assertThat(result.getCursor()).isNull();
+    }
+
+    @Test
+    void queryWithoutDescriptor() {
+        // Arrange
+        var hubObjects = addHubObjects(2);
+
+        // Act
+        var result = queryProcessor.process((byte[]) null);
+
+        // Assert
+        assertThat(result.getStatus()).isEqualTo(MessageStatus.OK);
+        assertThat(entries(result)).containsExactlyElementsOf(hubObjects);
+        assertThat(result.getCursor()).isNull();
+    }
+
+    @Test
+    void queryWithInvalidCursor() {
+        // Act
+        var result = queryProcessor.process(queryMessage(FAKER.lorem().word(), null));
+
+        // Assert
+        assertThat(result.getStatus()).isEqualTo(MessageStatus.MALFORMED_MESSAGE);
+    }
+
+    @Test
+    void queryWithInvalidLimit() {
+        // Act
+        var result = queryProcessor.process(queryMessage(null, 0));
+
+        // Assert
+        assertThat(result.getStatus()).isEqualTo(MessageStatus.MALFORMED_MESSAGE);
+    }
+
+    @Test
+    void queryWithUnchangedEtag() {
+        // Arrange
+        addHubObjects(3);
+        var etag = queryProcessor.process(queryMessage(null, null)).getEtag();
+
+        // Act
+        var result = queryProcessor.process(conditionalQueryMessage(etag));
+
+        // Assert
+        assertThat(result.getStatus()).isEqualTo(MessageStatus.NOT_MODIFIED);
+        assertThat(result.getEntries()).isEmpty();
+        assertThat(result.getEtag()).isEqualTo(etag);
+    }
+
+    @Test
+    void queryWithChangedEtag() {
+        // Arrange
+        var hubObjects = addHubObjects(3);
+        var etag = queryProcessor.process(queryMessage(null, null)).getEtag();
+        hubObjects.addAll(addHubObjects(1));
+
+        // Act
+        var result = queryProcessor.process(conditionalQueryMessage(etag));
+
+        // Assert
+        assertThat(result.getStatus()).isEqualTo(MessageStatus.OK);
+        assertThat(entries(result)).containsExactlyElementsOf(hubObjects);
+        assertThat(result.getEtag()).isNotNull().isNotEqualTo(etag);
+    }
+
+    @Test
+    void queryWithEtagOfOtherFilter() {
+        // Arrange
+        var issuer = FAKER.internet().url();
+        addHubObjects(3);
+        var hubObject = FAKER.internet().uuid().getBytes(UTF_8);
+        identityHubStore.add(hubObject, HubObjectMetadata.Builder.newInstance().issuer(issuer).build());
+        var etag = queryProcessor.process(queryMessage(null, null)).getEtag();
+        var filter = CollectionsQueryFilter.Builder.newInstance().issuer(issuer).build();
+
+        // Act
+        var result = queryProcessor.process(conditionalQueryMessage(etag, null, null, filter));
+
+        // Assert
+        assertThat(result.getStatus()).isEqualTo(MessageStatus.OK);
+        assertThat(entries(result)).containsExactly(hubObject);
+        assertThat(result.getEtag()).isNotNull().isNotEqualTo(etag);
+    }
+
+    @Test
+    void queryWithEtagOfOtherLimit() {
+        // Arrange
+        var hubObjects = addHubObjects(3);
+        var etag = queryProcessor.process(queryMessage(null, null)).getEtag();
+
+        // Act
+        var result = queryProcessor.process(conditionalQueryMessage(etag, null, 2, null));
+
+        // Assert
+        assertThat(result.getStatus()).isEqualTo(MessageStatus.OK);
+        assertThat(entries(result)).containsExactlyElementsOf(hubObjects.subList(0, 2));
+    }
+
+    @Test
+    void queryWithEtagOfOtherPage() {
+        // Arrange
+        var hubObjects = addHubObjects(3);
+        var firstPage = queryProcessor.process(queryMessage(null, 2));
+
+        // Act
+        var result = queryProcessor.process(conditionalQueryMessage(firstPage.getEtag(), firstPage.getCursor(), 2, null));
+
+        // Assert
+        assertThat(result.getStatus()).isEqualTo(MessageStatus.OK);
+        assertThat(entries(result)).containsExactlyElementsOf(hubObjects.subList(2, 3));
+    }
+
+    private List<byte[]> addHubObjects(int count) {
+        var hubObjects = IntStream.range(0, count)
+                .mapToObj(i -> FAKER.internet().uuid().getBytes(UTF_8))
+                .collect(Collectors.toList());
+        hubObjects.forEach(identityHubStore::add);
+        return hubObjects;
+    }
+
+    private static List<Object> entries(MessageResponseObject result) {
+        return new ArrayList<>(result.getEntries());
+    }
+
+    private MessageRequestObject queryMessage(String cursor, Integer limit) {
+        return queryMessage(cursor, limit, null);
+    }
+
+    private MessageRequestObject conditionalQueryMessage(String ifNoneMatch) {
+        return conditionalQueryMessage(ifNoneMatch, null, null, null);
+    }
+
+    private MessageRequestObject conditionalQueryMessage(String ifNoneMatch, String cursor, Integer limit, CollectionsQueryFilter filter) {
+        return MessageRequestObject.Builder.newInstance()
+                .descriptor(Descriptor.Builder.newInstance()
+                        .method(COLLECTIONS_QUERY.getName())
+                        .nonce(FAKER.lorem().characters(32))
+                        .ifNoneMatch(ifNoneMatch)
+                        .cursor(cursor)
+                        .limit(limit)
+                        .filter(filter)
+                        .build())
+                .build();
+    }
+
+    private MessageRequestObject queryMessage(String cursor, Integer limit, CollectionsQueryFilter filter) {
+        return MessageRequestObject.Builder.newInstance()
+                .descriptor(Descriptor.Builder.newInstance()
+                        .method(COLLECTIONS_QUERY.getName())
+                        .nonce(FAKER.lorem().characters(32))
+                        .cursor(cursor)
+                        .limit(limit)
+                        .filter(filter)
+                        .build())
+                .build();
+    }
+}
@@ -20,21 +20,43 @@ import com.nimbusds.jose.JWSHeader;
 import com.nimbusds.jose.crypto.ECDSASigner;
 import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.SignedJWT;
+import org.eclipse.dataspaceconnector.identityhub.metrics.MetricsRegistry;
+import org.eclipse.dataspaceconnector.identityhub.model.DataCid;
+import org.eclipse.dataspaceconnector.identityhub.model.Descriptor;
+import org.eclipse.dataspaceconnector.identityhub.model.MessageRequestObject;
 import org.eclipse.dataspaceconnector.identityhub.model.MessageResponseObject;
 import org.eclipse.dataspaceconnector.identityhub.model.MessageStatus;
+import org.eclipse.dataspaceconnector.identityhub.store.HubObjectMetadata;
+import org.eclipse.dataspaceconnector.identityhub.store.HubObjectQuery;
 import org.eclipse.dataspaceconnector.identityhub.store.IdentityHubInMemoryStore;
 import org.eclipse.dataspaceconnector.identityhub.store.IdentityHubStore;
+import org.eclipse.dataspaceconnector.identityhub.validation.CredentialValidationPipeline;
+import org.eclipse.dataspaceconnector.identityhub.validation.ExpirationValidationStage;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 
 import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.eclipse.dataspaceconnector.identityhub.junit.testfixtures.VerifiableCredentialTestUtil.buildSignedJwt;
 import static org.eclipse.dataspaceconnector.identityhub.junit.testfixtures.VerifiableCredentialTestUtil.generateEcKey;
 import static org.eclipse.dataspaceconnector.identityhub.junit.testfixtures.VerifiableCredentialTestUtil.generateVerifiableCredential;
 import static org.eclipse.dataspaceconnector.identityhub.model.MessageResponseObject.MESSAGE_ID_VALUE;
+import static org.eclipse.dataspaceconnector.identityhub.model.WebNodeInterfaceMethod.COLLECTIONS_WRITE;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
 
 
 public class CollectionsWriteProcessorTest {
@@ -68,6 +90,141 @@ public class CollectionsWriteProcessorTest {
         assertThat(identityHubStore.getAll()).usingRecursiveFieldByFieldElementComparator().containsExactly(data);
     }
 
+    @Test
+    void writeCredentialsIndexesIssuerAndSubject() {
+        // Arrange
+        var issuer = FAKER.internet().url();
+        var subject = FAKER.internet().url();
+        var data = buildSignedJwt(generateVerifiableCredential(), issuer, subject, generateEcKey()).serialize().getBytes(StandardCharsets.UTF_8);
+        var other = buildSignedJwt(generateVerifiableCredential(), FAKER.internet().url(), subject, generateEcKey()).serialize().getBytes(StandardCharsets.UTF_8);
+
+        // Act
+        writeProcessor.process(data);
+        writeProcessor.process(other);
+
+        // Assert
+        var page = identityHubStore.query(HubObjectQuery.Builder.newInstance().issuer(issuer).subject(subject).limit(10).build());
+        assertThat(page.getItems()).containsExactly(data);
+    }
+
+    @Test
+    void writeCredentialsStoresClaimsAsMetadata() {
+        // Arrange
+        var store = spy(new IdentityHubInMemoryStore());
+        var processor = new CollectionsWriteProcessor(store);
+        var issuer = FAKER.internet().url();
+        var subject = FAKER.internet().url();
+        var expiration = Instant.now().plus(1, ChronoUnit.DAYS).truncatedTo(ChronoUnit.SECONDS);
+        var claims = new JWTClaimsSet.Builder()
+                .claim("vc", Map.of("type", List.of("VerifiableCredential", "RegionCredential")))
+                .issuer(issuer)
+                .subject(subject)
+                .expirationTime(Date.from(expiration))
+                .build();
+        var data = buildSignedJwt(claims, generateEcKey()).serialize().getBytes(StandardCharsets.UTF_8);
+        var metadata = ArgumentCaptor.forClass(HubObjectMetadata.class);
+
+        // Act
+        processor.process(data);
+
+        // Assert
+        verify(store).add(eq(data), metadata.capture());
+        assertThat(metadata.getValue().getIssuer()).isEqualTo(issuer);
+        assertThat(metadata.getValue().getSubject()).isEqualTo(subject);
+        assertThat(metadata.getValue().getExpiration()).isEqualTo(expiration);
+        assertThat(metadata.getValue().getTypes()).containsExactly("VerifiableCredential", "RegionCredential");
+    }
+
+    @Test
+    void writeCredentialsRejectedByValidation() {
+        // Arrange
+        var pipeline = new CredentialValidationPipeline(List.of(ExpirationValidationStage.NAME), MetricsRegistry.NOOP);
+        pipeline.register(new ExpirationValidationStage(Clock.systemUTC()));
+        var processor = new CollectionsWriteProcessor(identityHubStore, pipeline);
+        var claims = new JWTClaimsSet.Builder()
+                .claim("vc", generateVerifiableCredential())
+                .issuer(FAKER.internet().url())
+                .subject(FAKER.internet().url())
+                .expirationTime(Date.from(Instant.now().minus(1, ChronoUnit.DAYS)))
+                .build();
+        var expired = buildSignedJwt(claims, generateEcKey()).serialize().getBytes(StandardCharsets.UTF_8);
+        var valid = buildSignedJwt(generateVerifiableCredential(), FAKER.internet().url(), FAKER.internet().url(), generateEcKey()).serialize().getBytes(StandardCharsets.UTF_8);
+
+        // Act
+        var results = processor.processAll(List.of(writeMessage(expired, null), writeMessage(valid, null)), MessageExecutor.SEQUENTIAL);
+
+        // Assert
+        assertThat(results).extracting(result -> result.getStatus().getCode())
+                .containsExactly(MessageStatus.MALFORMED_MESSAGE.getCode(), MessageStatus.OK.getCode());
+        assertThat(results.get(0).getStatus().getDetail()).startsWith("Invalid Verifiable Credential: Expired at");
+        assertThat(identityHubStore.getAll()).containsExactly(valid);
+    }
+
+    @Test
+    void writeSameCredentialsTwice() {
+        // Arrange
+        var data = buildSignedJwt(generateVerifiableCredential(), FAKER.internet().url(), FAKER.internet().url(), generateEcKey()).serialize().getBytes(StandardCharsets.UTF_8);
+
+        // Act
+        writeProcessor.process(data);
+        var result = writeProcessor.process(data.clone());
+
+        // Assert
+        assertThat(result.getStatus()).isEqualTo(MessageStatus.OK);
+        assertThat(identityHubStore.getAll()).hasSize(1);
+        assertThat(identityHubStore.findByCid(DataCid.of(data))).isEqualTo(data);
+    }
+
+    @Test
+    void writeCredentialsWithDataCid() {
+        // Arrange
+        var data = buildSignedJwt(generateVerifiableCredential(), FAKER.internet().url(), FAKER.internet().url(), generateEcKey()).serialize().getBytes(StandardCharsets.UTF_8);
+
+        // Act
+        var result = writeProcessor.process(writeMessage(data, DataCid.of(data)));
+
+        // Assert
+        assertThat(result.getStatus()).isEqualTo(MessageStatus.OK);
+        assertThat(identityHubStore.getAll()).containsExactly(data);
+    }
+
+    @Test
+    void writeCredentialsWithWrongDataCid() {
+        // Arrange
+        var data = buildSignedJwt(generateVerifiableCredential(), FAKER.internet().url(), FAKER.internet().url(), generateEcKey()).serialize().getBytes(StandardCharsets.UTF_8);
+        var otherCid = DataCid.of(FAKER.lorem().sentence().getBytes(StandardCharsets.UTF_8));
+
+        // Act
+        var result = writeProcessor.process(writeMessage(data, otherCid));
+
+        // Assert
+        assertThat(result.getStatus()).isEqualTo(MessageStatus.MALFORMED_MESSAGE);
+        assertThat(identityHubStore.getAll()).isEmpty();
+    }
+
+    @Test
+    void processAllStoresValidCredentialsInSingleCommit() {
+        // Arrange
+        var store = spy(new IdentityHubInMemoryStore());
+        var processor = new CollectionsWriteProcessor(store);
+        var first = buildSignedJwt(generateVerifiableCredential(), FAKER.internet().url(), FAKER.internet().url(), generateEcKey()).serialize().getBytes(StandardCharsets.UTF_8);
+        var second = buildSignedJwt(generateVerifiableCredential(), FAKER.internet().url(), FAKER.internet().url(), generateEcKey()).serialize().getBytes(StandardCharsets.UTF_8);
+        var messages = List.of(
+                writeMessage(first, DataCid.of(first)),
+                writeMessage("invalid base64".getBytes(StandardCharsets.UTF_8), null),
+                writeMessage(second, null));
+
+        // Act
+        var results = processor.processAll(messages, MessageExecutor.SEQUENTIAL);
+
+        // Assert
+        assertThat(results).extracting(MessageResponseObject::getStatus)
+                .containsExactly(MessageStatus.OK, MessageStatus.MALFORMED_MESSAGE, MessageStatus.OK);
+        assertThat(store.getAll()).containsExactly(first, second);
+        verify(store).addAll(anyList());
+        verify(store, never()).add(any(), any());
+    }
+
     @Test
     void writeCredentialsWithWrongJsonFormat() {
         // Arrange
@@ -125,4 +282,15 @@ public class CollectionsWriteProcessorTest {
         var expectedResult = MessageResponseObject.Builder.newInstance().messageId(MESSAGE_ID_VALUE).status(MessageStatus.MALFORMED_MESSAGE).build();
         assertThat(result).usingRecursiveComparison().isEqualTo(expectedResult);
     }
+
+    private MessageRequestObject writeMessage(byte[] data, String dataCid) {
+        return MessageRequestObject.Builder.newInstance()
+                .descriptor(Descriptor.Builder.newInstance()
+                        .method(COLLECTIONS_WRITE.getName())
+                        .nonce(FAKER.lorem().characters(32))
+                        .dataCid(dataCid)
+                        .build())
+                .data(data)
+                .build();
+    }
 }
@@ -0,0 +1,149 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.dataspaceconnector.identityhub.processor;
+
+import com.github.javafaker.Faker;
+import org.eclipse.dataspaceconnector.identityhub.model.Descriptor;
+import org.eclipse.dataspaceconnector.identityhub.model.MessageRequestObject;
+import org.eclipse.dataspaceconnector.identityhub.model.MessageResponseObject;
+import org.eclipse.dataspaceconnector.identityhub.model.MessageStatus;
+import org.eclipse.dataspaceconnector.identityhub.model.WebNodeInterfaceMethod;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.eclipse.dataspaceconnector.identityhub.model.WebNodeInterfaceMethod.COLLECTIONS_QUERY;
+import static org.eclipse.dataspaceconnector.identityhub.model.WebNodeInterfaceMethod.COLLECTIONS_WRITE;
+
+class ParallelMessageExecutorTest {
+
+    private static final Faker FAKER = new Faker();
+    private static final int MAX_CONCURRENCY = 3;
+
+    private ExecutorService executorService;
+    private ParallelMessageExecutor messageExecutor;
+
+    @BeforeEach
+    void setUp() {
+        executorService = Executors.newFixedThreadPool(8);
+        messageExecutor = new ParallelMessageExecutor(executorService, MAX_CONCURRENCY);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    void repliesKeepMessageOrder() {
+        // Arrange
+        var messages = IntStream.range(0, 20).mapToObj(i -> message(COLLECTIONS_WRITE)).collect(Collectors.toList());
+
+        // Act
+        var replies = messageExecutor.execute(messages, message -> {
+            sleep(FAKER.number().numberBetween(0, 10));
+            return reply(message);
+        });
+
+        // Assert
+        assertThat(replies).extracting(MessageResponseObject::getMessageId)
+                .containsExactlyElementsOf(messages.stream().map(ParallelMessageExecutorTest::nonce).collect(Collectors.toList()));
+    }
+
+    @Test
+    void concurrencyIsCappedPerRequest() {
+        // Arrange
+        var messages = IntStream.range(0, 20).mapToObj(i -> message(COLLECTIONS_WRITE)).collect(Collectors.toList());
+        var running = new AtomicInteger();
+        var maxRunning = new AtomicInteger();
+
+        // Act
+        messageExecutor.execute(messages, message -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            sleep(5);
+            running.decrementAndGet();
+            return reply(message);
+        });
+
+        // Assert
+        assertThat(maxRunning.get()).isGreaterThan(1).isLessThanOrEqualTo(MAX_CONCURRENCY);
+    }
+
+    @Test
+    void nullResultsAreKept() {
+        // Arrange
+        var single = List.of(message(COLLECTIONS_WRITE));
+        var several = List.of(message(COLLECTIONS_WRITE), message(COLLECTIONS_WRITE));
+
+        // Act
+        var singleResults = messageExecutor.execute(single, message -> null);
+        var severalResults = messageExecutor.execute(several, message -> null);
+
+        // Assert
+        assertThat(singleResults).containsExactly((Object) null);
+        assertThat(severalResults).containsExactly(null, null);
+    }
+
+    @Test
+    void processorFailureIsPropagated() {
+        // Arrange
+        var messages = IntStream.range(0, 4).mapToObj(i -> message(COLLECTIONS_QUERY)).collect(Collectors.toList());
+        var errorMessage = FAKER.lorem().sentence();
+
+        // Act & Assert
+        assertThatIllegalStateException()
+                .isThrownBy(() -> messageExecutor.execute(messages, message -> {
+                    throw new IllegalStateException(errorMessage);
+                }))
+                .withMessage(errorMessage);
+    }
+
+    private static MessageRequestObject message(WebNodeInterfaceMethod method) {
+        return MessageRequestObject.Builder.newInstance()
+                .descriptor(Descriptor.Builder.newInstance()
+                        .method(method.getName())
+                        .nonce(FAKER.internet().uuid())
+                        .build())
+                .build();
+    }
+
+    private static String nonce(MessageRequestObject message) {
+        return message.getDescriptor().getNonce();
+    }
+
+    /**
+     * Reply identified by the nonce of the message, to check the order of the replies.
+     */
+    private static MessageResponseObject reply(MessageRequestObject message) {
+        return MessageResponseObject.Builder.newInstance().messageId(nonce(message)).status(MessageStatus.OK).build();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.dataspaceconnector.identityhub.selfdescription;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SelfDescriptionTest {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    @Test
+    void of() throws IOException {
+        // Arrange
+        var document = OBJECT_MAPPER.readTree("{\"name\": \"participant\"}");
+
+        // Act
+        var selfDescription = SelfDescription.of(document, OBJECT_MAPPER);
+
+        // Assert
+        assertThat(OBJECT_MAPPER.readTree(selfDescription.getContent())).isEqualTo(document);
+        try (var gzip = new GZIPInputStream(new ByteArrayInputStream(selfDescription.getGzipContent()))) {
+            assertThat(gzip.readAllBytes()).isEqualTo(selfDescription.getContent());
+        }
+        assertThat(selfDescription.getEtag()).isNotBlank().isNotEqualTo(selfDescription.getGzipEtag());
+    }
+
+    @Test
+    void of_etagDependsOnContent() throws IOException {
+        // Arrange
+        var document = OBJECT_MAPPER.readTree("{\"name\": \"participant\"}");
+        var otherDocument = OBJECT_MAPPER.readTree("{\"name\": \"other-participant\"}");
+
+        // Act
+        var selfDescription = SelfDescription.of(document, OBJECT_MAPPER);
+        var sameSelfDescription = SelfDescription.of(document.deepCopy(), OBJECT_MAPPER);
+        var otherSelfDescription = SelfDescription.of(otherDocument, OBJECT_MAPPER);
+
+        // Assert
+        assertThat(sameSelfDescription.getEtag()).isEqualTo(selfDescription.getEtag());
+        assertThat(otherSelfDescription.getEtag()).isNotEqualTo(selfDescription.getEtag());
+    }
+}
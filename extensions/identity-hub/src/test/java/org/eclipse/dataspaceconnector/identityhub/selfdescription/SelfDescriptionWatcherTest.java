@@ -0,0 +1,83 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.dataspaceconnector.identityhub.selfdescription;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.eclipse.dataspaceconnector.spi.EdcException;
+import org.eclipse.dataspaceconnector.spi.monitor.Monitor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class SelfDescriptionWatcherTest {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final Monitor monitor = mock(Monitor.class);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void reload() throws IOException {
+        // Arrange
+        var path = Files.writeString(directory.resolve("self-description.json"), "{\"name\": \"participant\"}");
+        var watcher = watcher(path);
+        var initialEtag = watcher.get().getEtag();
+        Files.writeString(path, "{\"name\": \"other-participant\"}");
+
+        // Act
+        watcher.reload();
+
+        // Assert
+        assertThat(watcher.get().getEtag()).isNotEqualTo(initialEtag);
+        assertThat(OBJECT_MAPPER.readTree(watcher.get().getContent())).isEqualTo(OBJECT_MAPPER.readTree("{\"name\": \"other-participant\"}"));
+    }
+
+    @Test
+    void reload_keepsPreviousSelfDescriptionIfInvalid() throws IOException {
+        // Arrange
+        var path = Files.writeString(directory.resolve("self-description.json"), "{\"name\": \"participant\"}");
+        var watcher = watcher(path);
+        var initial = watcher.get();
+        Files.writeString(path, "");
+
+        // Act
+        watcher.reload();
+
+        // Assert
+        assertThat(watcher.get()).isSameAs(initial);
+        verify(monitor).warning(anyString(), any(EdcException.class));
+    }
+
+    @Test
+    void create_fileNotFound() {
+        assertThatExceptionOfType(EdcException.class).isThrownBy(() -> watcher(directory.resolve("missing.json")));
+    }
+
+    private SelfDescriptionWatcher watcher(Path path) {
+        return new SelfDescriptionWatcher(path, new SelfDescriptionLoader(OBJECT_MAPPER), OBJECT_MAPPER, monitor);
+    }
+}
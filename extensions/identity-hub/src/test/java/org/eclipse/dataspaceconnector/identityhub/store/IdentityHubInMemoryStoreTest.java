@@ -14,31 +14,260 @@
 
 package org.eclipse.dataspaceconnector.identityhub.store;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.javafaker.Faker;
 import org.eclipse.dataspaceconnector.identityhub.credentials.model.VerifiableCredential;
+import org.eclipse.dataspaceconnector.identityhub.model.DataCid;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
 
 public class IdentityHubInMemoryStoreTest {
     private static final Faker FAKER = new Faker();
+    private static final ObjectMapper MAPPER = new ObjectMapper();
 
     @Test
-    void addAndReadVerifiableCredential() {
+    void addAndReadVerifiableCredential() throws Exception {
         // Arrange
         var store = new IdentityHubInMemoryStore();
         var credentialsCount = FAKER.number().numberBetween(1, 10);
-        var credentials = IntStream.range(0, credentialsCount)
-                .mapToObj(i -> VerifiableCredential.Builder.newInstance().id(FAKER.internet().uuid()).build())
-                .collect(Collectors.toList());
+        var credentials = new ArrayList<byte[]>();
+        for (var i = 0; i < credentialsCount; i++) {
+            credentials.add(MAPPER.writeValueAsBytes(VerifiableCredential.Builder.newInstance().id(FAKER.internet().uuid()).build()));
+        }
 
         // Act
         credentials.forEach(store::add);
 
         // Assert
-        assertThat(store.getAll()).usingRecursiveFieldByFieldElementComparator().containsAll(credentials);
+        assertThat(store.getAll()).containsAll(credentials);
+    }
+
+    @Test
+    void addDuplicateHubObject() {
+        // Arrange
+        var store = new IdentityHubInMemoryStore();
+        var hubObject = hubObject();
+        var duplicate = hubObject.clone();
+
+        // Act
+        store.add(hubObject);
+        store.add(duplicate);
+
+        // Assert
+        assertThat(store.getAll()).hasSize(1);
+    }
+
+    @Test
+    void findByCid() {
+        // Arrange
+        var store = new IdentityHubInMemoryStore();
+        var hubObject = hubObject();
+        store.add(hubObject());
+        store.add(hubObject);
+
+        // Act
+        var found = store.findByCid(DataCid.of(hubObject));
+        var notFound = store.findByCid(DataCid.of(hubObject()));
+
+        // Assert
+        assertThat(found).isEqualTo(hubObject);
+        assertThat(notFound).isNull();
+    }
+
+    @Test
+    void addWithCidInMetadata() {
+        // Arrange
+        var store = new IdentityHubInMemoryStore();
+        var hubObject = hubObject();
+        var cid = DataCid.of(hubObject);
+
+        // Act
+        store.add(hubObject, HubObjectMetadata.Builder.newInstance().cid(cid).build());
+        store.add(hubObject.clone());
+
+        // Assert
+        assertThat(store.getAll()).hasSize(1);
+        assertThat(store.findByCid(cid)).isEqualTo(hubObject);
+    }
+
+    @Test
+    void addAll() {
+        // Arrange
+        var store = new IdentityHubInMemoryStore();
+        var stored = hubObject();
+        store.add(stored);
+        var hubObjects = IntStream.range(0, 20)
+                .mapToObj(i -> hubObject())
+                .collect(Collectors.toList());
+        var batch = new ArrayList<HubObject>();
+        hubObjects.forEach(hubObject -> batch.add(new HubObject(hubObject, HubObjectMetadata.Builder.newInstance().build())));
+        batch.add(new HubObject(stored.clone(), HubObjectMetadata.Builder.newInstance().build()));
+        batch.add(new HubObject(hubObjects.get(0).clone(), HubObjectMetadata.Builder.newInstance().build()));
+
+        // Act
+        store.addAll(batch);
+
+        // Assert
+        var expected = new ArrayList<byte[]>();
+        expected.add(stored);
+        expected.addAll(hubObjects);
+        assertThat(store.getAll()).containsExactlyElementsOf(expected);
+        assertThat(store.count()).isEqualTo(expected.size());
+        assertThat(store.findByCid(DataCid.of(hubObjects.get(19)))).isEqualTo(hubObjects.get(19));
+    }
+
+    @Test
+    void versionChangesWhenHubObjectsAreAdded() {
+        // Arrange
+        var store = new IdentityHubInMemoryStore();
+        var hubObject = hubObject();
+        store.add(hubObject);
+        var version = store.version();
+
+        // Act
+        store.add(hubObject.clone());
+        var sameVersion = store.version();
+        store.add(hubObject());
+
+        // Assert
+        assertThat(sameVersion).isEqualTo(version);
+        assertThat(store.version()).isNotEqualTo(version);
+        assertThat(new IdentityHubInMemoryStore().version()).isNotEqualTo(new IdentityHubInMemoryStore().version());
+    }
+
+    @Test
+    void getAllReturnsSnapshot() {
+        // Arrange
+        var store = new IdentityHubInMemoryStore();
+        var hubObjects = IntStream.range(0, 20)
+                .mapToObj(i -> hubObject())
+                .collect(Collectors.toList());
+        hubObjects.subList(0, 10).forEach(store::add);
+
+        // Act
+        var snapshot = store.getAll();
+        hubObjects.subList(10, 20).forEach(store::add);
+
+        // Assert
+        assertThat(snapshot).containsExactlyElementsOf(hubObjects.subList(0, 10));
+        assertThat(store.getAll()).containsExactlyElementsOf(hubObjects);
+        assertThatExceptionOfType(UnsupportedOperationException.class).isThrownBy(() -> snapshot.add(hubObject()));
+    }
+
+    @Test
+    void concurrentReadsAndWrites() throws Exception {
+        // Arrange
+        var store = new IdentityHubInMemoryStore();
+        var issuer = FAKER.internet().url();
+        var count = 1000;
+        var executor = Executors.newFixedThreadPool(2);
+
+        // Act
+        try {
+            var writer = executor.submit(() -> IntStream.range(0, count)
+                    .forEach(i -> store.add(String.valueOf(i).getBytes(UTF_8), HubObjectMetadata.Builder.newInstance().issuer(issuer).build())));
+            var reader = executor.submit(() -> {
+                while (store.getAll().size() < count) {
+                    var all = store.getAll();
+                    var filtered = store.query(HubObjectQuery.Builder.newInstance().issuer(issuer).limit(count).build()).getItems();
+                    // Each snapshot is a consistent prefix of the added hub objects
+                    assertThat(all).containsExactlyElementsOf(expectedPrefix(all.size()));
+                    assertThat(filtered).containsExactlyElementsOf(expectedPrefix(filtered.size()));
+                }
+            });
+            writer.get(10, TimeUnit.SECONDS);
+            reader.get(10, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Assert
+        assertThat(store.getAll()).containsExactlyElementsOf(expectedPrefix(count));
+    }
+
+    @Test
+    void queryPages() {
+        // Arrange
+        var store = new IdentityHubInMemoryStore();
+        var hubObjects = IntStream.range(0, 5)
+                .mapToObj(i -> hubObject())
+                .collect(Collectors.toList());
+        hubObjects.forEach(store::add);
+
+        // Act
+        var firstPage = store.query(HubObjectQuery.Builder.newInstance().limit(3).build());
+        var secondPage = store.query(HubObjectQuery.Builder.newInstance().cursor(firstPage.getCursor()).limit(3).build());
+
+        // Assert
+        assertThat(firstPage.getItems()).containsExactlyElementsOf(hubObjects.subList(0, 3));
+        assertThat(firstPage.getCursor()).isNotNull();
+        assertThat(secondPage.getItems()).containsExactlyElementsOf(hubObjects.subList(3, 5));
+        assertThat(secondPage.getCursor()).isNull();
+    }
+
+    @Test
+    void queryWithFilter() {
+        // Arrange
+        var store = new IdentityHubInMemoryStore();
+        var issuer = FAKER.internet().url();
+        var type = FAKER.lorem().word();
+        var matching = IntStream.range(0, 4)
+                .mapToObj(i -> hubObject())
+                .collect(Collectors.toList());
+        for (var hubObject : matching) {
+            store.add(hubObject(), HubObjectMetadata.Builder.newInstance().issuer(issuer).build());
+            store.add(hubObject, HubObjectMetadata.Builder.newInstance().issuer(issuer).type(type).build());
+        }
+
+        // Act
+        var firstPage = store.query(HubObjectQuery.Builder.newInstance().issuer(issuer).type(type).limit(3).build());
+        var secondPage = store.query(HubObjectQuery.Builder.newInstance().issuer(issuer).type(type).cursor(firstPage.getCursor()).limit(3).build());
+
+        // Assert
+        assertThat(firstPage.getItems()).containsExactlyElementsOf(matching.subList(0, 3));
+        assertThat(firstPage.getCursor()).isNotNull();
+        assertThat(secondPage.getItems()).containsExactlyElementsOf(matching.subList(3, 4));
+        assertThat(secondPage.getCursor()).isNull();
+    }
+
+    @Test
+    void queryWithUnknownFilterValue() {
+        // Arrange
+        var store = new IdentityHubInMemoryStore();
+        store.add(hubObject(), HubObjectMetadata.Builder.newInstance().subject(FAKER.internet().url()).build());
+
+        // Act
+        var page = store.query(HubObjectQuery.Builder.newInstance().subject(FAKER.internet().url()).limit(10).build());
+
+        // Assert
+        assertThat(page.getItems()).isEmpty();
+        assertThat(page.getCursor()).isNull();
+    }
+
+    @Test
+    void queryWithInvalidCursor() {
+        var store = new IdentityHubInMemoryStore();
+        var query = HubObjectQuery.Builder.newInstance().cursor(FAKER.lorem().word()).limit(1).build();
+
+        assertThatIllegalArgumentException().isThrownBy(() -> store.query(query));
+    }
+
+    private static byte[] hubObject() {
+        return FAKER.internet().uuid().getBytes(UTF_8);
+    }
+
+    private static List<byte[]> expectedPrefix(int size) {
+        return IntStream.range(0, size).mapToObj(i -> String.valueOf(i).getBytes(UTF_8)).collect(Collectors.toList());
     }
 }
@@ -0,0 +1,84 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.dataspaceconnector.identityhub.store;
+
+import com.github.javafaker.Faker;
+import org.eclipse.dataspaceconnector.identityhub.metrics.MetricsRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.eclipse.dataspaceconnector.identityhub.store.MeteredIdentityHubStore.OPERATIONS_METRIC;
+import static org.eclipse.dataspaceconnector.identityhub.store.MeteredIdentityHubStore.SIZE_METRIC;
+import static org.eclipse.dataspaceconnector.identityhub.store.MeteredIdentityHubStore.WRITES_METRIC;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class MeteredIdentityHubStoreTest {
+
+    private static final Faker FAKER = new Faker();
+    private final MetricsRegistry metricsRegistryMock = mock(MetricsRegistry.class);
+    private final IdentityHubStore store = new MeteredIdentityHubStore(new IdentityHubInMemoryStore(), metricsRegistryMock);
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void registerStoreSizeGauge() {
+        // Arrange
+        var gauge = ArgumentCaptor.forClass(Supplier.class);
+        verify(metricsRegistryMock).registerGauge(eq(SIZE_METRIC), eq(Map.of()), gauge.capture());
+
+        // Act
+        store.add(hubObject());
+        store.add(hubObject());
+
+        // Assert
+        assertThat(gauge.getValue().get()).isEqualTo(2L);
+    }
+
+    @Test
+    void recordWrites() {
+        // Act
+        store.add(hubObject());
+        store.addAll(List.of(new HubObject(hubObject(), HubObjectMetadata.Builder.newInstance().build()),
+                new HubObject(hubObject(), HubObjectMetadata.Builder.newInstance().build())));
+
+        // Assert
+        verify(metricsRegistryMock).increment(WRITES_METRIC, Map.of(), 1);
+        verify(metricsRegistryMock).increment(WRITES_METRIC, Map.of(), 2);
+        verify(metricsRegistryMock, times(2)).record(eq(OPERATIONS_METRIC), eq(Map.of("operation", "add")), any(Duration.class));
+    }
+
+    @Test
+    void recordQueries() {
+        // Act
+        store.query(HubObjectQuery.Builder.newInstance().limit(10).build());
+
+        // Assert
+        verify(metricsRegistryMock).record(eq(OPERATIONS_METRIC), eq(Map.of("operation", "query")), any(Duration.class));
+    }
+
+    private static byte[] hubObject() {
+        return FAKER.internet().uuid().getBytes(UTF_8);
+    }
+}
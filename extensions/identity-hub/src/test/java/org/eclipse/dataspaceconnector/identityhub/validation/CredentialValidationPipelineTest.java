@@ -0,0 +1,148 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.dataspaceconnector.identityhub.validation;
+
+import com.github.javafaker.Faker;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.eclipse.dataspaceconnector.identityhub.metrics.MetricsRegistry;
+import org.eclipse.dataspaceconnector.spi.EdcException;
+import org.eclipse.dataspaceconnector.spi.result.Result;
+import org.junit.jupiter.api.Test;
+
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.eclipse.dataspaceconnector.identityhub.junit.testfixtures.VerifiableCredentialTestUtil.buildSignedJwt;
+import static org.eclipse.dataspaceconnector.identityhub.junit.testfixtures.VerifiableCredentialTestUtil.generateEcKey;
+import static org.eclipse.dataspaceconnector.identityhub.junit.testfixtures.VerifiableCredentialTestUtil.generateVerifiableCredential;
+import static org.eclipse.dataspaceconnector.identityhub.validation.CredentialValidationPipeline.VALIDATION_METRIC;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CredentialValidationPipelineTest {
+
+    private static final Faker FAKER = new Faker();
+    private final MetricsRegistry metricsRegistryMock = mock(MetricsRegistry.class);
+    private final SignedJWT jwt = buildSignedJwt(generateVerifiableCredential(), FAKER.internet().url(), FAKER.internet().url(), generateEcKey());
+
+    @Test
+    void validate_runsEnabledStages() throws ParseException {
+        // Arrange
+        var claims = jwt.getJWTClaimsSet();
+        var first = stage("first", Result.success());
+        var second = stage("second", Result.success());
+        var disabled = stage("disabled", Result.failure("disabled"));
+        var pipeline = new CredentialValidationPipeline(List.of("first", "second"), metricsRegistryMock);
+        pipeline.register(first);
+        pipeline.register(disabled);
+        pipeline.register(second);
+
+        // Act
+        var result = pipeline.validate(jwt, claims);
+
+        // Assert
+        assertThat(result.succeeded()).isTrue();
+        verify(first).validate(jwt, claims);
+        verify(second).validate(jwt, claims);
+        verify(disabled, never()).validate(any(), any());
+        verify(metricsRegistryMock).record(eq(VALIDATION_METRIC), eq(Map.of("stage", "first", "result", "success")), any(Duration.class));
+        verify(metricsRegistryMock).record(eq(VALIDATION_METRIC), eq(Map.of("stage", "second", "result", "success")), any(Duration.class));
+    }
+
+    @Test
+    void validate_stopsAtFirstFailure() throws ParseException {
+        // Arrange
+        var claims = jwt.getJWTClaimsSet();
+        var failing = stage("failing", Result.failure("invalid"));
+        var next = stage("next", Result.success());
+        var pipeline = new CredentialValidationPipeline(List.of("failing", "next"), metricsRegistryMock);
+        pipeline.register(failing);
+        pipeline.register(next);
+
+        // Act
+        var result = pipeline.validate(jwt, claims);
+
+        // Assert
+        assertThat(result.failed()).isTrue();
+        assertThat(result.getFailureDetail()).isEqualTo("invalid");
+        verify(next, never()).validate(any(), any());
+        verify(metricsRegistryMock).record(eq(VALIDATION_METRIC), eq(Map.of("stage", "failing", "result", "failure")), any(Duration.class));
+    }
+
+    @Test
+    void validate_failsOnStageException() throws ParseException {
+        // Arrange
+        var claims = jwt.getJWTClaimsSet();
+        var throwing = mock(CredentialValidationStage.class);
+        when(throwing.name()).thenReturn("throwing");
+        when(throwing.validate(jwt, claims)).thenThrow(new IllegalStateException("unavailable"));
+        var pipeline = new CredentialValidationPipeline(List.of("throwing"), metricsRegistryMock);
+        pipeline.register(throwing);
+
+        // Act
+        var result = pipeline.validate(jwt, claims);
+
+        // Assert
+        assertThat(result.failed()).isTrue();
+        assertThat(result.getFailureDetail()).isEqualTo("Validation stage throwing failed: unavailable");
+    }
+
+    @Test
+    void checkStages_failsOnUnregisteredStage() {
+        // Arrange
+        var pipeline = new CredentialValidationPipeline(List.of("structure", "signatrue"), metricsRegistryMock);
+        pipeline.register(stage("structure", Result.success()));
+        pipeline.register(stage("signature", Result.success()));
+
+        // Act & Assert
+        assertThatThrownBy(pipeline::checkStages).isInstanceOf(EdcException.class).hasMessageContaining("signatrue");
+    }
+
+    @Test
+    void validate_failsClosedOnUnregisteredStage() throws ParseException {
+        // Arrange
+        var claims = jwt.getJWTClaimsSet();
+        var pipeline = new CredentialValidationPipeline(List.of("structure", "signature"), metricsRegistryMock);
+        pipeline.register(stage("structure", Result.success()));
+
+        // Act & Assert
+        assertThatThrownBy(() -> pipeline.validate(jwt, claims)).isInstanceOf(EdcException.class).hasMessageContaining("signature");
+    }
+
+    @Test
+    void validate_withoutStages() throws ParseException {
+        // Act
+        var result = CredentialValidationPipeline.NONE.validate(jwt, jwt.getJWTClaimsSet());
+
+        // Assert
+        assertThat(result.succeeded()).isTrue();
+    }
+
+    private static CredentialValidationStage stage(String name, Result<Void> result) {
+        var stage = mock(CredentialValidationStage.class);
+        when(stage.name()).thenReturn(name);
+        when(stage.validate(any(SignedJWT.class), any(JWTClaimsSet.class))).thenReturn(result);
+        return stage;
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.dataspaceconnector.identityhub.validation;
+
+import com.github.javafaker.Faker;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.eclipse.dataspaceconnector.identityhub.junit.testfixtures.VerifiableCredentialTestUtil.buildSignedJwt;
+import static org.eclipse.dataspaceconnector.identityhub.junit.testfixtures.VerifiableCredentialTestUtil.generateEcKey;
+
+class ExpirationValidationStageTest {
+
+    private static final Faker FAKER = new Faker();
+    private static final Instant NOW = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+    private final ExpirationValidationStage stage = new ExpirationValidationStage(Clock.fixed(NOW, ZoneOffset.UTC));
+
+    @Test
+    void validate_notExpired() throws Exception {
+        // Arrange
+        var jwt = jwt(NOW.plus(1, ChronoUnit.DAYS));
+
+        // Act
+        var result = stage.validate(jwt, jwt.getJWTClaimsSet());
+
+        // Assert
+        assertThat(result.succeeded()).isTrue();
+    }
+
+    @Test
+    void validate_withoutExpiration() throws Exception {
+        // Arrange
+        var jwt = jwt(null);
+
+        // Act
+        var result = stage.validate(jwt, jwt.getJWTClaimsSet());
+
+        // Assert
+        assertThat(result.succeeded()).isTrue();
+    }
+
+    @Test
+    void validate_expiredWithinClockSkew() throws Exception {
+        // Arrange
+        var jwt = jwt(NOW.minusSeconds(30));
+
+        // Act
+        var result = stage.validate(jwt, jwt.getJWTClaimsSet());
+
+        // Assert
+        assertThat(result.succeeded()).isTrue();
+    }
+
+    @Test
+    void validate_expired() throws Exception {
+        // Arrange
+        var expiration = NOW.minus(1, ChronoUnit.HOURS);
+        var jwt = jwt(expiration);
+
+        // Act
+        var result = stage.validate(jwt, jwt.getJWTClaimsSet());
+
+        // Assert
+        assertThat(result.failed()).isTrue();
+        assertThat(result.getFailureDetail()).isEqualTo("Expired at " + expiration);
+    }
+
+    private static SignedJWT jwt(Instant expiration) {
+        var claims = new JWTClaimsSet.Builder()
+                .issuer(FAKER.internet().url())
+                .subject(FAKER.internet().url())
+                .expirationTime(expiration != null ? Date.from(expiration) : null)
+                .build();
+        return buildSignedJwt(claims, generateEcKey());
+    }
+}
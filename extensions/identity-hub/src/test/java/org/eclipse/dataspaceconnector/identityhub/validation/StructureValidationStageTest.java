@@ -0,0 +1,76 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.dataspaceconnector.identityhub.validation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.javafaker.Faker;
+import com.nimbusds.jwt.JWTClaimsSet;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.eclipse.dataspaceconnector.identityhub.junit.testfixtures.VerifiableCredentialTestUtil.buildSignedJwt;
+import static org.eclipse.dataspaceconnector.identityhub.junit.testfixtures.VerifiableCredentialTestUtil.generateEcKey;
+import static org.eclipse.dataspaceconnector.identityhub.junit.testfixtures.VerifiableCredentialTestUtil.generateVerifiableCredential;
+
+class StructureValidationStageTest {
+
+    private static final Faker FAKER = new Faker();
+    private final StructureValidationStage stage = new StructureValidationStage(new ObjectMapper());
+
+    @Test
+    void validate_validCredential() throws Exception {
+        // Arrange
+        var jwt = buildSignedJwt(generateVerifiableCredential(), FAKER.internet().url(), FAKER.internet().url(), generateEcKey());
+
+        // Act
+        var result = stage.validate(jwt, jwt.getJWTClaimsSet());
+
+        // Assert
+        assertThat(result.succeeded()).isTrue();
+    }
+
+    @Test
+    void validate_missingIssuer() throws Exception {
+        // Arrange
+        var jwt = buildSignedJwt(generateVerifiableCredential(), null, FAKER.internet().url(), generateEcKey());
+
+        // Act
+        var result = stage.validate(jwt, jwt.getJWTClaimsSet());
+
+        // Assert
+        assertThat(result.failed()).isTrue();
+        assertThat(result.getFailureDetail()).isEqualTo("Missing issuer");
+    }
+
+    @Test
+    void validate_credentialWithoutId() throws Exception {
+        // Arrange
+        var claims = new JWTClaimsSet.Builder()
+                .claim("vc", Map.of("credentialSubject", Map.of(FAKER.internet().uuid(), FAKER.lorem().word())))
+                .issuer(FAKER.internet().url())
+                .subject(FAKER.internet().url())
+                .build();
+        var jwt = buildSignedJwt(claims, generateEcKey());
+
+        // Act
+        var result = stage.validate(jwt, jwt.getJWTClaimsSet());
+
+        // Assert
+        assertThat(result.failed()).isTrue();
+        assertThat(result.getFailureDetail()).startsWith("Invalid vc claim");
+    }
+}
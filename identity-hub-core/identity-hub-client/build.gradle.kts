@@ -25,6 +25,7 @@ val jupiterVersion: String by project
 val faker: String by project
 val assertj: String by project
 val nimbusVersion: String by project
+val openTelemetryVersion: String by project
 val mockitoVersion: String by project
 
 dependencies {
@@ -36,6 +37,7 @@ dependencies {
     implementation("com.fasterxml.jackson.core:jackson-databind:$jacksonVersion")
     implementation("${edcGroup}:core-spi:${edcVersion}")
     implementation("com.nimbusds:nimbus-jose-jwt:${nimbusVersion}")
+    implementation("io.opentelemetry:opentelemetry-extension-annotations:${openTelemetryVersion}")
 
     testImplementation(project(":extensions:identity-hub"))
     testImplementation(testFixtures(project(":spi:identity-hub-spi")))
@@ -0,0 +1,293 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.dataspaceconnector.identityhub.client;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.nimbusds.jwt.SignedJWT;
+import org.eclipse.dataspaceconnector.identityhub.model.CollectionsQueryFilter;
+import org.eclipse.dataspaceconnector.spi.monitor.Monitor;
+import org.eclipse.dataspaceconnector.spi.response.ResponseStatus;
+import org.eclipse.dataspaceconnector.spi.response.StatusResult;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * {@link IdentityHubClient} caching the VerifiableCredentials of each Identity Hub, so that reading them does not
+ * depend on the latency of the Identity Hub.
+ * <p>
+ * A snapshot of the VerifiableCredentials of an Identity Hub is served as is while it is fresh, i.e. younger than the
+ * time-to-live. Once expired, the snapshot is still served during the stale window, while it is refreshed in the
+ * background. After the stale window, the VerifiableCredentials are read from the Identity Hub before being returned.
+ * Refreshes send the entity tag of the snapshot, so that unchanged VerifiableCredentials are not transferred again.
+ * <p>
+ * The cache is bounded both in number of Identity Hubs, the least recently used ones being evicted first, and in size
+ * of each snapshot: VerifiableCredentials larger than the maximum size of an entry are not cached. Writing
+ * VerifiableCredentials through this client invalidates the snapshot of the Identity Hub. Filtered and streamed reads
+ * are not cached.
+ */
+public class CachingIdentityHubClient implements IdentityHubClient {
+
+    private final IdentityHubClient client;
+    private final Executor refreshExecutor;
+    private final Duration ttl;
+    private final Duration staleWindow;
+    private final long maxEntryBytes;
+    private final Clock clock;
+    private final Monitor monitor;
+    private final Map<String, Snapshot> snapshots;
+    // Incremented on each write, so that a read running concurrently with a write does not cache its result
+    private final AtomicLong invalidations = new AtomicLong();
+
+    /**
+     * Create a caching client.
+     *
+     * @param client          client reading the VerifiableCredentials from the Identity Hubs.
+     * @param refreshExecutor executor of the background refreshes.
+     * @param maxEntries      maximum number of cached Identity Hubs.
+     * @param maxEntryBytes   maximum size of the serialized VerifiableCredentials of a cached Identity Hub.
+     * @param ttl             time during which a snapshot is served without being refreshed.
+     * @param staleWindow     time after the time-to-live during which a snapshot is served while being refreshed.
+     * @param clock           clock used to compute the age of the snapshots.
+     * @param monitor         monitor reporting failed background refreshes.
+     */
+    public CachingIdentityHubClient(IdentityHubClient client, Executor refreshExecutor, int maxEntries, long maxEntryBytes, Duration ttl, Duration staleWindow, Clock clock, Monitor monitor) {
+        this.client = client;
+        this.refreshExecutor = refreshExecutor;
+        this.maxEntryBytes = maxEntryBytes;
+        this.ttl = ttl;
+        this.staleWindow = staleWindow;
+        this.clock = clock;
+        this.monitor = monitor;
+        this.snapshots = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Snapshot> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    @Override
+    public StatusResult<JsonNode> getSelfDescription(String hubBaseUrl) {
+        return client.getSelfDescription(hubBaseUrl);
+    }
+
+    @Override
+    public CompletableFuture<StatusResult<JsonNode>> getSelfDescriptionAsync(String hubBaseUrl) {
+        return client.getSelfDescriptionAsync(hubBaseUrl);
+    }
+
+    @Override
+    public StatusResult<Collection<SignedJWT>> getVerifiableCredentials(String hubBaseUrl) {
+        var snapshot = snapshot(hubBaseUrl);
+        if (isServable(hubBaseUrl, snapshot)) {
+            return StatusResult.success(snapshot.verifiableCredentials);
+        }
+
+        var refresh = new Refresh(hubBaseUrl, snapshot);
+        return verifiableCredentials(refresh.complete(client.getVerifiableCredentials(hubBaseUrl, null, refresh.etag())));
+    }
+
+    @Override
+    public CompletableFuture<StatusResult<Collection<SignedJWT>>> getVerifiableCredentialsAsync(String hubBaseUrl) {
+        var snapshot = snapshot(hubBaseUrl);
+        if (isServable(hubBaseUrl, snapshot)) {
+            return CompletableFuture.completedFuture(StatusResult.success(snapshot.verifiableCredentials));
+        }
+
+        var refresh = new Refresh(hubBaseUrl, snapshot);
+        return client.getVerifiableCredentialsAsync(hubBaseUrl, null, refresh.etag())
+                .thenApply(result -> verifiableCredentials(refresh.complete(result)));
+    }
+
+    @Override
+    public StatusResult<Collection<SignedJWT>> getVerifiableCredentials(String hubBaseUrl, CollectionsQueryFilter filter) {
+        return client.getVerifiableCredentials(hubBaseUrl, filter);
+    }
+
+    @Override
+    public StatusResult<VerifiableCredentialsResponse> getVerifiableCredentials(String hubBaseUrl, CollectionsQueryFilter filter, String etag) {
+        return client.getVerifiableCredentials(hubBaseUrl, filter, etag);
+    }
+
+    @Override
+    public CompletableFuture<StatusResult<VerifiableCredentialsResponse>> getVerifiableCredentialsAsync(String hubBaseUrl, CollectionsQueryFilter filter, String etag) {
+        return client.getVerifiableCredentialsAsync(hubBaseUrl, filter, etag);
+    }
+
+    @Override
+    public StatusResult<Void> streamVerifiableCredentials(String hubBaseUrl, CollectionsQueryFilter filter, Predicate<SignedJWT> consumer) {
+        return client.streamVerifiableCredentials(hubBaseUrl, filter, consumer);
+    }
+
+    @Override
+    public StatusResult<Void> addVerifiableCredential(String hubBaseUrl, SignedJWT verifiableCredential) {
+        try {
+            return client.addVerifiableCredential(hubBaseUrl, verifiableCredential);
+        } finally {
+            invalidate(hubBaseUrl);
+        }
+    }
+
+    @Override
+    public CompletableFuture<StatusResult<Void>> addVerifiableCredentialAsync(String hubBaseUrl, SignedJWT verifiableCredential) {
+        return client.addVerifiableCredentialAsync(hubBaseUrl, verifiableCredential)
+                .whenComplete((result, throwable) -> invalidate(hubBaseUrl));
+    }
+
+    @Override
+    public StatusResult<Void> addVerifiableCredentials(String hubBaseUrl, Collection<SignedJWT> verifiableCredentials) {
+        try {
+            return client.addVerifiableCredentials(hubBaseUrl, verifiableCredentials);
+        } finally {
+            invalidate(hubBaseUrl);
+        }
+    }
+
+    private Snapshot snapshot(String hubBaseUrl) {
+        synchronized (snapshots) {
+            return snapshots.get(hubBaseUrl);
+        }
+    }
+
+    /**
+     * Whether a snapshot can be served, i.e. is fresh or within the stale window. A stale snapshot is refreshed in the
+     * background.
+     */
+    private boolean isServable(String hubBaseUrl, Snapshot snapshot) {
+        if (snapshot == null) {
+            return false;
+        }
+        var now = clock.instant();
+        if (now.isBefore(snapshot.fetchedAt.plus(ttl))) {
+            return true;
+        }
+        if (now.isBefore(snapshot.fetchedAt.plus(ttl).plus(staleWindow))) {
+            refreshInBackground(hubBaseUrl, snapshot);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Start refreshing a stale snapshot in the background, unless a refresh of this snapshot is already running.
+     */
+    private void refreshInBackground(String hubBaseUrl, Snapshot snapshot) {
+        if (!snapshot.refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    var refresh = new Refresh(hubBaseUrl, snapshot);
+                    var refreshed = refresh.complete(client.getVerifiableCredentials(hubBaseUrl, null, refresh.etag()));
+                    if (refreshed.failed()) {
+                        monitor.warning(String.format("Failed to refresh VerifiableCredentials of %s: %s", hubBaseUrl, refreshed.getFailureDetail()));
+                    }
+                } finally {
+                    snapshot.refreshing.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            snapshot.refreshing.set(false);
+        }
+    }
+
+    private void invalidate(String hubBaseUrl) {
+        synchronized (snapshots) {
+            invalidations.incrementAndGet();
+            snapshots.remove(hubBaseUrl);
+        }
+    }
+
+    private static long size(Collection<SignedJWT> verifiableCredentials) {
+        return verifiableCredentials.stream()
+                .mapToLong(verifiableCredential -> verifiableCredential.serialize().length())
+                .sum();
+    }
+
+    private static StatusResult<Collection<SignedJWT>> verifiableCredentials(StatusResult<Snapshot> result) {
+        if (result.failed()) {
+            return StatusResult.failure(ResponseStatus.FATAL_ERROR, result.getFailureDetail());
+        }
+        return StatusResult.success(result.getContent().verifiableCredentials);
+    }
+
+    private static class Snapshot {
+        private final Collection<SignedJWT> verifiableCredentials;
+        private final String etag;
+        private final Instant fetchedAt;
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+
+        Snapshot(Collection<SignedJWT> verifiableCredentials, String etag, Instant fetchedAt) {
+            this.verifiableCredentials = verifiableCredentials;
+            this.etag = etag;
+            this.fetchedAt = fetchedAt;
+        }
+    }
+
+    /**
+     * Read of the VerifiableCredentials of an Identity Hub, only transferring them if they have changed since the
+     * current snapshot, and replacing the snapshot once completed.
+     */
+    private class Refresh {
+        private final String hubBaseUrl;
+        private final Snapshot current;
+        private final Instant fetchedAt;
+        private final long invalidationCount;
+
+        Refresh(String hubBaseUrl, Snapshot current) {
+            this.hubBaseUrl = hubBaseUrl;
+            this.current = current;
+            this.fetchedAt = clock.instant();
+            this.invalidationCount = invalidations.get();
+        }
+
+        String etag() {
+            return current != null ? current.etag : null;
+        }
+
+        StatusResult<Snapshot> complete(StatusResult<VerifiableCredentialsResponse> result) {
+            if (result.failed()) {
+                return StatusResult.failure(ResponseStatus.FATAL_ERROR, result.getFailureDetail());
+            }
+
+            var response = result.getContent();
+            var verifiableCredentials = !response.isModified() && current != null ? current.verifiableCredentials : response.getVerifiableCredentials();
+            var snapshot = new Snapshot(verifiableCredentials, response.getEtag(), fetchedAt);
+            synchronized (snapshots) {
+                // A write or a more recent refresh may have invalidated or replaced the snapshot meanwhile
+                if (snapshots.get(hubBaseUrl) == current && invalidations.get() == invalidationCount) {
+                    if (size(verifiableCredentials) <= maxEntryBytes) {
+                        snapshots.put(hubBaseUrl, snapshot);
+                    } else {
+                        snapshots.remove(hubBaseUrl);
+                    }
+                }
+            }
+            return StatusResult.success(snapshot);
+        }
+    }
+}
@@ -16,15 +16,19 @@ package org.eclipse.dataspaceconnector.identityhub.client;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.nimbusds.jwt.SignedJWT;
+import org.eclipse.dataspaceconnector.identityhub.model.CollectionsQueryFilter;
 import org.eclipse.dataspaceconnector.spi.response.StatusResult;
 
 import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Predicate;
 
 /**
  * IdentityHub Client
  * This client is used to call the IdentityHub endpoints in order query and write VerifiableCredentials, and display the
  * Self-Description document.
  * Eventually, this may be expanded to handle other types of objects and operations.
+ * The asynchronous variants of the operations do not hold a thread while waiting for the IdentityHub.
  */
 public interface IdentityHubClient {
 
@@ -36,6 +40,14 @@ public interface IdentityHubClient {
      */
     StatusResult<JsonNode> getSelfDescription(String hubBaseUrl);
 
+    /**
+     * Display the Self-Description document, without blocking the calling thread.
+     *
+     * @param hubBaseUrl Base URL of the IdentityHub instance.
+     * @return future completed with a status result containing the Self-Description document if request successful.
+     */
+    CompletableFuture<StatusResult<JsonNode>> getSelfDescriptionAsync(String hubBaseUrl);
+
     /**
      * Get VerifiableCredentials provided by an Identity Hub instance.
      *
@@ -44,6 +56,58 @@ public interface IdentityHubClient {
      */
     StatusResult<Collection<SignedJWT>> getVerifiableCredentials(String hubBaseUrl);
 
+    /**
+     * Get VerifiableCredentials provided by an Identity Hub instance, without blocking the calling thread.
+     *
+     * @param hubBaseUrl Base URL of the IdentityHub instance.
+     * @return future completed with a status result containing VerifiableCredentials if request successful.
+     */
+    CompletableFuture<StatusResult<Collection<SignedJWT>>> getVerifiableCredentialsAsync(String hubBaseUrl);
+
+    /**
+     * Get VerifiableCredentials provided by an Identity Hub instance, matching a filter. The filter is applied by the
+     * Identity Hub, so that only matching VerifiableCredentials are transferred.
+     *
+     * @param hubBaseUrl Base URL of the IdentityHub instance.
+     * @param filter     Filter on the issuer, subject, type and schema of the VerifiableCredentials.
+     * @return status result containing VerifiableCredentials if request successful.
+     */
+    StatusResult<Collection<SignedJWT>> getVerifiableCredentials(String hubBaseUrl, CollectionsQueryFilter filter);
+
+    /**
+     * Get VerifiableCredentials provided by an Identity Hub instance, matching a filter, only if they have changed since
+     * a previous query. The Identity Hub does not return any VerifiableCredential when they have not changed.
+     *
+     * @param hubBaseUrl Base URL of the IdentityHub instance.
+     * @param filter     Filter on the issuer, subject, type and schema of the VerifiableCredentials, may be null.
+     * @param etag       Entity tag returned by a previous query with the same filter, or null to get the VerifiableCredentials unconditionally.
+     * @return status result containing the VerifiableCredentials, or telling that they have not changed, if request successful.
+     */
+    StatusResult<VerifiableCredentialsResponse> getVerifiableCredentials(String hubBaseUrl, CollectionsQueryFilter filter, String etag);
+
+    /**
+     * Get VerifiableCredentials provided by an Identity Hub instance, matching a filter, only if they have changed since
+     * a previous query, without blocking the calling thread.
+     *
+     * @param hubBaseUrl Base URL of the IdentityHub instance.
+     * @param filter     Filter on the issuer, subject, type and schema of the VerifiableCredentials, may be null.
+     * @param etag       Entity tag returned by a previous query with the same filter, or null to get the VerifiableCredentials unconditionally.
+     * @return future completed with a status result containing the VerifiableCredentials, or telling that they have not changed, if request successful.
+     */
+    CompletableFuture<StatusResult<VerifiableCredentialsResponse>> getVerifiableCredentialsAsync(String hubBaseUrl, CollectionsQueryFilter filter, String etag);
+
+    /**
+     * Read the VerifiableCredentials provided by an Identity Hub instance, matching a filter, passing each of them to a
+     * consumer as soon as it is decoded, so that the whole response is never held in memory. The reading stops as soon
+     * as the consumer returns false.
+     *
+     * @param hubBaseUrl Base URL of the IdentityHub instance.
+     * @param filter     Filter on the issuer, subject, type and schema of the VerifiableCredentials, may be null.
+     * @param consumer   Consumer of the VerifiableCredentials, returning false to stop the reading.
+     * @return status result, successful if all the VerifiableCredentials were read or the consumer stopped the reading.
+     */
+    StatusResult<Void> streamVerifiableCredentials(String hubBaseUrl, CollectionsQueryFilter filter, Predicate<SignedJWT> consumer);
+
     /**
      * Write a VerifiableCredential.
      *
@@ -53,4 +117,22 @@ public interface IdentityHubClient {
      */
     StatusResult<Void> addVerifiableCredential(String hubBaseUrl, SignedJWT verifiableCredential);
 
+    /**
+     * Write a VerifiableCredential, without blocking the calling thread.
+     *
+     * @param hubBaseUrl           Base URL of the IdentityHub instance.
+     * @param verifiableCredential A verifiable credential to be saved.
+     * @return future completed with a status result.
+     */
+    CompletableFuture<StatusResult<Void>> addVerifiableCredentialAsync(String hubBaseUrl, SignedJWT verifiableCredential);
+
+    /**
+     * Write several VerifiableCredentials in a single request. The Identity Hub stores them in a single commit.
+     *
+     * @param hubBaseUrl            Base URL of the IdentityHub instance.
+     * @param verifiableCredentials Verifiable credentials to be saved.
+     * @return status result, failed if any of the verifiable credentials could not be saved.
+     */
+    StatusResult<Void> addVerifiableCredentials(String hubBaseUrl, Collection<SignedJWT> verifiableCredentials);
+
 }
@@ -15,150 +15,489 @@
 
 package org.eclipse.dataspaceconnector.identityhub.client;
 
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.nimbusds.jwt.SignedJWT;
+import io.opentelemetry.extension.annotations.WithSpan;
+import okhttp3.Call;
+import okhttp3.Callback;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.RequestBody;
 import okhttp3.Response;
+import org.eclipse.dataspaceconnector.identityhub.model.CollectionsQueryFilter;
+import org.eclipse.dataspaceconnector.identityhub.model.DataCid;
 import org.eclipse.dataspaceconnector.identityhub.model.Descriptor;
 import org.eclipse.dataspaceconnector.identityhub.model.MessageRequestObject;
 import org.eclipse.dataspaceconnector.identityhub.model.RequestObject;
 import org.eclipse.dataspaceconnector.identityhub.model.ResponseObject;
-import org.eclipse.dataspaceconnector.spi.EdcException;
 import org.eclipse.dataspaceconnector.spi.monitor.Monitor;
 import org.eclipse.dataspaceconnector.spi.response.ResponseStatus;
 import org.eclipse.dataspaceconnector.spi.response.StatusResult;
-import org.eclipse.dataspaceconnector.spi.result.AbstractResult;
-import org.eclipse.dataspaceconnector.spi.result.Result;
 
 import java.io.IOException;
 import java.text.ParseException;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.eclipse.dataspaceconnector.identityhub.model.MessageStatus.NOT_MODIFIED;
 import static org.eclipse.dataspaceconnector.identityhub.model.WebNodeInterfaceMethod.COLLECTIONS_QUERY;
 import static org.eclipse.dataspaceconnector.identityhub.model.WebNodeInterfaceMethod.COLLECTIONS_WRITE;
 
+/**
+ * {@link IdentityHubClient} calling the Identity Hubs with an {@link OkHttpClient}.
+ * <p>
+ * Self-Descriptions are cached with their ETag and Last-Modified validators: the Self-Description of an Identity Hub is
+ * requested conditionally, and only transferred and parsed again if it has changed. Concurrent reads of the
+ * Self-Description of a same Identity Hub share a single request. The returned Self-Descriptions are shared and must
+ * not be modified.
+ * <p>
+ * Queries of VerifiableCredentials fail if the Identity Hub returns a same cursor twice or more than
+ * {@link #MAX_PAGES} pages, and queries collecting the VerifiableCredentials fail if more than
+ * {@link #MAX_VERIFIABLE_CREDENTIALS} are returned, so that a faulty Identity Hub cannot make them run forever.
+ */
 public class IdentityHubClientImpl implements IdentityHubClient {
+    public static final int DEFAULT_SELF_DESCRIPTION_CACHE_SIZE = 100;
+    public static final int MAX_PAGES = 1000;
+    public static final int MAX_VERIFIABLE_CREDENTIALS = 10_000;
+
     private final OkHttpClient httpClient;
     private final ObjectMapper objectMapper;
     private final Monitor monitor;
+    private final SelfDescriptionCache selfDescriptionCache;
 
     public IdentityHubClientImpl(OkHttpClient httpClient, ObjectMapper objectMapper, Monitor monitor) {
+        this(httpClient, objectMapper, monitor, DEFAULT_SELF_DESCRIPTION_CACHE_SIZE);
+    }
+
+    /**
+     * Create a client.
+     *
+     * @param httpClient               HTTP client calling the Identity Hubs.
+     * @param objectMapper             mapper of the requests and responses.
+     * @param monitor                  monitor.
+     * @param selfDescriptionCacheSize maximum number of Identity Hubs whose Self-Description is cached.
+     */
+    public IdentityHubClientImpl(OkHttpClient httpClient, ObjectMapper objectMapper, Monitor monitor, int selfDescriptionCacheSize) {
         this.httpClient = httpClient;
         this.objectMapper = objectMapper;
         this.monitor = monitor;
+        this.selfDescriptionCache = new SelfDescriptionCache(selfDescriptionCacheSize);
     }
 
     @Override
+    @WithSpan
     public StatusResult<JsonNode> getSelfDescription(String hubBaseUrl) {
-        try (var response = httpClient.newCall(
-                        new Request.Builder()
-                                .url(hubBaseUrl + "/self-description")
-                                .get()
-                                .build())
-                .execute()) {
-
-            return (response.code() == 200) ?
-                    StatusResult.success(objectMapper.readTree(response.body().byteStream())) :
-                    identityHubCallError(response);
-        } catch (IOException e) {
-            return StatusResult.failure(ResponseStatus.FATAL_ERROR, e.getMessage());
-        }
+        return selfDescriptionCache.read(hubBaseUrl, () -> {
+            var cached = selfDescriptionCache.get(hubBaseUrl);
+            return CompletableFuture.completedFuture(execute(() -> selfDescriptionRequest(hubBaseUrl, cached), response -> readSelfDescription(hubBaseUrl, cached, response)));
+        }).join();
+    }
+
+    @Override
+    @WithSpan
+    public CompletableFuture<StatusResult<JsonNode>> getSelfDescriptionAsync(String hubBaseUrl) {
+        return selfDescriptionCache.read(hubBaseUrl, () -> {
+            var cached = selfDescriptionCache.get(hubBaseUrl);
+            return enqueue(() -> selfDescriptionRequest(hubBaseUrl, cached), response -> readSelfDescription(hubBaseUrl, cached, response));
+        });
     }
 
     @Override
     public StatusResult<Collection<SignedJWT>> getVerifiableCredentials(String hubBaseUrl) {
-        ResponseObject responseObject;
-        try (var response = httpClient.newCall(
-                        new Request.Builder()
-                                .url(hubBaseUrl)
-                                .post(buildRequestBody(COLLECTIONS_QUERY.getName()))
-                                .build())
-                .execute()) {
+        return getVerifiableCredentials(hubBaseUrl, null);
+    }
 
-            if (response.code() != 200) {
-                return identityHubCallError(response);
-            }
+    @Override
+    public CompletableFuture<StatusResult<Collection<SignedJWT>>> getVerifiableCredentialsAsync(String hubBaseUrl) {
+        return getVerifiableCredentialsAsync(hubBaseUrl, null, null).thenApply(IdentityHubClientImpl::verifiableCredentials);
+    }
 
-            responseObject = objectMapper.readValue(response.body().byteStream(), ResponseObject.class);
-        } catch (IOException e) {
-            return StatusResult.failure(ResponseStatus.FATAL_ERROR, e.getMessage());
+    @Override
+    public StatusResult<Collection<SignedJWT>> getVerifiableCredentials(String hubBaseUrl, CollectionsQueryFilter filter) {
+        return verifiableCredentials(getVerifiableCredentials(hubBaseUrl, filter, null));
+    }
+
+    @Override
+    @WithSpan
+    public StatusResult<VerifiableCredentialsResponse> getVerifiableCredentials(String hubBaseUrl, CollectionsQueryFilter filter, String etag) {
+        var verifiableCredentials = new ArrayList<SignedJWT>();
+        var query = new VerifiableCredentialsQuery(hubBaseUrl, filter, etag, MAX_VERIFIABLE_CREDENTIALS, verifiableCredentials::add);
+        var result = readPages(query);
+        if (result.failed()) {
+            return StatusResult.failure(ResponseStatus.FATAL_ERROR, result.getFailureDetail());
         }
+        return StatusResult.success(query.response(verifiableCredentials));
+    }
 
-        var verifiableCredentials = responseObject
-                .getReplies()
-                .stream()
-                .flatMap(r -> r.getEntries().stream())
-                .map(this::parse)
-                .filter(AbstractResult::succeeded)
-                .map(AbstractResult::getContent)
-                .collect(Collectors.toList());
+    @Override
+    @WithSpan
+    public CompletableFuture<StatusResult<VerifiableCredentialsResponse>> getVerifiableCredentialsAsync(String hubBaseUrl, CollectionsQueryFilter filter, String etag) {
+        var verifiableCredentials = new ArrayList<SignedJWT>();
+        var query = new VerifiableCredentialsQuery(hubBaseUrl, filter, etag, MAX_VERIFIABLE_CREDENTIALS, verifiableCredentials::add);
+        return readPagesAsync(query).thenApply(result -> result.succeeded() ?
+                StatusResult.success(query.response(verifiableCredentials)) :
+                StatusResult.failure(ResponseStatus.FATAL_ERROR, result.getFailureDetail()));
+    }
 
-        return StatusResult.success(verifiableCredentials);
+    @Override
+    @WithSpan
+    public StatusResult<Void> streamVerifiableCredentials(String hubBaseUrl, CollectionsQueryFilter filter, Predicate<SignedJWT> consumer) {
+        return readPages(new VerifiableCredentialsQuery(hubBaseUrl, filter, null, Integer.MAX_VALUE, consumer));
     }
 
     @Override
+    @WithSpan
     public StatusResult<Void> addVerifiableCredential(String hubBaseUrl, SignedJWT verifiableCredential) {
-        var payload = verifiableCredential.serialize().getBytes(UTF_8);
-        try (var response = httpClient.newCall(new Request.Builder()
-                        .url(hubBaseUrl)
-                        .post(buildRequestBody(COLLECTIONS_WRITE.getName(), payload))
-                        .build())
-                .execute()) {
-            if (response.code() != 200) {
-                return StatusResult.failure(ResponseStatus.FATAL_ERROR, String.format("IdentityHub error response code: %s, response headers: %s, response body: %s", response.code(), response.headers(), response.body().string()));
+        return execute(() -> writeRequest(hubBaseUrl, verifiableCredential), response -> readWriteResponse(response, 1));
+    }
+
+    @Override
+    @WithSpan
+    public CompletableFuture<StatusResult<Void>> addVerifiableCredentialAsync(String hubBaseUrl, SignedJWT verifiableCredential) {
+        return enqueue(() -> writeRequest(hubBaseUrl, verifiableCredential), response -> readWriteResponse(response, 1));
+    }
+
+    @Override
+    @WithSpan
+    public StatusResult<Void> addVerifiableCredentials(String hubBaseUrl, Collection<SignedJWT> verifiableCredentials) {
+        if (verifiableCredentials.isEmpty()) {
+            return StatusResult.success();
+        }
+
+        var messages = verifiableCredentials.stream()
+                .map(verifiableCredential -> verifiableCredential.serialize().getBytes(UTF_8))
+                .map(payload -> buildMessage(Descriptor.Builder.newInstance().method(COLLECTIONS_WRITE.getName()).dataCid(DataCid.of(payload)), payload))
+                .collect(Collectors.toList());
+        return execute(() -> new Request.Builder().url(hubBaseUrl).post(buildRequestBody(messages)).build(), response -> readWriteResponse(response, messages.size()));
+    }
+
+    private StatusResult<Void> readPages(VerifiableCredentialsQuery query) {
+        while (true) {
+            var page = execute(query::nextRequest, query::readPage);
+            if (page.failed()) {
+                return StatusResult.failure(ResponseStatus.FATAL_ERROR, page.getFailureDetail());
+            }
+            if (!page.getContent()) {
+                return StatusResult.success();
             }
+        }
+    }
+
+    private CompletableFuture<StatusResult<Void>> readPagesAsync(VerifiableCredentialsQuery query) {
+        return enqueue(query::nextRequest, query::readPage).thenCompose(page -> {
+            if (page.failed()) {
+                return CompletableFuture.completedFuture(StatusResult.failure(ResponseStatus.FATAL_ERROR, page.getFailureDetail()));
+            }
+            return page.getContent() ? readPagesAsync(query) : CompletableFuture.completedFuture(StatusResult.success());
+        });
+    }
+
+    /**
+     * Execute a call, blocking the current thread until the response is handled.
+     */
+    private <T> StatusResult<T> execute(RequestFactory requestFactory, ResponseHandler<T> responseHandler) {
+        try (var response = httpClient.newCall(requestFactory.create()).execute()) {
+            return responseHandler.handle(response);
         } catch (IOException e) {
             return StatusResult.failure(ResponseStatus.FATAL_ERROR, e.getMessage());
         }
+    }
+
+    /**
+     * Enqueue a call, the response being handled by a thread of the dispatcher of the HTTP client once available.
+     */
+    private <T> CompletableFuture<StatusResult<T>> enqueue(RequestFactory requestFactory, ResponseHandler<T> responseHandler) {
+        Request request;
+        try {
+            request = requestFactory.create();
+        } catch (IOException e) {
+            return CompletableFuture.completedFuture(StatusResult.failure(ResponseStatus.FATAL_ERROR, e.getMessage()));
+        }
+
+        var future = new CompletableFuture<StatusResult<T>>();
+        httpClient.newCall(request).enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                future.complete(StatusResult.failure(ResponseStatus.FATAL_ERROR, e.getMessage()));
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) {
+                try (response) {
+                    future.complete(responseHandler.handle(response));
+                } catch (IOException e) {
+                    future.complete(StatusResult.failure(ResponseStatus.FATAL_ERROR, e.getMessage()));
+                } catch (RuntimeException e) {
+                    future.completeExceptionally(e);
+                }
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Read the Self-Description of an Identity Hub, using the cached one if it has not changed.
+     */
+    private StatusResult<JsonNode> readSelfDescription(String hubBaseUrl, SelfDescriptionCache.Entry cached, Response response) throws IOException {
+        if (response.code() == 304 && cached != null) {
+            return StatusResult.success(cached.getSelfDescription());
+        }
+        if (response.code() != 200) {
+            return identityHubCallError(response);
+        }
+
+        var selfDescription = objectMapper.readTree(response.body().byteStream());
+        selfDescriptionCache.put(hubBaseUrl, selfDescription, response.header("ETag"), response.header("Last-Modified"));
+        return StatusResult.success(selfDescription);
+    }
+
+    /**
+     * Read the response of a write, which fails if any of its replies has an error status, e.g. for a rejected
+     * VerifiableCredential.
+     */
+    private StatusResult<Void> readWriteResponse(Response response, int count) throws IOException {
+        if (response.code() != 200) {
+            return identityHubCallError(response);
+        }
+
+        var responseObject = objectMapper.readValue(response.body().byteStream(), ResponseObject.class);
+        var failures = responseObject.getReplies().stream()
+                .filter(reply -> reply.getStatus().getCode() != 200)
+                .map(reply -> reply.getStatus().getDetail())
+                .collect(Collectors.toList());
+        if (!failures.isEmpty()) {
+            return StatusResult.failure(ResponseStatus.FATAL_ERROR, String.format("IdentityHub failed to write %s of %s VerifiableCredentials: %s", failures.size(), count, String.join(", ", failures)));
+        }
         return StatusResult.success();
     }
 
-    private Result<SignedJWT> parse(Object entry) {
+    private SignedJWT parse(byte[] entry) {
         try {
-            var jwt = new String(objectMapper.convertValue(entry, byte[].class));
-            return Result.success(SignedJWT.parse(jwt));
+            return SignedJWT.parse(new String(entry, UTF_8));
         } catch (ParseException e) {
             monitor.warning("Could not parse JWT", e);
-            return Result.failure(e.getMessage());
+            return null;
         }
     }
 
-    private RequestBody buildRequestBody(String method) {
-        try {
-            return buildRequestBody(method, null);
-        } catch (JsonProcessingException e) {
-            throw new EdcException(e); // Should never happen.
+    private static Request selfDescriptionRequest(String hubBaseUrl, SelfDescriptionCache.Entry cached) {
+        var request = new Request.Builder()
+                .url(hubBaseUrl + "/self-description")
+                .get();
+        if (cached != null && cached.getEtag() != null) {
+            request.header("If-None-Match", cached.getEtag());
+        }
+        if (cached != null && cached.getLastModified() != null) {
+            request.header("If-Modified-Since", cached.getLastModified());
         }
+        return request.build();
     }
 
-    private RequestBody buildRequestBody(String method, byte[] data) throws JsonProcessingException {
+    private Request writeRequest(String hubBaseUrl, SignedJWT verifiableCredential) throws JsonProcessingException {
+        var payload = verifiableCredential.serialize().getBytes(UTF_8);
+        return new Request.Builder()
+                .url(hubBaseUrl)
+                .post(buildRequestBody(Descriptor.Builder.newInstance().method(COLLECTIONS_WRITE.getName()).dataCid(DataCid.of(payload)), payload))
+                .build();
+    }
+
+    private RequestBody buildRequestBody(Descriptor.Builder descriptor, byte[] data) throws JsonProcessingException {
+        return buildRequestBody(List.of(buildMessage(descriptor, data)));
+    }
+
+    private RequestBody buildRequestBody(List<MessageRequestObject> messages) throws JsonProcessingException {
         var requestId = UUID.randomUUID().toString();
-        var nonce = UUID.randomUUID().toString();
         var requestObject = RequestObject.Builder.newInstance()
                 .requestId(requestId)
                 .target("target")
-                .messages(List.of(MessageRequestObject.Builder.newInstance()
-                        .descriptor(Descriptor.Builder.newInstance()
-                                .nonce(nonce)
-                                .method(method)
-                                .build())
-                        .data(data)
-                        .build())
-                )
+                .messages(messages)
                 .build();
         var payload = objectMapper.writeValueAsString(requestObject);
         return RequestBody.create(payload, okhttp3.MediaType.get("application/json"));
     }
 
+    private static MessageRequestObject buildMessage(Descriptor.Builder descriptor, byte[] data) {
+        var nonce = UUID.randomUUID().toString();
+        return MessageRequestObject.Builder.newInstance()
+                .descriptor(descriptor
+                        .nonce(nonce)
+                        .build())
+                .data(data)
+                .build();
+    }
+
+    private static StatusResult<Collection<SignedJWT>> verifiableCredentials(StatusResult<VerifiableCredentialsResponse> result) {
+        if (result.failed()) {
+            return StatusResult.failure(ResponseStatus.FATAL_ERROR, result.getFailureDetail());
+        }
+        return StatusResult.success(result.getContent().getVerifiableCredentials());
+    }
+
     private static <T> StatusResult<T> identityHubCallError(Response response) throws IOException {
         return StatusResult.failure(ResponseStatus.FATAL_ERROR, String.format("IdentityHub error response code: %s, response headers: %s, response body: %s", response.code(), response.headers(), response.body().string()));
     }
+
+    @FunctionalInterface
+    private interface RequestFactory {
+        Request create() throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface ResponseHandler<T> {
+        StatusResult<T> handle(Response response) throws IOException;
+    }
+
+    /**
+     * Pages of a query of VerifiableCredentials, shared by the blocking and asynchronous reads. Only the first page is
+     * conditional, the entity tag identifying the first page of the query on the version of the store when it started.
+     * <p>
+     * Pages are read with a streaming parser: each VerifiableCredential is decoded and passed to the consumer as soon as
+     * it is read, so that the memory used does not depend on the size of the page. Reading stops as soon as the consumer
+     * returns false, the rest of the response being discarded.
+     */
+    private class VerifiableCredentialsQuery {
+        private final String hubBaseUrl;
+        private final CollectionsQueryFilter filter;
+        private final String etag;
+        private final int maxVerifiableCredentials;
+        private final Predicate<SignedJWT> consumer;
+        private final Set<String> cursors = new HashSet<>();
+        private int verifiableCredentialsCount;
+        private boolean firstPage = true;
+        private boolean notModified;
+        private String cursor;
+        private String responseEtag;
+
+        VerifiableCredentialsQuery(String hubBaseUrl, CollectionsQueryFilter filter, String etag, int maxVerifiableCredentials, Predicate<SignedJWT> consumer) {
+            this.hubBaseUrl = hubBaseUrl;
+            this.filter = filter;
+            this.etag = etag;
+            this.maxVerifiableCredentials = maxVerifiableCredentials;
+            this.consumer = consumer;
+        }
+
+        Request nextRequest() throws JsonProcessingException {
+            var descriptor = Descriptor.Builder.newInstance()
+                    .method(COLLECTIONS_QUERY.getName())
+                    .filter(filter)
+                    .cursor(cursor)
+                    .ifNoneMatch(firstPage ? etag : null);
+            return new Request.Builder()
+                    .url(hubBaseUrl)
+                    .post(buildRequestBody(descriptor, null))
+                    .build();
+        }
+
+        /**
+         * Read a page of the query.
+         *
+         * @return status result telling whether the next page must be read, failed if the Identity Hub returned a cursor
+         *         already read, more than {@link #MAX_PAGES} pages or too many VerifiableCredentials.
+         */
+        StatusResult<Boolean> readPage(Response response) throws IOException {
+            if (response.code() != 200) {
+                return identityHubCallError(response);
+            }
+
+            var readFirstPage = firstPage;
+            firstPage = false;
+            cursor = null;
+            try (var parser = objectMapper.getFactory().createParser(response.body().byteStream())) {
+                if (parser.nextToken() != JsonToken.START_OBJECT) {
+                    throw new JsonParseException(parser, "IdentityHub response must be an object");
+                }
+                var hasRequestId = false;
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    var field = parser.getCurrentName();
+                    var token = parser.nextToken();
+                    if ("requestId".equals(field)) {
+                        hasRequestId = token != JsonToken.VALUE_NULL;
+                    } else if ("replies".equals(field) && token == JsonToken.START_ARRAY) {
+                        while (parser.nextToken() == JsonToken.START_OBJECT) {
+                            if (!readReply(parser, readFirstPage)) {
+                                return verifiableCredentialsCount > maxVerifiableCredentials ?
+                                        StatusResult.failure(ResponseStatus.FATAL_ERROR, String.format("IdentityHub returned more than %s VerifiableCredentials", maxVerifiableCredentials)) :
+                                        StatusResult.success(false);
+                            }
+                        }
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+                if (!hasRequestId) {
+                    throw new JsonParseException(parser, "ResponseObject must contain requestId property.");
+                }
+            }
+            if (notModified || cursor == null) {
+                return StatusResult.success(false);
+            }
+            if (!cursors.add(cursor)) {
+                return StatusResult.failure(ResponseStatus.FATAL_ERROR, String.format("IdentityHub returned cursor %s twice", cursor));
+            }
+            if (cursors.size() >= MAX_PAGES) {
+                return StatusResult.failure(ResponseStatus.FATAL_ERROR, String.format("IdentityHub returned more than %s pages", MAX_PAGES));
+            }
+            return StatusResult.success(true);
+        }
+
+        VerifiableCredentialsResponse response(Collection<SignedJWT> verifiableCredentials) {
+            return notModified ? VerifiableCredentialsResponse.notModified(responseEtag) : VerifiableCredentialsResponse.modified(verifiableCredentials, responseEtag);
+        }
+
+        /**
+         * Read a reply of a page, the parser being positioned at the start of the reply.
+         *
+         * @return false if the consumer stopped the reading or too many VerifiableCredentials were read.
+         */
+        private boolean readReply(JsonParser parser, boolean readFirstPage) throws IOException {
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                var field = parser.getCurrentName();
+                var token = parser.nextToken();
+                if ("entries".equals(field) && token == JsonToken.START_ARRAY) {
+                    while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                        if (token != JsonToken.VALUE_STRING) {
+                            parser.skipChildren();
+                            continue;
+                        }
+                        var verifiableCredential = parse(parser.getBinaryValue());
+                        if (verifiableCredential == null) {
+                            continue;
+                        }
+                        if (++verifiableCredentialsCount > maxVerifiableCredentials || !consumer.test(verifiableCredential)) {
+                            return false;
+                        }
+                    }
+                } else if ("status".equals(field) && token == JsonToken.START_OBJECT) {
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        var statusField = parser.getCurrentName();
+                        parser.nextToken();
+                        if ("code".equals(statusField) && readFirstPage && parser.getValueAsInt() == NOT_MODIFIED.getCode()) {
+                            notModified = true;
+                        }
+                        parser.skipChildren();
+                    }
+                } else if ("cursor".equals(field) && cursor == null) {
+                    cursor = parser.getValueAsString();
+                } else if ("etag".equals(field) && readFirstPage && responseEtag == null) {
+                    responseEtag = parser.getValueAsString();
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            return true;
+        }
+    }
 }
@@ -0,0 +1,134 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.dataspaceconnector.identityhub.client;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.eclipse.dataspaceconnector.spi.response.StatusResult;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Self-Descriptions of the Identity Hubs, with the validators returned by the Identity Hubs, so that a Self-Description
+ * which has not changed is neither transferred nor parsed again.
+ * <p>
+ * The cache is bounded in number of Identity Hubs, the least recently used ones being evicted first. Concurrent reads
+ * of the Self-Description of a same Identity Hub share a single request.
+ */
+class SelfDescriptionCache {
+
+    private final Map<String, Entry> entries;
+    private final Map<String, CompletableFuture<StatusResult<JsonNode>>> reads = new ConcurrentHashMap<>();
+
+    /**
+     * Create a cache.
+     *
+     * @param maxEntries maximum number of cached Identity Hubs.
+     */
+    SelfDescriptionCache(int maxEntries) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Get the cached Self-Description of an Identity Hub.
+     *
+     * @return the entry, or null if the Self-Description of the Identity Hub is not cached.
+     */
+    Entry get(String hubBaseUrl) {
+        synchronized (entries) {
+            return entries.get(hubBaseUrl);
+        }
+    }
+
+    /**
+     * Cache the Self-Description of an Identity Hub. A Self-Description without validators cannot be revalidated,
+     * and is not cached.
+     */
+    void put(String hubBaseUrl, JsonNode selfDescription, String etag, String lastModified) {
+        synchronized (entries) {
+            if (etag == null && lastModified == null) {
+                entries.remove(hubBaseUrl);
+            } else {
+                entries.put(hubBaseUrl, new Entry(selfDescription, etag, lastModified));
+            }
+        }
+    }
+
+    /**
+     * Read the Self-Description of an Identity Hub, joining the read already running for this Identity Hub if any.
+     *
+     * @param hubBaseUrl Base URL of the IdentityHub instance.
+     * @param read       read started if none is running. Blocking reads complete the returned future before it is returned.
+     * @return future completed with the result of the read.
+     */
+    CompletableFuture<StatusResult<JsonNode>> read(String hubBaseUrl, Supplier<CompletableFuture<StatusResult<JsonNode>>> read) {
+        var shared = new CompletableFuture<StatusResult<JsonNode>>();
+        var running = reads.putIfAbsent(hubBaseUrl, shared);
+        // Each caller gets its own future, so that completing it does not affect the other callers
+        if (running != null) {
+            return running.copy();
+        }
+
+        try {
+            read.get().whenComplete((result, throwable) -> {
+                reads.remove(hubBaseUrl, shared);
+                if (throwable != null) {
+                    shared.completeExceptionally(throwable);
+                } else {
+                    shared.complete(result);
+                }
+            });
+        } catch (RuntimeException e) {
+            reads.remove(hubBaseUrl, shared);
+            shared.completeExceptionally(e);
+        }
+        return shared.copy();
+    }
+
+    /**
+     * Self-Description of an Identity Hub with its validators.
+     */
+    static class Entry {
+        private final JsonNode selfDescription;
+        private final String etag;
+        private final String lastModified;
+
+        Entry(JsonNode selfDescription, String etag, String lastModified) {
+            this.selfDescription = selfDescription;
+            this.etag = etag;
+            this.lastModified = lastModified;
+        }
+
+        JsonNode getSelfDescription() {
+            return selfDescription;
+        }
+
+        String getEtag() {
+            return etag;
+        }
+
+        String getLastModified() {
+            return lastModified;
+        }
+    }
+}
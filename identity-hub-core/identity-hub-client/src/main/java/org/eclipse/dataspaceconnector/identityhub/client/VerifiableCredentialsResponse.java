@@ -0,0 +1,73 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.dataspaceconnector.identityhub.client;
+
+import com.nimbusds.jwt.SignedJWT;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * VerifiableCredentials returned by a conditional query of an Identity Hub, with the entity tag identifying them.
+ * When the VerifiableCredentials have not changed since the entity tag sent with the query, the Identity Hub returns
+ * none of them, and the previously returned VerifiableCredentials should be used.
+ */
+public class VerifiableCredentialsResponse {
+
+    private final boolean modified;
+    private final Collection<SignedJWT> verifiableCredentials;
+    private final String etag;
+
+    private VerifiableCredentialsResponse(boolean modified, Collection<SignedJWT> verifiableCredentials, String etag) {
+        this.modified = modified;
+        this.verifiableCredentials = verifiableCredentials;
+        this.etag = etag;
+    }
+
+    public static VerifiableCredentialsResponse modified(Collection<SignedJWT> verifiableCredentials, String etag) {
+        return new VerifiableCredentialsResponse(true, verifiableCredentials, etag);
+    }
+
+    public static VerifiableCredentialsResponse notModified(String etag) {
+        return new VerifiableCredentialsResponse(false, List.of(), etag);
+    }
+
+    /**
+     * Whether the VerifiableCredentials have changed since the entity tag sent with the query.
+     *
+     * @return false if the previously returned VerifiableCredentials are still valid.
+     */
+    public boolean isModified() {
+        return modified;
+    }
+
+    /**
+     * VerifiableCredentials returned by the Identity Hub, empty when not modified.
+     *
+     * @return VerifiableCredentials.
+     */
+    public Collection<SignedJWT> getVerifiableCredentials() {
+        return verifiableCredentials;
+    }
+
+    /**
+     * Entity tag of the VerifiableCredentials, to be sent with the next query.
+     *
+     * @return entity tag, or null if the Identity Hub does not support conditional queries.
+     */
+    public String getEtag() {
+        return etag;
+    }
+}
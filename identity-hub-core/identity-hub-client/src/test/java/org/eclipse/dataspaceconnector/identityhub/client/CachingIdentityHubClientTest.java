@@ -0,0 +1,185 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.dataspaceconnector.identityhub.client;
+
+import com.github.javafaker.Faker;
+import com.nimbusds.jwt.SignedJWT;
+import org.eclipse.dataspaceconnector.spi.monitor.Monitor;
+import org.eclipse.dataspaceconnector.spi.response.ResponseStatus;
+import org.eclipse.dataspaceconnector.spi.response.StatusResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.eclipse.dataspaceconnector.identityhub.junit.testfixtures.VerifiableCredentialTestUtil.buildSignedJwt;
+import static org.eclipse.dataspaceconnector.identityhub.junit.testfixtures.VerifiableCredentialTestUtil.generateEcKey;
+import static org.eclipse.dataspaceconnector.identityhub.junit.testfixtures.VerifiableCredentialTestUtil.generateVerifiableCredential;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CachingIdentityHubClientTest {
+
+    private static final Faker FAKER = new Faker();
+    private static final String HUB_URL = FAKER.internet().url();
+    private static final Duration TTL = Duration.ofSeconds(30);
+    private static final Duration STALE_WINDOW = Duration.ofSeconds(60);
+
+    private final List<Runnable> refreshes = new ArrayList<>();
+    private IdentityHubClient client;
+    private Clock clock;
+    private Instant now;
+
+    @BeforeEach
+    void setUp() {
+        client = mock(IdentityHubClient.class);
+        clock = mock(Clock.class);
+        now = Instant.now();
+        when(clock.instant()).thenAnswer(invocation -> now);
+    }
+
+    @Test
+    void freshSnapshotIsServedFromCache() {
+        // Arrange
+        var credentials = List.of(jwt());
+        when(client.getVerifiableCredentials(HUB_URL, null, null)).thenReturn(StatusResult.success(VerifiableCredentialsResponse.modified(credentials, "1")));
+        var cachingClient = cachingClient(Long.MAX_VALUE);
+
+        // Act
+        var first = cachingClient.getVerifiableCredentials(HUB_URL);
+        now = now.plus(TTL.minusSeconds(1));
+        var second = cachingClient.getVerifiableCredentials(HUB_URL);
+
+        // Assert
+        assertThat(first.getContent()).containsExactlyElementsOf(credentials);
+        assertThat(second.getContent()).containsExactlyElementsOf(credentials);
+        verify(client, times(1)).getVerifiableCredentials(any(), any(), any());
+        assertThat(refreshes).isEmpty();
+    }
+
+    @Test
+    void staleSnapshotIsServedWhileRefreshedInBackground() {
+        // Arrange
+        var credentials = List.of(jwt());
+        var newCredentials = List.of(jwt(), jwt());
+        when(client.getVerifiableCredentials(HUB_URL, null, null)).thenReturn(StatusResult.success(VerifiableCredentialsResponse.modified(credentials, "1")));
+        when(client.getVerifiableCredentials(HUB_URL, null, "1")).thenReturn(StatusResult.success(VerifiableCredentialsResponse.modified(newCredentials, "2")));
+        var cachingClient = cachingClient(Long.MAX_VALUE);
+        cachingClient.getVerifiableCredentials(HUB_URL);
+        now = now.plus(TTL.plusSeconds(1));
+
+        // Act
+        var stale = cachingClient.getVerifiableCredentials(HUB_URL);
+        var staleWhileRefreshing = cachingClient.getVerifiableCredentials(HUB_URL);
+        refreshes.forEach(Runnable::run);
+        var refreshed = cachingClient.getVerifiableCredentials(HUB_URL);
+
+        // Assert
+        assertThat(stale.getContent()).containsExactlyElementsOf(credentials);
+        assertThat(staleWhileRefreshing.getContent()).containsExactlyElementsOf(credentials);
+        assertThat(refreshes).hasSize(1);
+        assertThat(refreshed.getContent()).containsExactlyElementsOf(newCredentials);
+    }
+
+    @Test
+    void notModifiedRefreshKeepsSnapshot() {
+        // Arrange
+        var credentials = List.of(jwt());
+        when(client.getVerifiableCredentials(HUB_URL, null, null)).thenReturn(StatusResult.success(VerifiableCredentialsResponse.modified(credentials, "1")));
+        when(client.getVerifiableCredentials(HUB_URL, null, "1")).thenReturn(StatusResult.success(VerifiableCredentialsResponse.notModified("1")));
+        var cachingClient = cachingClient(Long.MAX_VALUE);
+        cachingClient.getVerifiableCredentials(HUB_URL);
+        now = now.plus(TTL).plus(STALE_WINDOW).plusSeconds(1);
+
+        // Act
+        var expired = cachingClient.getVerifiableCredentials(HUB_URL);
+        var cached = cachingClient.getVerifiableCredentials(HUB_URL);
+
+        // Assert
+        assertThat(expired.getContent()).containsExactlyElementsOf(credentials);
+        assertThat(cached.getContent()).containsExactlyElementsOf(credentials);
+        verify(client, times(1)).getVerifiableCredentials(HUB_URL, null, "1");
+        assertThat(refreshes).isEmpty();
+    }
+
+    @Test
+    void expiredSnapshotIsNotServedWhenRefreshFails() {
+        // Arrange
+        when(client.getVerifiableCredentials(HUB_URL, null, null)).thenReturn(StatusResult.success(VerifiableCredentialsResponse.modified(List.of(jwt()), "1")));
+        when(client.getVerifiableCredentials(HUB_URL, null, "1")).thenReturn(StatusResult.failure(ResponseStatus.FATAL_ERROR, "unreachable"));
+        var cachingClient = cachingClient(Long.MAX_VALUE);
+        cachingClient.getVerifiableCredentials(HUB_URL);
+        now = now.plus(TTL).plus(STALE_WINDOW).plusSeconds(1);
+
+        // Act
+        var result = cachingClient.getVerifiableCredentials(HUB_URL);
+
+        // Assert
+        assertThat(result.failed()).isTrue();
+    }
+
+    @Test
+    void snapshotLargerThanMaxEntrySizeIsNotCached() {
+        // Arrange
+        var credentials = List.of(jwt());
+        when(client.getVerifiableCredentials(HUB_URL, null, null)).thenReturn(StatusResult.success(VerifiableCredentialsResponse.modified(credentials, "1")));
+        var cachingClient = cachingClient(credentials.get(0).serialize().length() - 1);
+
+        // Act
+        cachingClient.getVerifiableCredentials(HUB_URL);
+        var second = cachingClient.getVerifiableCredentials(HUB_URL);
+
+        // Assert
+        assertThat(second.getContent()).containsExactlyElementsOf(credentials);
+        verify(client, times(2)).getVerifiableCredentials(HUB_URL, null, null);
+    }
+
+    @Test
+    void writeInvalidatesSnapshot() {
+        // Arrange
+        var credential = jwt();
+        when(client.getVerifiableCredentials(HUB_URL, null, null)).thenReturn(StatusResult.success(VerifiableCredentialsResponse.modified(List.of(), "1")),
+                StatusResult.success(VerifiableCredentialsResponse.modified(List.of(credential), "2")));
+        when(client.addVerifiableCredential(HUB_URL, credential)).thenReturn(StatusResult.success());
+        var cachingClient = cachingClient(Long.MAX_VALUE);
+        cachingClient.getVerifiableCredentials(HUB_URL);
+
+        // Act
+        cachingClient.addVerifiableCredential(HUB_URL, credential);
+        var result = cachingClient.getVerifiableCredentials(HUB_URL);
+
+        // Assert
+        assertThat(result.getContent()).containsExactly(credential);
+        verify(client, times(2)).getVerifiableCredentials(eq(HUB_URL), isNull(), isNull());
+    }
+
+    private CachingIdentityHubClient cachingClient(long maxEntryBytes) {
+        return new CachingIdentityHubClient(client, refreshes::add, 10, maxEntryBytes, TTL, STALE_WINDOW, clock, mock(Monitor.class));
+    }
+
+    private static SignedJWT jwt() {
+        return buildSignedJwt(generateVerifiableCredential(), FAKER.internet().url(), FAKER.internet().url(), generateEcKey());
+    }
+}
@@ -14,15 +14,20 @@
 
 package org.eclipse.dataspaceconnector.identityhub.client;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.javafaker.Faker;
+import com.nimbusds.jwt.SignedJWT;
 import okhttp3.Interceptor;
 import okhttp3.MediaType;
 import okhttp3.OkHttpClient;
 import okhttp3.Protocol;
+import okhttp3.Request;
 import okhttp3.Response;
 import okhttp3.ResponseBody;
+import okio.Buffer;
 import org.eclipse.dataspaceconnector.identityhub.credentials.model.VerifiableCredential;
+import org.eclipse.dataspaceconnector.identityhub.model.DataCid;
 import org.eclipse.dataspaceconnector.identityhub.model.MessageResponseObject;
 import org.eclipse.dataspaceconnector.identityhub.model.MessageStatus;
 import org.eclipse.dataspaceconnector.identityhub.model.RequestStatus;
@@ -34,7 +39,13 @@ import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.eclipse.dataspaceconnector.identityhub.junit.testfixtures.VerifiableCredentialTestUtil.buildSignedJwt;
@@ -95,6 +106,109 @@ class IdentityHubClientImplTest {
         assertThat(statusResult).usingRecursiveComparison().isEqualTo(expectedResult);
     }
 
+    @Test
+    void getSelfDescriptionRevalidatesCachedSelfDescription() {
+        // Arrange
+        var selfDescription = OBJECT_MAPPER.createObjectNode();
+        selfDescription.put(FAKER.lorem().word(), FAKER.lorem().word());
+        var etag = "\"" + FAKER.internet().uuid() + "\"";
+        var lastModified = "Wed, 21 Oct 2015 07:28:00 GMT";
+        var conditionalRequests = new ArrayList<Request>();
+
+        Interceptor interceptor = chain -> {
+            var request = chain.request();
+            var response = new Response.Builder()
+                    .request(request)
+                    .protocol(Protocol.HTTP_2)
+                    .header("ETag", etag)
+                    .header("Last-Modified", lastModified)
+                    .message("");
+            if (request.header("If-None-Match") != null) {
+                conditionalRequests.add(request);
+                return response.code(304).body(ResponseBody.create("", null)).build();
+            }
+            return response.code(200).body(ResponseBody.create(OBJECT_MAPPER.writeValueAsString(selfDescription), MediaType.get("application/json"))).build();
+        };
+        var client = createClient(interceptor);
+
+        // Act
+        var first = client.getSelfDescription(HUB_URL);
+        var second = client.getSelfDescription(HUB_URL);
+
+        // Assert
+        assertThat(first.succeeded()).isTrue();
+        assertThat(second.succeeded()).isTrue();
+        assertThat(second.getContent()).isSameAs(first.getContent()).isEqualTo(selfDescription);
+        assertThat(conditionalRequests).hasSize(1);
+        assertThat(conditionalRequests.get(0).header("If-None-Match")).isEqualTo(etag);
+        assertThat(conditionalRequests.get(0).header("If-Modified-Since")).isEqualTo(lastModified);
+    }
+
+    @Test
+    void getSelfDescriptionEvictsLeastRecentlyUsed() {
+        // Arrange
+        var otherHubUrl = String.format("https://%s", FAKER.internet().url());
+        var conditionalRequests = new AtomicInteger();
+
+        Interceptor interceptor = chain -> {
+            var request = chain.request();
+            if (request.header("If-None-Match") != null) {
+                conditionalRequests.incrementAndGet();
+            }
+            return new Response.Builder()
+                    .body(ResponseBody.create("{}", MediaType.get("application/json")))
+                    .request(request)
+                    .protocol(Protocol.HTTP_2)
+                    .header("ETag", "\"" + request.url() + "\"")
+                    .code(200)
+                    .message("")
+                    .build();
+        };
+        var client = createClient(interceptor, 1);
+
+        // Act
+        client.getSelfDescription(HUB_URL);
+        client.getSelfDescription(otherHubUrl);
+        client.getSelfDescription(HUB_URL);
+
+        // Assert
+        assertThat(conditionalRequests).hasValue(0);
+    }
+
+    @Test
+    void getSelfDescriptionAsyncSharesConcurrentReads() {
+        // Arrange
+        var requests = new AtomicInteger();
+        var responded = new CountDownLatch(1);
+
+        Interceptor interceptor = chain -> {
+            requests.incrementAndGet();
+            try {
+                responded.await();
+            } catch (InterruptedException e) {
+                throw new IOException(e);
+            }
+            return new Response.Builder()
+                    .body(ResponseBody.create("{}", MediaType.get("application/json")))
+                    .request(chain.request())
+                    .protocol(Protocol.HTTP_2)
+                    .code(200)
+                    .message("")
+                    .build();
+        };
+        var client = createClient(interceptor);
+
+        // Act
+        var first = client.getSelfDescriptionAsync(HUB_URL);
+        var second = client.getSelfDescriptionAsync(HUB_URL);
+        responded.countDown();
+
+        // Assert
+        assertThat(first.join().succeeded()).isTrue();
+        assertThat(second.join().getContent()).isSameAs(first.join().getContent());
+        assertThat(requests).hasValue(1);
+    }
+
     @Test
     void getVerifiableCredentials() {
         var credential = VerifiableCredential.Builder.newInstance().id(VERIFIABLE_CREDENTIAL_ID).build();
@@ -126,6 +240,133 @@ class IdentityHubClientImplTest {
         assertThat(statusResult.getContent()).usingRecursiveFieldByFieldElementComparator().containsExactly(jws);
     }
 
+    @Test
+    void getVerifiableCredentialsFollowsCursor() {
+        var firstJws = buildSignedJwt(VerifiableCredential.Builder.newInstance().id(FAKER.internet().uuid()).build(), FAKER.internet().url(), FAKER.internet().url(), generateEcKey());
+        var secondJws = buildSignedJwt(VerifiableCredential.Builder.newInstance().id(FAKER.internet().uuid()).build(), FAKER.internet().url(), FAKER.internet().url(), generateEcKey());
+        var cursor = FAKER.internet().uuid();
+
+        var client = createClient(cursorInterceptor(firstJws, secondJws, cursor));
+        var statusResult = client.getVerifiableCredentials(HUB_URL);
+        assertThat(statusResult.succeeded()).isTrue();
+        assertThat(statusResult.getContent()).usingRecursiveFieldByFieldElementComparator().containsExactly(firstJws, secondJws);
+    }
+
+    @Test
+    void getVerifiableCredentialsAsyncFollowsCursor() {
+        var firstJws = buildSignedJwt(VerifiableCredential.Builder.newInstance().id(FAKER.internet().uuid()).build(), FAKER.internet().url(), FAKER.internet().url(), generateEcKey());
+        var secondJws = buildSignedJwt(VerifiableCredential.Builder.newInstance().id(FAKER.internet().uuid()).build(), FAKER.internet().url(), FAKER.internet().url(), generateEcKey());
+        var cursor = FAKER.internet().uuid();
+
+        var client = createClient(cursorInterceptor(firstJws, secondJws, cursor));
+        var statusResult = client.getVerifiableCredentialsAsync(HUB_URL).join();
+        assertThat(statusResult.succeeded()).isTrue();
+        assertThat(statusResult.getContent()).usingRecursiveFieldByFieldElementComparator().containsExactly(firstJws, secondJws);
+    }
+
+    @Test
+    void streamVerifiableCredentialsStopsEarly() {
+        var firstJws = buildSignedJwt(VerifiableCredential.Builder.newInstance().id(FAKER.internet().uuid()).build(), FAKER.internet().url(), FAKER.internet().url(), generateEcKey());
+        var secondJws = buildSignedJwt(VerifiableCredential.Builder.newInstance().id(FAKER.internet().uuid()).build(), FAKER.internet().url(), FAKER.internet().url(), generateEcKey());
+        var cursor = FAKER.internet().uuid();
+        var requests = new AtomicInteger();
+        var cursorInterceptor = cursorInterceptor(firstJws, secondJws, cursor);
+        Interceptor interceptor = chain -> {
+            requests.incrementAndGet();
+            return cursorInterceptor.intercept(chain);
+        };
+        var consumed = new ArrayList<SignedJWT>();
+
+        var client = createClient(interceptor);
+        var statusResult = client.streamVerifiableCredentials(HUB_URL, null, jwt -> !consumed.add(jwt));
+
+        assertThat(statusResult.succeeded()).isTrue();
+        assertThat(consumed).usingRecursiveFieldByFieldElementComparator().containsExactly(firstJws);
+        assertThat(requests.get()).isEqualTo(1);
+    }
+
+    @Test
+    void getVerifiableCredentialsFailsOnRepeatedCursor() {
+        var cursor = FAKER.internet().uuid();
+        var requests = new AtomicInteger();
+
+        var client = createClient(pagingInterceptor(requests, () -> cursor));
+        var statusResult = client.getVerifiableCredentials(HUB_URL);
+
+        assertThat(statusResult.failed()).isTrue();
+        assertThat(statusResult.getFailureDetail()).contains(cursor);
+        assertThat(requests.get()).isEqualTo(2);
+    }
+
+    @Test
+    void getVerifiableCredentialsAsyncFailsOnRepeatedCursor() {
+        var cursor = FAKER.internet().uuid();
+        var requests = new AtomicInteger();
+
+        var client = createClient(pagingInterceptor(requests, () -> cursor));
+        var statusResult = client.getVerifiableCredentialsAsync(HUB_URL).join();
+
+        assertThat(statusResult.failed()).isTrue();
+        assertThat(requests.get()).isEqualTo(2);
+    }
+
+    @Test
+    void streamVerifiableCredentialsFailsAfterMaxPages() {
+        var requests = new AtomicInteger();
+
+        var client = createClient(pagingInterceptor(requests, () -> FAKER.internet().uuid()));
+        var statusResult = client.streamVerifiableCredentials(HUB_URL, null, jwt -> true);
+
+        assertThat(statusResult.failed()).isTrue();
+        assertThat(requests.get()).isEqualTo(IdentityHubClientImpl.MAX_PAGES);
+    }
+
+    @Test
+    void getVerifiableCredentialsWithEtag() {
+        var jws = buildSignedJwt(VerifiableCredential.Builder.newInstance().id(FAKER.internet().uuid()).build(), FAKER.internet().url(), FAKER.internet().url(), generateEcKey());
+        var etag = FAKER.internet().uuid();
+
+        Interceptor interceptor = chain -> {
+            var request = chain.request();
+            var buffer = new Buffer();
+            request.body().writeTo(buffer);
+            var requestObject = OBJECT_MAPPER.readTree(buffer.readUtf8());
+            var ifNoneMatch = requestObject.at("/messages/0/descriptor/ifNoneMatch").textValue();
+
+            var replies = etag.equals(ifNoneMatch) ?
+                    MessageResponseObject.Builder.newInstance().messageId(MESSAGE_ID_VALUE)
+                            .status(MessageStatus.NOT_MODIFIED).etag(etag).build() :
+                    MessageResponseObject.Builder.newInstance().messageId(MESSAGE_ID_VALUE)
+                            .status(MessageStatus.OK).entries(List.of(jws.serialize().getBytes(StandardCharsets.UTF_8))).etag(etag).build();
+            var responseObject = ResponseObject.Builder.newInstance()
+                    .requestId(FAKER.internet().uuid())
+                    .status(RequestStatus.OK)
+                    .replies(List.of(replies))
+                    .build();
+            var body = ResponseBody.create(OBJECT_MAPPER.writeValueAsString(responseObject), MediaType.get("application/json"));
+
+            return new Response.Builder()
+                    .body(body)
+                    .request(request)
+                    .protocol(Protocol.HTTP_2)
+                    .code(200)
+                    .message("")
+                    .build();
+        };
+
+        var client = createClient(interceptor);
+        var modified = client.getVerifiableCredentials(HUB_URL, null, null);
+        var notModified = client.getVerifiableCredentials(HUB_URL, null, modified.getContent().getEtag());
+
+        assertThat(modified.succeeded()).isTrue();
+        assertThat(modified.getContent().isModified()).isTrue();
+        assertThat(modified.getContent().getEtag()).isEqualTo(etag);
+        assertThat(modified.getContent().getVerifiableCredentials()).usingRecursiveFieldByFieldElementComparator().containsExactly(jws);
+        assertThat(notModified.succeeded()).isTrue();
+        assertThat(notModified.getContent().isModified()).isFalse();
+        assertThat(notModified.getContent().getVerifiableCredentials()).isEmpty();
+    }
+
     @Test
     void getVerifiableCredentialsServerError() {
 
@@ -171,6 +412,85 @@ class IdentityHubClientImplTest {
         assertThat(statusResult.fatalError()).isTrue();
     }
 
+    @Test
+    void addVerifiableCredentialSendsDataCid() {
+        var credential = VerifiableCredential.Builder.newInstance().id(VERIFIABLE_CREDENTIAL_ID).build();
+        var jws = buildSignedJwt(credential, FAKER.internet().url(), FAKER.internet().url(), generateEcKey());
+        var expectedCid = DataCid.of(jws.serialize().getBytes(StandardCharsets.UTF_8));
+        var requestCids = new ArrayList<String>();
+
+        Interceptor interceptor = chain -> {
+            var request = chain.request();
+            var buffer = new Buffer();
+            request.body().writeTo(buffer);
+            requestCids.add(OBJECT_MAPPER.readTree(buffer.readUtf8()).at("/messages/0/descriptor/dataCid").textValue());
+            return writeResponse(request, MessageStatus.OK);
+        };
+
+        var client = createClient(interceptor);
+        var statusResult = client.addVerifiableCredential(HUB_URL, jws);
+
+        assertThat(statusResult.succeeded()).isTrue();
+        assertThat(requestCids).containsExactly(expectedCid);
+    }
+
+    @Test
+    void addSeveralVerifiableCredentialsInSingleRequest() {
+        var jwts = List.of(
+                buildSignedJwt(VerifiableCredential.Builder.newInstance().id(FAKER.internet().uuid()).build(), FAKER.internet().url(), FAKER.internet().url(), generateEcKey()),
+                buildSignedJwt(VerifiableCredential.Builder.newInstance().id(FAKER.internet().uuid()).build(), FAKER.internet().url(), FAKER.internet().url(), generateEcKey()));
+        var requestCids = new ArrayList<String>();
+        var requestCount = new AtomicInteger();
+
+        Interceptor interceptor = chain -> {
+            var request = chain.request();
+            requestCount.incrementAndGet();
+            var buffer = new Buffer();
+            request.body().writeTo(buffer);
+            OBJECT_MAPPER.readTree(buffer.readUtf8()).get("messages").forEach(message -> requestCids.add(message.at("/descriptor/dataCid").textValue()));
+            return writeResponse(request, MessageStatus.OK, MessageStatus.OK);
+        };
+
+        var client = createClient(interceptor);
+        var statusResult = client.addVerifiableCredentials(HUB_URL, jwts);
+
+        assertThat(statusResult.succeeded()).isTrue();
+        assertThat(requestCount.get()).isEqualTo(1);
+        assertThat(requestCids).containsExactly(
+                DataCid.of(jwts.get(0).serialize().getBytes(StandardCharsets.UTF_8)),
+                DataCid.of(jwts.get(1).serialize().getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void addSeveralVerifiableCredentialsWithMalformedMessage() {
+        var jwts = List.of(
+                buildSignedJwt(VerifiableCredential.Builder.newInstance().id(FAKER.internet().uuid()).build(), FAKER.internet().url(), FAKER.internet().url(), generateEcKey()),
+                buildSignedJwt(VerifiableCredential.Builder.newInstance().id(FAKER.internet().uuid()).build(), FAKER.internet().url(), FAKER.internet().url(), generateEcKey()));
+
+        Interceptor interceptor = chain -> writeResponse(chain.request(), MessageStatus.OK, MessageStatus.MALFORMED_MESSAGE);
+
+        var client = createClient(interceptor);
+        var statusResult = client.addVerifiableCredentials(HUB_URL, jwts);
+
+        var expectedResult = StatusResult.failure(ResponseStatus.FATAL_ERROR, "IdentityHub failed to write 1 of 2 VerifiableCredentials: " + MessageStatus.MALFORMED_MESSAGE.getDetail());
+        assertThat(statusResult).usingRecursiveComparison().isEqualTo(expectedResult);
+    }
+
+    @Test
+    void addVerifiableCredentialRejected() {
+        var jws = buildSignedJwt(VerifiableCredential.Builder.newInstance().id(VERIFIABLE_CREDENTIAL_ID).build(), FAKER.internet().url(), FAKER.internet().url(), generateEcKey());
+        var detail = FAKER.lorem().sentence();
+        Interceptor interceptor = chain -> writeResponse(chain.request(), MessageStatus.malformedMessage(detail));
+
+        var client = createClient(interceptor);
+        var statusResult = client.addVerifiableCredential(HUB_URL, jws);
+        var asyncStatusResult = client.addVerifiableCredentialAsync(HUB_URL, jws).join();
+
+        var expectedResult = StatusResult.failure(ResponseStatus.FATAL_ERROR, "IdentityHub failed to write 1 of 1 VerifiableCredentials: " + detail);
+        assertThat(statusResult).usingRecursiveComparison().isEqualTo(expectedResult);
+        assertThat(asyncStatusResult).usingRecursiveComparison().isEqualTo(expectedResult);
+    }
+
     @Test
     void addVerifiableCredentialsServerError() {
         var credential = VerifiableCredential.Builder.newInstance().id(VERIFIABLE_CREDENTIAL_ID).build();
@@ -197,6 +517,22 @@ class IdentityHubClientImplTest {
         assertThat(statusResult).usingRecursiveComparison().isEqualTo(expectedResult);
     }
 
+    @Test
+    void addVerifiableCredentialAsyncIoException() {
+        var credential = VerifiableCredential.Builder.newInstance().id(VERIFIABLE_CREDENTIAL_ID).build();
+        var jws = buildSignedJwt(credential, FAKER.internet().url(), FAKER.internet().url(), generateEcKey());
+        var exceptionMessage = FAKER.lorem().sentence();
+        Interceptor interceptor = chain -> {
+            throw new IOException(exceptionMessage);
+        };
+
+        var client = createClient(interceptor);
+        var statusResult = client.addVerifiableCredentialAsync(HUB_URL, jws).join();
+
+        var expectedResult = StatusResult.failure(ResponseStatus.FATAL_ERROR, exceptionMessage);
+        assertThat(statusResult).usingRecursiveComparison().isEqualTo(expectedResult);
+    }
+
     @Test
     void addVerifiableCredentialsIoException() {
         var credential = VerifiableCredential.Builder.newInstance().id(VERIFIABLE_CREDENTIAL_ID).build();
@@ -213,11 +549,88 @@ class IdentityHubClientImplTest {
         assertThat(statusResult).usingRecursiveComparison().isEqualTo(expectedResult);
     }
 
+    private static Interceptor cursorInterceptor(SignedJWT firstJws, SignedJWT secondJws, String cursor) {
+        return chain -> {
+            var request = chain.request();
+            var buffer = new Buffer();
+            request.body().writeTo(buffer);
+            var requestObject = OBJECT_MAPPER.readTree(buffer.readUtf8());
+            var requestCursor = requestObject.at("/messages/0/descriptor/cursor").textValue();
+
+            var replies = cursor.equals(requestCursor) ?
+                    MessageResponseObject.Builder.newInstance().messageId(MESSAGE_ID_VALUE)
+                            .status(MessageStatus.OK).entries(List.of(secondJws.serialize().getBytes(StandardCharsets.UTF_8))).build() :
+                    MessageResponseObject.Builder.newInstance().messageId(MESSAGE_ID_VALUE)
+                            .status(MessageStatus.OK).entries(List.of(firstJws.serialize().getBytes(StandardCharsets.UTF_8))).cursor(cursor).build();
+            var responseObject = ResponseObject.Builder.newInstance()
+                    .requestId(FAKER.internet().uuid())
+                    .status(RequestStatus.OK)
+                    .replies(List.of(replies))
+                    .build();
+            var body = ResponseBody.create(OBJECT_MAPPER.writeValueAsString(responseObject), MediaType.get("application/json"));
+
+            return new Response.Builder()
+                    .body(body)
+                    .request(request)
+                    .protocol(Protocol.HTTP_2)
+                    .code(200)
+                    .message("")
+                    .build();
+        };
+    }
+
+    /**
+     * Interceptor of an Identity Hub returning empty pages, always with a cursor.
+     */
+    private static Interceptor pagingInterceptor(AtomicInteger requests, Supplier<String> cursor) {
+        return chain -> {
+            requests.incrementAndGet();
+            var replies = MessageResponseObject.Builder.newInstance().messageId(MESSAGE_ID_VALUE)
+                    .status(MessageStatus.OK).entries(List.of()).cursor(cursor.get()).build();
+            var responseObject = ResponseObject.Builder.newInstance()
+                    .requestId(FAKER.internet().uuid())
+                    .status(RequestStatus.OK)
+                    .replies(List.of(replies))
+                    .build();
+            var body = ResponseBody.create(OBJECT_MAPPER.writeValueAsString(responseObject), MediaType.get("application/json"));
+
+            return new Response.Builder()
+                    .body(body)
+                    .request(chain.request())
+                    .protocol(Protocol.HTTP_2)
+                    .code(200)
+                    .message("")
+                    .build();
+        };
+    }
+
+    private static Response writeResponse(Request request, MessageStatus... statuses) throws JsonProcessingException {
+        var replies = Arrays.stream(statuses)
+                .map(status -> MessageResponseObject.Builder.newInstance().messageId(MESSAGE_ID_VALUE).status(status).build())
+                .collect(Collectors.toList());
+        var responseObject = ResponseObject.Builder.newInstance()
+                .requestId(FAKER.internet().uuid())
+                .status(RequestStatus.OK)
+                .replies(replies)
+                .build();
+        return new Response.Builder()
+                .body(ResponseBody.create(OBJECT_MAPPER.writeValueAsString(responseObject), MediaType.get("application/json")))
+                .request(request)
+                .protocol(Protocol.HTTP_2)
+                .code(200)
+                .message("")
+                .build();
+    }
+
     private IdentityHubClientImpl createClient(Interceptor interceptor) {
+        return createClient(interceptor, IdentityHubClientImpl.DEFAULT_SELF_DESCRIPTION_CACHE_SIZE);
+    }
+
+    private IdentityHubClientImpl createClient(Interceptor interceptor, int selfDescriptionCacheSize) {
         var okHttpClient = new OkHttpClient.Builder()
                 .addInterceptor(interceptor)
                 .build();
 
-        return new IdentityHubClientImpl(okHttpClient, OBJECT_MAPPER, mock(Monitor.class));
+        return new IdentityHubClientImpl(okHttpClient, OBJECT_MAPPER, mock(Monitor.class), selfDescriptionCacheSize);
     }
 }
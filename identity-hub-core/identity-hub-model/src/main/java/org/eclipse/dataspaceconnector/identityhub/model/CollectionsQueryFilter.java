@@ -0,0 +1,93 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.dataspaceconnector.identityhub.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonPOJOBuilder;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Filter of a "CollectionsQuery" message. Only the Verifiable Credentials matching all the provided properties are returned.
+ */
+@JsonDeserialize(builder = CollectionsQueryFilter.Builder.class)
+public class CollectionsQueryFilter {
+    private String issuer;
+    private String subject;
+    private String type;
+    private String schema;
+
+    private CollectionsQueryFilter() {
+    }
+
+    @Schema(description = "Issuer of the Verifiable Credentials ('iss' claim)")
+    public String getIssuer() {
+        return issuer;
+    }
+
+    @Schema(description = "Subject of the Verifiable Credentials ('sub' claim)")
+    public String getSubject() {
+        return subject;
+    }
+
+    @Schema(description = "One of the types of the Verifiable Credentials, e.g. 'MembershipCredential'")
+    public String getType() {
+        return type;
+    }
+
+    @Schema(description = "Identifier of the schema of the Verifiable Credentials (credentialSchema id)")
+    public String getSchema() {
+        return schema;
+    }
+
+    @JsonPOJOBuilder(withPrefix = "")
+    public static class Builder {
+
+        private final CollectionsQueryFilter filter;
+
+        private Builder() {
+            filter = new CollectionsQueryFilter();
+        }
+
+        @JsonCreator()
+        public static Builder newInstance() {
+            return new Builder();
+        }
+
+        public Builder issuer(String issuer) {
+            filter.issuer = issuer;
+            return this;
+        }
+
+        public Builder subject(String subject) {
+            filter.subject = subject;
+            return this;
+        }
+
+        public Builder type(String type) {
+            filter.type = type;
+            return this;
+        }
+
+        public Builder schema(String schema) {
+            filter.schema = schema;
+            return this;
+        }
+
+        public CollectionsQueryFilter build() {
+            return filter;
+        }
+    }
+}
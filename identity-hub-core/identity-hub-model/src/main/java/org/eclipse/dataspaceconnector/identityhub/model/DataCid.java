@@ -0,0 +1,85 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.dataspaceconnector.identityhub.model;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Computes the content identifier of message data, used as {@link Descriptor#getDataCid()}.
+ * <p>
+ * The identifier is a <a href="https://github.com/multiformats/cid">Version 1 CID</a> of the raw data (codec "raw",
+ * 0x55) with a sha2-256 multihash, encoded as a lowercase base32 multibase string (prefix "b"). Identical data always
+ * results in the same identifier.
+ */
+public final class DataCid {
+
+    private static final int CID_VERSION = 0x01;
+    private static final int RAW_CODEC = 0x55;
+    private static final int SHA2_256_CODE = 0x12;
+    private static final int SHA2_256_LENGTH = 0x20;
+    private static final char BASE32_MULTIBASE_PREFIX = 'b';
+    private static final char[] BASE32_ALPHABET = "abcdefghijklmnopqrstuvwxyz234567".toCharArray();
+
+    private DataCid() {
+    }
+
+    /**
+     * Compute the content identifier of data.
+     *
+     * @param data the data.
+     * @return stringified Version 1 CID of the data.
+     */
+    public static String of(byte[] data) {
+        var digest = sha256(data);
+        var cid = new byte[4 + digest.length];
+        cid[0] = CID_VERSION;
+        cid[1] = RAW_CODEC;
+        cid[2] = SHA2_256_CODE;
+        cid[3] = SHA2_256_LENGTH;
+        System.arraycopy(digest, 0, cid, 4, digest.length);
+        return BASE32_MULTIBASE_PREFIX + base32(cid);
+    }
+
+    private static byte[] sha256(byte[] data) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(data);
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-256 is available on every Java platform
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * RFC 4648 base32 encoding, lowercase and without padding.
+     */
+    private static String base32(byte[] bytes) {
+        var result = new StringBuilder((bytes.length * 8 + 4) / 5);
+        var buffer = 0;
+        var bits = 0;
+        for (var b : bytes) {
+            buffer = (buffer << 8) | (b & 0xff);
+            bits += 8;
+            while (bits >= 5) {
+                result.append(BASE32_ALPHABET[(buffer >> (bits - 5)) & 0x1f]);
+                bits -= 5;
+            }
+        }
+        if (bits > 0) {
+            result.append(BASE32_ALPHABET[(buffer << (5 - bits)) & 0x1f]);
+        }
+        return result.toString();
+    }
+}
@@ -30,6 +30,10 @@ public class Descriptor {
     private String nonce;
     private String dataCid;
     private String dataFormat;
+    private String cursor;
+    private Integer limit;
+    private CollectionsQueryFilter filter;
+    private String ifNoneMatch;
 
     private Descriptor() {
     }
@@ -44,7 +48,7 @@ public class Descriptor {
         return nonce;
     }
 
-    @Schema(description = "[UNSUPPORTED] If data is available, this field should contain stringified Version 1 CID of the DAG PB encoded data")
+    @Schema(description = "If data is available, this field should contain stringified Version 1 CID of the raw data, with a sha2-256 multihash and base32 multibase encoding")
     public String getDataCid() {
         return dataCid;
     }
@@ -54,6 +58,26 @@ public class Descriptor {
         return dataFormat;
     }
 
+    @Schema(description = "Continuation token returned by a previous CollectionsQuery, used to retrieve the next page of entries")
+    public String getCursor() {
+        return cursor;
+    }
+
+    @Schema(description = "Maximum number of entries returned by a CollectionsQuery. The server may return fewer entries than requested")
+    public Integer getLimit() {
+        return limit;
+    }
+
+    @Schema(description = "Filter applied by a CollectionsQuery on the returned entries")
+    public CollectionsQueryFilter getFilter() {
+        return filter;
+    }
+
+    @Schema(description = "Entity tag returned by a previous CollectionsQuery with the same filter, cursor and limit. When the entries have not changed since, the query returns no entries and a 304 status")
+    public String getIfNoneMatch() {
+        return ifNoneMatch;
+    }
+
     @JsonPOJOBuilder(withPrefix = "")
     public static class Builder {
 
@@ -88,6 +112,26 @@ public class Descriptor {
             return this;
         }
 
+        public Builder cursor(String cursor) {
+            descriptor.cursor = cursor;
+            return this;
+        }
+
+        public Builder limit(Integer limit) {
+            descriptor.limit = limit;
+            return this;
+        }
+
+        public Builder filter(CollectionsQueryFilter filter) {
+            descriptor.filter = filter;
+            return this;
+        }
+
+        public Builder ifNoneMatch(String ifNoneMatch) {
+            descriptor.ifNoneMatch = ifNoneMatch;
+            return this;
+        }
+
         public Descriptor build() {
             Objects.requireNonNull(descriptor.method, "Descriptor must contain method property.");
             Objects.requireNonNull(descriptor.nonce, "Descriptor must contain nonce property.");
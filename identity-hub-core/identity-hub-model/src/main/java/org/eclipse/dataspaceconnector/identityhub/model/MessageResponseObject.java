@@ -37,6 +37,8 @@ public class MessageResponseObject {
     private String messageId;
     private MessageStatus status;
     private Collection<?> entries = new ArrayList<>();
+    private String cursor;
+    private String etag;
 
     private MessageResponseObject() {
     }
@@ -55,6 +57,16 @@ public class MessageResponseObject {
         return entries;
     }
 
+    @Schema(description = "Continuation token to be passed in the descriptor of the next query to retrieve the following entries. Absent when there are no more entries")
+    public String getCursor() {
+        return cursor;
+    }
+
+    @Schema(description = "Entity tag of the entries returned by a CollectionsQuery, to be passed in the descriptor of a later query to only retrieve the entries if they have changed")
+    public String getEtag() {
+        return etag;
+    }
+
     @JsonPOJOBuilder(withPrefix = "")
     public static final class Builder {
         private MessageResponseObject messageResponseObject;
@@ -83,6 +95,16 @@ public class MessageResponseObject {
             return this;
         }
 
+        public Builder cursor(String cursor) {
+            messageResponseObject.cursor = cursor;
+            return this;
+        }
+
+        public Builder etag(String etag) {
+            messageResponseObject.etag = etag;
+            return this;
+        }
+
         public MessageResponseObject build() {
             Objects.requireNonNull(messageResponseObject.messageId, "MessageResponseObject must contain messageId property.");
             Objects.requireNonNull(messageResponseObject.status, "MessageResponseObject must contain status property.");
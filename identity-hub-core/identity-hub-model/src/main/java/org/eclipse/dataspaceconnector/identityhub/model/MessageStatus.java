@@ -22,10 +22,21 @@ import com.fasterxml.jackson.annotation.JsonProperty;
  */
 public class MessageStatus extends Status {
     public static final MessageStatus OK = new MessageStatus(200, "The message was successfully processed");
+    public static final MessageStatus NOT_MODIFIED = new MessageStatus(304, "The entries have not changed since the given entity tag");
     public static final MessageStatus MALFORMED_MESSAGE = new MessageStatus(400, "The message was malformed or improperly constructed");
     public static final MessageStatus INTERFACE_NOT_IMPLEMENTED = new MessageStatus(501, "The interface method is not implemented");
 
     private MessageStatus(@JsonProperty("code") int code, @JsonProperty("detail") String detail) {
         super(code, detail);
     }
+
+    /**
+     * Status of a malformed message, with the reason why it was rejected.
+     *
+     * @param detail reason of the rejection.
+     * @return the status.
+     */
+    public static MessageStatus malformedMessage(String detail) {
+        return new MessageStatus(MALFORMED_MESSAGE.getCode(), detail);
+    }
 }
@@ -0,0 +1,118 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.dataspaceconnector.identityhub.store.index;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Versioned append-only array. Each append publishes a new immutable snapshot of the array, so that readers get a
+ * consistent view of the elements without locking or copying, while writers only copy the backing array when it is full.
+ * <p>
+ * Elements of a snapshot are never overwritten: an append only writes the slot following the last element of the latest
+ * snapshot, which is not visible to any previously published snapshot. Appends must be serialized by the caller.
+ *
+ * @param <E> type of the elements.
+ */
+public class AppendOnlyList<E> {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private volatile Snapshot<E> snapshot = new Snapshot<>(new Object[INITIAL_CAPACITY], 0);
+
+    /**
+     * Append an element. Not thread-safe: concurrent appends must be synchronized by the caller.
+     *
+     * @param element element to append.
+     * @return position of the element.
+     */
+    public int add(E element) {
+        var current = snapshot;
+        var elements = current.elements;
+        var size = current.size;
+        if (size == elements.length) {
+            elements = Arrays.copyOf(elements, size * 2);
+        }
+        elements[size] = element;
+        snapshot = new Snapshot<>(elements, size + 1);
+        return size;
+    }
+
+    /**
+     * Append several elements, published in a single snapshot. Not thread-safe: concurrent appends must be synchronized
+     * by the caller.
+     *
+     * @param elements elements to append.
+     * @return position of the first element.
+     */
+    public int addAll(Collection<? extends E> elements) {
+        var current = snapshot;
+        var array = current.elements;
+        var size = current.size;
+        if (size + elements.size() > array.length) {
+            array = Arrays.copyOf(array, Math.max(array.length * 2, size + elements.size()));
+        }
+        var position = size;
+        for (var element : elements) {
+            array[position++] = element;
+        }
+        snapshot = new Snapshot<>(array, position);
+        return size;
+    }
+
+    /**
+     * Immutable view of the elements appended so far. The view is not affected by subsequent appends.
+     *
+     * @return snapshot of the elements.
+     */
+    public List<E> snapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Number of elements appended so far, which is also the version of the latest snapshot.
+     *
+     * @return number of elements.
+     */
+    public int size() {
+        return snapshot.size;
+    }
+
+    private static final class Snapshot<E> extends AbstractList<E> implements RandomAccess {
+        private final Object[] elements;
+        private final int size;
+
+        private Snapshot(Object[] elements, int size) {
+            this.elements = elements;
+            this.size = size;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public E get(int index) {
+            Objects.checkIndex(index, size);
+            return (E) elements[index];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.dataspaceconnector.identityhub.store.index;
+
+import org.eclipse.dataspaceconnector.identityhub.store.HubObjectMetadata;
+import org.eclipse.dataspaceconnector.identityhub.store.HubObjectPage;
+import org.eclipse.dataspaceconnector.identityhub.store.HubObjectQuery;
+import org.eclipse.dataspaceconnector.identityhub.store.IdentityHubStore;
+import org.eclipse.dataspaceconnector.identityhub.store.OffsetCursor;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+/**
+ * Secondary indexes on the {@link HubObjectMetadata} of the hub objects of an append-only {@link IdentityHubStore}.
+ * Hub objects are identified by their position in the store, i.e. the order in which they were added.
+ * <p>
+ * A filtered query only iterates over the positions of the smallest index matching one of its filters, so that its
+ * cost depends on the number of matching hub objects rather than on the size of the store. The items of the returned
+ * pages are views on the hub objects of the store, read on access.
+ * <p>
+ * Queries can run concurrently with {@link #add(HubObjectMetadata)}, but additions must be serialized by the caller.
+ */
+public class HubObjectIndex {
+
+    private final AppendOnlyList<HubObjectMetadata> metadata = new AppendOnlyList<>();
+    private final Map<String, AppendOnlyList<Integer>> issuerIndex = new ConcurrentHashMap<>();
+    private final Map<String, AppendOnlyList<Integer>> subjectIndex = new ConcurrentHashMap<>();
+    private final Map<String, AppendOnlyList<Integer>> typeIndex = new ConcurrentHashMap<>();
+    private final Map<String, AppendOnlyList<Integer>> schemaIndex = new ConcurrentHashMap<>();
+
+    /**
+     * Index the metadata of the hub object added at the next position of the store.
+     *
+     * @param hubObjectMetadata metadata of the added hub object.
+     * @return position of the hub object.
+     */
+    public int add(HubObjectMetadata hubObjectMetadata) {
+        var position = metadata.add(hubObjectMetadata);
+        index(issuerIndex, hubObjectMetadata.getIssuer(), position);
+        index(subjectIndex, hubObjectMetadata.getSubject(), position);
+        hubObjectMetadata.getTypes().forEach(type -> index(typeIndex, type, position));
+        hubObjectMetadata.getSchemas().forEach(schema -> index(schemaIndex, schema, position));
+        return position;
+    }
+
+    /**
+     * Number of indexed hub objects.
+     *
+     * @return number of indexed hub objects.
+     */
+    public int size() {
+        return metadata.size();
+    }
+
+    /**
+     * Read a page of hub objects matching the query.
+     *
+     * @param query      cursor, filters and maximum number of hub objects to return.
+     * @param hubObjects snapshot of the hub objects of the store, indexed by their position. Only the positions of this
+     *                   snapshot are considered, hub objects added afterwards are ignored. The metadata of all the hub
+     *                   objects of the snapshot must have been added to this index.
+     * @return page of hub objects.
+     * @throws IllegalArgumentException if the cursor of the query is invalid.
+     */
+    public HubObjectPage query(HubObjectQuery query, List<byte[]> hubObjects) {
+        var offset = OffsetCursor.decode(query.getCursor());
+        var size = hubObjects.size();
+        if (offset >= size) {
+            return new HubObjectPage(List.of(), null);
+        }
+
+        var metadataSnapshot = metadata.snapshot();
+        var candidates = candidates(query, (int) offset, size);
+        var positions = new ArrayList<Integer>();
+        while (candidates.hasNext()) {
+            int position = candidates.next();
+            if (!query.matches(metadataSnapshot.get(position))) {
+                continue;
+            }
+            if (positions.size() == query.getLimit()) {
+                return new HubObjectPage(new HubObjectView(hubObjects, positions), OffsetCursor.encode(position));
+            }
+            positions.add(position);
+        }
+        return new HubObjectPage(new HubObjectView(hubObjects, positions), null);
+    }
+
+    /**
+     * Positions of the hub objects which may match the query, from the offset (inclusive) to the size (exclusive). When
+     * the query has filters, the smallest index among the filters is used.
+     */
+    private Iterator<Integer> candidates(HubObjectQuery query, int offset, int size) {
+        if (!query.hasFilter()) {
+            return IntStream.range(offset, size).iterator();
+        }
+
+        List<Integer> smallest = null;
+        for (var candidate : Arrays.asList(
+                lookup(issuerIndex, query.getIssuer()),
+                lookup(subjectIndex, query.getSubject()),
+                lookup(typeIndex, query.getType()),
+                lookup(schemaIndex, query.getSchema()))) {
+            if (candidate != null && (smallest == null || candidate.size() < smallest.size())) {
+                smallest = candidate;
+            }
+        }
+
+        var start = insertionPoint(smallest, offset);
+        var end = insertionPoint(smallest, size);
+        return smallest.subList(start, end).iterator();
+    }
+
+    /**
+     * Snapshot of the positions indexed for a filter value, an empty list if the value is not indexed, or null if the
+     * filter is not set.
+     */
+    private static List<Integer> lookup(Map<String, AppendOnlyList<Integer>> index, String value) {
+        if (value == null) {
+            return null;
+        }
+        var positions = index.get(value);
+        return positions != null ? positions.snapshot() : List.of();
+    }
+
+    /**
+     * Index of the first position greater than or equal to the given position, in a sorted list of positions.
+     */
+    private static int insertionPoint(List<Integer> positions, int position) {
+        var index = Collections.binarySearch(positions, position);
+        return index >= 0 ? index : -(index + 1);
+    }
+
+    private static void index(Map<String, AppendOnlyList<Integer>> index, String value, int position) {
+        if (value != null) {
+            index.computeIfAbsent(value, k -> new AppendOnlyList<>()).add(position);
+        }
+    }
+
+    /**
+     * Read-only view of the hub objects at the given positions of a snapshot of the store.
+     */
+    private static class HubObjectView extends AbstractList<byte[]> implements RandomAccess {
+        private final List<byte[]> hubObjects;
+        private final List<Integer> positions;
+
+        HubObjectView(List<byte[]> hubObjects, List<Integer> positions) {
+            this.hubObjects = hubObjects;
+            this.positions = positions;
+        }
+
+        @Override
+        public byte[] get(int index) {
+            return hubObjects.get(positions.get(index));
+        }
+
+        @Override
+        public int size() {
+            return positions.size();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.dataspaceconnector.identityhub.store.index;
+
+import com.github.javafaker.Faker;
+import org.eclipse.dataspaceconnector.identityhub.store.HubObjectMetadata;
+import org.eclipse.dataspaceconnector.identityhub.store.HubObjectQuery;
+import org.junit.jupiter.api.Test;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HubObjectIndexTest {
+
+    private static final Faker FAKER = new Faker();
+
+    private final HubObjectIndex index = new HubObjectIndex();
+    private final List<byte[]> hubObjects = new ArrayList<>();
+
+    @Test
+    void queryWithFilterAndCursor() {
+        // Arrange
+        var issuer = FAKER.internet().url();
+        for (var i = 0; i < 10; i++) {
+            add(i % 2 == 0 ? issuer : FAKER.internet().url());
+        }
+        var query = HubObjectQuery.Builder.newInstance().issuer(issuer).limit(3);
+
+        // Act
+        var firstPage = index.query(query.build(), hubObjects);
+        var secondPage = index.query(query.cursor(firstPage.getCursor()).build(), hubObjects);
+
+        // Assert
+        assertThat(firstPage.getItems()).containsExactly(hubObjects.get(0), hubObjects.get(2), hubObjects.get(4));
+        assertThat(firstPage.getCursor()).isNotNull();
+        assertThat(secondPage.getItems()).containsExactly(hubObjects.get(6), hubObjects.get(8));
+        assertThat(secondPage.getCursor()).isNull();
+    }
+
+    @Test
+    void queryIgnoresHubObjectsAddedAfterSnapshot() {
+        // Arrange
+        var issuer = FAKER.internet().url();
+        add(issuer);
+        var snapshot = List.copyOf(hubObjects);
+        add(issuer);
+
+        // Act
+        var page = index.query(HubObjectQuery.Builder.newInstance().issuer(issuer).limit(10).build(), snapshot);
+
+        // Assert
+        assertThat(page.getItems()).containsExactly(hubObjects.get(0));
+    }
+
+    @Test
+    void pageItemsAreReadOnAccess() {
+        // Arrange
+        for (var i = 0; i < 5; i++) {
+            add(FAKER.internet().url());
+        }
+        var reads = new AtomicInteger();
+        var countingHubObjects = new AbstractList<byte[]>() {
+            @Override
+            public byte[] get(int index) {
+                reads.incrementAndGet();
+                return hubObjects.get(index);
+            }
+
+            @Override
+            public int size() {
+                return hubObjects.size();
+            }
+        };
+
+        // Act
+        var page = index.query(HubObjectQuery.Builder.newInstance().limit(3).build(), countingHubObjects);
+
+        // Assert
+        assertThat(reads).hasValue(0);
+        assertThat(page.getItems()).hasSize(3);
+        assertThat(page.getItems().get(1)).isSameAs(hubObjects.get(1));
+        assertThat(reads).hasValue(1);
+    }
+
+    private void add(String issuer) {
+        hubObjects.add(FAKER.internet().uuid().getBytes(UTF_8));
+        index.add(HubObjectMetadata.Builder.newInstance().issuer(issuer).build());
+    }
+}
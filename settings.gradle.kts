@@ -3,9 +3,14 @@ rootProject.name = "identity-hub"
 include(":spi:identity-hub-spi")
 include(":spi:identity-hub-store-spi")
 include(":extensions:identity-hub")
+include(":extensions:identity-hub-store-file")
+include(":extensions:identity-hub-store-sql")
 include(":identity-hub-core:identity-hub-client")
 include(":identity-hub-core:identity-hub-model")
+include(":identity-hub-core:identity-hub-store-index")
 include(":extensions:identity-hub-verifier")
+include(":extensions:identity-hub-micrometer")
 include(":client-cli")
+include(":benchmarks")
 include(":system-tests:launcher")
 include(":system-tests:tests")
@@ -14,6 +14,7 @@
 
 package org.eclipse.dataspaceconnector.identityhub.credentials;
 
+import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.SignedJWT;
 import org.eclipse.dataspaceconnector.iam.did.spi.key.PrivateKeyWrapper;
 import org.eclipse.dataspaceconnector.identityhub.credentials.model.VerifiableCredential;
@@ -62,4 +63,15 @@ public interface VerifiableCredentialsJwtService {
      */
     Result<Map.Entry<String, Object>> extractCredential(SignedJWT jwt);
 
+    /**
+     * Extract verifiable credentials from a JWT as {@link #extractCredential(SignedJWT)}, using its already parsed claims.
+     *
+     * @param jwt    SignedJWT containing a verifiableCredential in its payload.
+     * @param claims claims of the JWT.
+     * @return VerifiableCredential represented as {@code Map.Entry<String, Object>}.
+     */
+    default Result<Map.Entry<String, Object>> extractCredential(SignedJWT jwt, JWTClaimsSet claims) {
+        return extractCredential(jwt);
+    }
+
 }
@@ -60,7 +60,17 @@ public class VerifiableCredentialsJwtServiceImpl implements VerifiableCredential
     @Override
     public Result<Map.Entry<String, Object>> extractCredential(SignedJWT jwt) {
         try {
-            var payload = jwt.getJWTClaimsSet().getClaims();
+            return extractCredential(jwt, jwt.getJWTClaimsSet());
+        } catch (ParseException e) {
+            monitor.severe("Failure extracting credentials from JWT", e);
+            return Result.failure(Objects.requireNonNullElseGet(e.getMessage(), e::toString));
+        }
+    }
+
+    @Override
+    public Result<Map.Entry<String, Object>> extractCredential(SignedJWT jwt, JWTClaimsSet claims) {
+        try {
+            var payload = claims.getClaims();
             var vcObject = payload.get(VERIFIABLE_CREDENTIALS_KEY);
             if (vcObject == null) {
                 return Result.failure(String.format("No %s field found", VERIFIABLE_CREDENTIALS_KEY));
@@ -70,7 +80,7 @@ public class VerifiableCredentialsJwtServiceImpl implements VerifiableCredential
             monitor.debug(() -> "Extracted credentials from JWT");
 
             return Result.success(new AbstractMap.SimpleEntry<>(verifiableCredential.getId(), payload));
-        } catch (ParseException | RuntimeException e) {
+        } catch (RuntimeException e) {
             monitor.severe("Failure extracting credentials from JWT", e);
             return Result.failure(Objects.requireNonNullElseGet(e.getMessage(), e::toString));
         }
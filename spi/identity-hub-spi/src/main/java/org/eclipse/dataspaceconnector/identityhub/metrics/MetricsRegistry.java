@@ -0,0 +1,86 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.dataspaceconnector.identityhub.metrics;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Registry of the metrics of the Identity Hub, e.g. backed by a Micrometer registry. Metrics are identified by their
+ * name and tags, so that recording a metric with the same name and tags several times updates the same metric.
+ * <p>
+ * Implementations are registered by extensions; when none is registered, metrics are discarded (see {@link #NOOP}).
+ */
+public interface MetricsRegistry {
+
+    /**
+     * Registry discarding all the metrics.
+     */
+    MetricsRegistry NOOP = new MetricsRegistry() {
+        @Override
+        public void increment(String name, Map<String, String> tags, long amount) {
+        }
+
+        @Override
+        public void record(String name, Map<String, String> tags, Duration duration) {
+        }
+
+        @Override
+        public void registerGauge(String name, Map<String, String> tags, Supplier<Number> value) {
+        }
+
+        @Override
+        public void registerCounter(String name, Map<String, String> tags, Supplier<Number> count) {
+        }
+    };
+
+    /**
+     * Increment a counter.
+     *
+     * @param name   name of the counter.
+     * @param tags   tags of the counter.
+     * @param amount amount to add to the counter.
+     */
+    void increment(String name, Map<String, String> tags, long amount);
+
+    /**
+     * Record the duration of an event in a timer.
+     *
+     * @param name     name of the timer.
+     * @param tags     tags of the timer.
+     * @param duration duration of the event.
+     */
+    void record(String name, Map<String, String> tags, Duration duration);
+
+    /**
+     * Register a gauge, whose value is read from the supplier each time the metrics are collected.
+     *
+     * @param name  name of the gauge.
+     * @param tags  tags of the gauge.
+     * @param value supplier of the current value of the gauge.
+     */
+    void registerGauge(String name, Map<String, String> tags, Supplier<Number> value);
+
+    /**
+     * Register a counter maintained outside the registry, whose cumulative count is read from the supplier each time the
+     * metrics are collected.
+     *
+     * @param name  name of the counter.
+     * @param tags  tags of the counter.
+     * @param count supplier of the cumulative count, which must never decrease.
+     */
+    void registerCounter(String name, Map<String, String> tags, Supplier<Number> count);
+}
@@ -0,0 +1,29 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.dataspaceconnector.identityhub.validation;
+
+/**
+ * Registry of the stages validating the Verifiable Credentials written into the Identity Hub. Stages run in the order
+ * of their registration, and only the stages enabled in the configuration run.
+ */
+public interface CredentialValidationRegistry {
+
+    /**
+     * Register a validation stage.
+     *
+     * @param stage the stage.
+     */
+    void register(CredentialValidationStage stage);
+}
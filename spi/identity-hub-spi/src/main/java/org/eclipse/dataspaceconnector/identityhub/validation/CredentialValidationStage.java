@@ -0,0 +1,41 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.dataspaceconnector.identityhub.validation;
+
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.eclipse.dataspaceconnector.spi.result.Result;
+
+/**
+ * Stage of the validation of the Verifiable Credentials written into the Identity Hub, e.g. checking their structure,
+ * their expiration or their signature. A credential failing any stage is rejected, so that it is never returned to the
+ * consumers which would otherwise fail to verify it on every read.
+ */
+public interface CredentialValidationStage {
+
+    /**
+     * Name of the stage, used to enable it in the configuration and to tag its metrics.
+     */
+    String name();
+
+    /**
+     * Validate a Verifiable Credential.
+     *
+     * @param jwt    the Verifiable Credential in JWT format.
+     * @param claims the claims of the JWT, already parsed.
+     * @return success if the Verifiable Credential is valid, or a failure with the reason otherwise.
+     */
+    Result<Void> validate(SignedJWT jwt, JWTClaimsSet claims);
+}
@@ -0,0 +1,37 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.dataspaceconnector.identityhub.store;
+
+/**
+ * Hub object to be added to an {@link IdentityHubStore}, with its metadata.
+ */
+public class HubObject {
+
+    private final byte[] data;
+    private final HubObjectMetadata metadata;
+
+    public HubObject(byte[] data, HubObjectMetadata metadata) {
+        this.data = data;
+        this.metadata = metadata;
+    }
+
+    public byte[] getData() {
+        return data;
+    }
+
+    public HubObjectMetadata getMetadata() {
+        return metadata;
+    }
+}
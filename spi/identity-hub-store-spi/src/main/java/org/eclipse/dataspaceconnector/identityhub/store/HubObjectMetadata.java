@@ -0,0 +1,122 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.dataspaceconnector.identityhub.store;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Properties of a hub object extracted when it is written, used by an {@link IdentityHubStore} to index hub objects.
+ * For a Verifiable Credential, the issuer and subject are the "iss" and "sub" claims, the types and schemas are the
+ * "type" and "credentialSchema" properties of the credential, and the expiration is the "exp" claim, if any.
+ * <p>
+ * The content identifier (CID) identifies the hub object by its content. It may be omitted, in which case the store
+ * computes it.
+ */
+public class HubObjectMetadata {
+
+    private String cid;
+    private String issuer;
+    private String subject;
+    private Instant expiration;
+    private final Set<String> types = new LinkedHashSet<>();
+    private final Set<String> schemas = new LinkedHashSet<>();
+
+    private HubObjectMetadata() {
+    }
+
+    public String getCid() {
+        return cid;
+    }
+
+    public String getIssuer() {
+        return issuer;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public Instant getExpiration() {
+        return expiration;
+    }
+
+    public Set<String> getTypes() {
+        return Collections.unmodifiableSet(types);
+    }
+
+    public Set<String> getSchemas() {
+        return Collections.unmodifiableSet(schemas);
+    }
+
+    public static final class Builder {
+        private final HubObjectMetadata metadata;
+
+        private Builder() {
+            metadata = new HubObjectMetadata();
+        }
+
+        public static Builder newInstance() {
+            return new Builder();
+        }
+
+        public Builder cid(String cid) {
+            metadata.cid = cid;
+            return this;
+        }
+
+        public Builder issuer(String issuer) {
+            metadata.issuer = issuer;
+            return this;
+        }
+
+        public Builder subject(String subject) {
+            metadata.subject = subject;
+            return this;
+        }
+
+        public Builder expiration(Instant expiration) {
+            metadata.expiration = expiration;
+            return this;
+        }
+
+        public Builder type(String type) {
+            metadata.types.add(type);
+            return this;
+        }
+
+        public Builder types(Collection<String> types) {
+            metadata.types.addAll(types);
+            return this;
+        }
+
+        public Builder schema(String schema) {
+            metadata.schemas.add(schema);
+            return this;
+        }
+
+        public Builder schemas(Collection<String> schemas) {
+            metadata.schemas.addAll(schemas);
+            return this;
+        }
+
+        public HubObjectMetadata build() {
+            return metadata;
+        }
+    }
+}
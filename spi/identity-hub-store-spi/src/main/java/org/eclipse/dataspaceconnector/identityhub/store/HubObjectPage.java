@@ -0,0 +1,44 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.dataspaceconnector.identityhub.store;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Page of hub objects returned by {@link IdentityHubStore#query(HubObjectQuery)}.
+ * The cursor is null when the page contains the last hub objects of the store.
+ * <p>
+ * The items may be a view reading the hub objects from the store on access, so that a page can be serialized without
+ * holding all its hub objects in memory.
+ */
+public class HubObjectPage {
+
+    private final List<byte[]> items;
+    private final String cursor;
+
+    public HubObjectPage(List<byte[]> items, String cursor) {
+        this.items = Collections.unmodifiableList(items);
+        this.cursor = cursor;
+    }
+
+    public List<byte[]> getItems() {
+        return items;
+    }
+
+    public String getCursor() {
+        return cursor;
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.dataspaceconnector.identityhub.store;
+
+/**
+ * Query used to read a page of hub objects from an {@link IdentityHubStore}.
+ * The cursor is an opaque continuation token returned by a previous {@link IdentityHubStore#query(HubObjectQuery)},
+ * or null to start reading from the first hub object.
+ * Only hub objects whose {@link HubObjectMetadata} match all the provided filters (issuer, subject, type, schema) are returned.
+ */
+public class HubObjectQuery {
+
+    private String cursor;
+    private int limit;
+    private String issuer;
+    private String subject;
+    private String type;
+    private String schema;
+
+    private HubObjectQuery() {
+    }
+
+    public String getCursor() {
+        return cursor;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public String getIssuer() {
+        return issuer;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public String getSchema() {
+        return schema;
+    }
+
+    /**
+     * Checks if the query contains at least one filter.
+     *
+     * @return true if a filter is set.
+     */
+    public boolean hasFilter() {
+        return issuer != null || subject != null || type != null || schema != null;
+    }
+
+    /**
+     * Checks if the metadata of a hub object matches all the filters of the query.
+     *
+     * @param metadata metadata of the hub object.
+     * @return true if all filters match.
+     */
+    public boolean matches(HubObjectMetadata metadata) {
+        return (issuer == null || issuer.equals(metadata.getIssuer())) &&
+                (subject == null || subject.equals(metadata.getSubject())) &&
+                (type == null || metadata.getTypes().contains(type)) &&
+                (schema == null || metadata.getSchemas().contains(schema));
+    }
+
+    public static final class Builder {
+        private final HubObjectQuery query;
+
+        private Builder() {
+            query = new HubObjectQuery();
+        }
+
+        public static Builder newInstance() {
+            return new Builder();
+        }
+
+        public Builder cursor(String cursor) {
+            query.cursor = cursor;
+            return this;
+        }
+
+        public Builder limit(int limit) {
+            query.limit = limit;
+            return this;
+        }
+
+        public Builder issuer(String issuer) {
+            query.issuer = issuer;
+            return this;
+        }
+
+        public Builder subject(String subject) {
+            query.subject = subject;
+            return this;
+        }
+
+        public Builder type(String type) {
+            query.type = type;
+            return this;
+        }
+
+        public Builder schema(String schema) {
+            query.schema = schema;
+            return this;
+        }
+
+        public HubObjectQuery build() {
+            if (query.limit <= 0) {
+                throw new IllegalArgumentException("HubObjectQuery limit must be strictly positive.");
+            }
+            return query;
+        }
+    }
+}
@@ -15,6 +15,7 @@
 package org.eclipse.dataspaceconnector.identityhub.store;
 
 import java.util.Collection;
+import java.util.List;
 
 /**
  * IdentityHubStore used to store data in an Identity Hub.
@@ -22,7 +23,76 @@ import java.util.Collection;
  */
 public interface IdentityHubStore {
 
-    Collection<Object> getAll();
+    /**
+     * Read all the hub objects, in the order they were added to the store. The returned collection is a read-only view,
+     * which implementations may share between callers instead of copying the store. The returned arrays must not be
+     * modified.
+     *
+     * @return all the hub objects.
+     */
+    Collection<byte[]> getAll();
 
-    void add(Object hubObject);
+    /**
+     * Add a hub object without metadata. The hub object is returned by queries without filters only.
+     *
+     * @param hubObject hub object to add.
+     */
+    default void add(byte[] hubObject) {
+        add(hubObject, HubObjectMetadata.Builder.newInstance().build());
+    }
+
+    /**
+     * Add a hub object, indexed with its metadata so that it can be retrieved by filtered queries. The store is content
+     * addressed: a hub object with the same content identifier as a stored hub object is ignored.
+     *
+     * @param hubObject hub object to add.
+     * @param metadata  metadata of the hub object.
+     */
+    void add(byte[] hubObject, HubObjectMetadata metadata);
+
+    /**
+     * Add several hub objects atomically: either all of them are added, or none if the operation fails. Readers never
+     * see a part of the hub objects only. Hub objects with the same content identifier as a stored hub object, or as a
+     * previous hub object of the list, are ignored.
+     *
+     * @param hubObjects hub objects to add, with their metadata.
+     */
+    void addAll(List<HubObject> hubObjects);
+
+    /**
+     * Find a hub object by its content identifier.
+     *
+     * @param cid content identifier of the hub object.
+     * @return the hub object, or null if not found. The returned array must not be modified.
+     */
+    byte[] findByCid(String cid);
+
+    /**
+     * Read a page of hub objects matching the query filters, in the order they were added to the store.
+     *
+     * @param query cursor, filters and maximum number of hub objects to return.
+     * @return page of hub objects, with a cursor to read the next page if more hub objects are available.
+     * @throws IllegalArgumentException if the cursor of the query is invalid.
+     */
+    HubObjectPage query(HubObjectQuery query);
+
+    /**
+     * Version of the store, which changes each time hub objects are added. As the store is append-only, results of
+     * queries cannot change as long as the version does not change. Implementations should override this method, which
+     * reads all the hub objects.
+     *
+     * @return version of the store.
+     */
+    default long version() {
+        return getAll().size();
+    }
+
+    /**
+     * Number of hub objects in the store. Implementations should override this method, which reads all the hub objects.
+     *
+     * @return number of hub objects.
+     */
+    default long count() {
+        return getAll().size();
+    }
 }
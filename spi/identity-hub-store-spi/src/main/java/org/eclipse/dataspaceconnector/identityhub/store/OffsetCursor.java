@@ -0,0 +1,60 @@
+/*
+ *  Copyright (c) 2022 Microsoft Corporation
+ *
+ *  This program and the accompanying materials are made available under the
+ *  terms of the Apache License, Version 2.0 which is available at
+ *  https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  SPDX-License-Identifier: Apache-2.0
+ *
+ *  Contributors:
+ *       Microsoft Corporation - initial API and implementation
+ *
+ */
+
+package org.eclipse.dataspaceconnector.identityhub.store;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Encodes positions in an append-only store as opaque cursors.
+ * Hub objects are never removed nor reordered, so a position stays valid while the store grows.
+ */
+public final class OffsetCursor {
+
+    private OffsetCursor() {
+    }
+
+    /**
+     * Encode a position as a cursor.
+     *
+     * @param offset position of the next hub object to read.
+     * @return opaque cursor.
+     */
+    public static String encode(long offset) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(Long.toString(offset).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a cursor previously built with {@link #encode(long)}.
+     *
+     * @param cursor opaque cursor, or null to start from the first hub object.
+     * @return position of the next hub object to read.
+     * @throws IllegalArgumentException if the cursor is invalid.
+     */
+    public static long decode(String cursor) {
+        if (cursor == null) {
+            return 0;
+        }
+        try {
+            var offset = Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+            if (offset < 0) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            return offset;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+    }
+}